@@ -35,6 +35,7 @@ public class AuditLogController {
     /**
      * Get audit logs with optional filtering
      * GET /api/audit-logs
+     * Pass cursor (empty for the first page) to page by keyset, newest first, without a count
      */
     @GetMapping
     public ResponseEntity<ApiResponse<AuditLogListDto>> getAuditLogs(
@@ -46,7 +47,8 @@ public class AuditLogController {
             @RequestParam(defaultValue = "${app.pagination.default-page}") int page,
             @RequestParam(defaultValue = "${app.pagination.default-size}") int size,
             @RequestParam(defaultValue = "timestamp") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDirection) {
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(required = false) String cursor) {
 
         try {
             UUID currentUserId = SecurityUtil.getCurrentUserId();
@@ -62,6 +64,11 @@ public class AuditLogController {
             request.setSortBy(sortBy);
             request.setSortDirection(sortDirection);
 
+            if (cursor != null) {
+                return ResponseEntity.ok(ApiResponse.success(
+                        AuditLogListDto.fromSlice(auditLogService.getAuditLogsAfter(currentUserId, request, cursor), size, cursor)));
+            }
+
             Page<AuditLogDto> auditLogs = auditLogService.getAuditLogs(currentUserId, request);
 
             PaginationDto pagination = new PaginationDto(
@@ -72,10 +79,12 @@ public class AuditLogController {
                     auditLogs.hasNext(),
                     auditLogs.hasPrevious());
 
-            AuditLogListDto response = new AuditLogListDto(auditLogs.getContent(), pagination);
+            AuditLogListDto response = new AuditLogListDto(auditLogs.getContent(), pagination, null);
 
             return ResponseEntity.ok(ApiResponse.success(response));
 
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(ex.getMessage()));
         } catch (Exception ex) {
             log.error("Error retrieving audit logs", ex);
             return ResponseEntity.status(500)
@@ -87,14 +96,21 @@ public class AuditLogController {
     public ResponseEntity<ApiResponse<AuditLogListDto>> getSpaceAuditLogs(
             @PathVariable UUID spaceId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
         UUID currentUserId = SecurityUtil.getCurrentUserId();
         if (!spaceService.hasAccessToSpace(spaceId, currentUserId)) {
             return ResponseEntity.status(404).body(ApiResponse.error("Space not found or access denied"));
         }
+        if (cursor != null) {
+            AuditLogFilterRequest request = new AuditLogFilterRequest();
+            request.setSize(size);
+            return ResponseEntity.ok(ApiResponse.success(
+                    AuditLogListDto.fromSlice(auditLogService.getSpaceAuditLogsAfter(spaceId, request, cursor), size, cursor)));
+        }
         Page<AuditLogDto> logs = auditLogService.getSpaceAuditLogs(spaceId, PageRequest.of(page, size, Sort.by("timestamp").descending()));
         PaginationDto pagination = new PaginationDto(logs.getNumber(), logs.getSize(), logs.getTotalElements(), logs.getTotalPages(), logs.hasNext(), logs.hasPrevious());
-        return ResponseEntity.ok(ApiResponse.success(new AuditLogListDto(logs.getContent(), pagination)));
+        return ResponseEntity.ok(ApiResponse.success(new AuditLogListDto(logs.getContent(), pagination, null)));
     }
 
     /**
@@ -0,0 +1,40 @@
+package app.web.inventory.controller;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import app.web.inventory.service.AuditRollupService;
+
+/**
+ * Operations endpoint for the audit activity rollup.
+ * GET /actuator/auditrollup reports whether a rebuild is running,
+ * POST /actuator/auditrollup regenerates the rollup from audit_logs, optionally
+ * limited to {"from": "2024-01-01", "to": "2024-01-31"}.
+ * Only reachable when exposed through management.endpoints.web.exposure.include.
+ */
+@Component
+@Endpoint(id = "auditrollup")
+public class AuditRollupEndpoint {
+
+    private final AuditRollupService rollupService;
+
+    public AuditRollupEndpoint(AuditRollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return Map.of("rebuilding", rollupService.isRebuilding());
+    }
+
+    @WriteOperation
+    public AuditRollupService.RebuildResult rebuild(@Nullable LocalDate from, @Nullable LocalDate to) {
+        return rollupService.rebuild(from, to);
+    }
+}
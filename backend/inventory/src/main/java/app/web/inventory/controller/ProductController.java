@@ -4,6 +4,9 @@ import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,16 +16,29 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import app.web.inventory.dto.api.ApiResponse;
+import app.web.inventory.dto.pagination.CursorSlice;
 import app.web.inventory.dto.pagination.PaginationDto;
 import app.web.inventory.dto.product.CreateProductRequest;
+import app.web.inventory.dto.product.ImportJobDto;
 import app.web.inventory.dto.product.ProductDto;
 import app.web.inventory.dto.product.ProductListDto;
 import app.web.inventory.dto.product.ProductResponseDto;
+import app.web.inventory.dto.product.ProductSearchResultDto;
+import app.web.inventory.dto.product.ProductSuggestionDto;
+import app.web.inventory.dto.product.ProductSyncRequest;
+import app.web.inventory.dto.product.ProductSyncResultDto;
 import app.web.inventory.dto.product.UpdateProductRequest;
 import app.web.inventory.dto.stock.StockOperationRequest;
+import app.web.inventory.model.enums.ProductFileFormat;
+import app.web.inventory.model.enums.StockStatus;
+import app.web.inventory.service.ProductExportService;
+import app.web.inventory.service.ProductImportService;
 import app.web.inventory.service.ProductService;
 import app.web.inventory.util.SecurityUtil;
 import jakarta.validation.Valid;
@@ -32,9 +48,14 @@ import jakarta.validation.Valid;
 public class ProductController {
 
         private final ProductService productService;
+        private final ProductExportService productExportService;
+        private final ProductImportService productImportService;
 
-        public ProductController(ProductService productService) {
+        public ProductController(ProductService productService, ProductExportService productExportService,
+                        ProductImportService productImportService) {
                 this.productService = productService;
+                this.productExportService = productExportService;
+                this.productImportService = productImportService;
         }
 
         /**
@@ -67,6 +88,7 @@ public class ProductController {
         /**
          * Get all products in a specific space
          * GET /api/spaces/{spaceId}/products
+         * Pass cursor (empty for the first page) to page by keyset instead of offset
          */
         @GetMapping
         public ResponseEntity<ApiResponse<ProductListDto>> getProductsBySpace(
@@ -75,10 +97,31 @@ public class ProductController {
                         @RequestParam(defaultValue = "${app.pagination.default-page}") int page,
                         @RequestParam(defaultValue = "${app.pagination.default-size}") int size,
                         @RequestParam(defaultValue = "name") String sortBy,
-                        @RequestParam(defaultValue = "ASC") String sortDirection) {
+                        @RequestParam(defaultValue = "ASC") String sortDirection,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "true") boolean includeTotal) {
 
                 UUID currentUserId = SecurityUtil.getCurrentUserId();
 
+                // Any cursor parameter (an empty one for the first page) switches to keyset pagination
+                if (cursor != null) {
+                        CursorSlice<ProductDto> slice = productService.getProductsBySpaceAfter(
+                                        currentUserId, spaceId, search, cursor, size, sortBy, sortDirection,
+                                        includeTotal);
+
+                        long total = slice.getTotalElements() != null ? slice.getTotalElements() : -1;
+                        PaginationDto pagination = new PaginationDto(
+                                        0,
+                                        size,
+                                        total,
+                                        total >= 0 ? (int) Math.ceil((double) total / size) : -1,
+                                        slice.isHasNext(),
+                                        !cursor.isBlank());
+
+                        return ResponseEntity.ok(ApiResponse.success(
+                                        new ProductListDto(slice.getContent(), pagination, slice.getNextCursor())));
+                }
+
                 Page<ProductDto> productsPage = productService.getProductsBySpace(
                                 currentUserId, spaceId, search, page, size, sortBy, sortDirection);
 
@@ -90,7 +133,7 @@ public class ProductController {
                                 productsPage.hasNext(),
                                 productsPage.hasPrevious());
 
-                ProductListDto response = new ProductListDto(productsPage.getContent(), pagination);
+                ProductListDto response = new ProductListDto(productsPage.getContent(), pagination, null);
 
                 return ResponseEntity.ok(ApiResponse.success(response));
         }
@@ -194,6 +237,121 @@ public class ProductController {
                 return ResponseEntity.ok(ApiResponse.success("Product deleted successfully", null));
         }
 
+        /**
+         * Stream every product in a space as a file download
+         * GET /api/spaces/{spaceId}/products/export?format=csv|ndjson&gzip=false
+         */
+        @GetMapping("/export")
+        public ResponseEntity<StreamingResponseBody> exportProducts(
+                        @PathVariable UUID spaceId,
+                        @RequestParam(defaultValue = "csv") String format,
+                        @RequestParam(defaultValue = "false") boolean gzip) {
+
+                UUID currentUserId = SecurityUtil.getCurrentUserId();
+                ProductFileFormat fileFormat = ProductFileFormat.from(format);
+                productExportService.checkExportAccess(currentUserId, spaceId);
+
+                String filename = "products-" + spaceId + "." + fileFormat.getExtension() + (gzip ? ".gz" : "");
+                StreamingResponseBody body = out -> productExportService.writeProducts(spaceId, fileFormat, gzip, out);
+
+                return ResponseEntity.ok()
+                                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : fileFormat.getContentType()))
+                                .header(HttpHeaders.CONTENT_DISPOSITION,
+                                                ContentDisposition.attachment().filename(filename).build().toString())
+                                .body(body);
+        }
+
+        /**
+         * Start a background import of products from a CSV or NDJSON upload
+         * POST /api/spaces/{spaceId}/products/import
+         */
+        @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+        public ResponseEntity<ApiResponse<ImportJobDto>> importProducts(
+                        @PathVariable UUID spaceId,
+                        @RequestPart("file") MultipartFile file,
+                        @RequestParam(required = false) String format) {
+
+                UUID currentUserId = SecurityUtil.getCurrentUserId();
+                ImportJobDto job = productImportService.submit(currentUserId, spaceId, file, format);
+
+                return ResponseEntity.accepted()
+                                .body(ApiResponse.success("Import started", job));
+        }
+
+        /**
+         * Progress and row errors of an import
+         * GET /api/spaces/{spaceId}/products/import/{jobId}
+         */
+        @GetMapping("/import/{jobId}")
+        public ResponseEntity<ApiResponse<ImportJobDto>> getImportJob(
+                        @PathVariable UUID spaceId,
+                        @PathVariable UUID jobId) {
+
+                UUID currentUserId = SecurityUtil.getCurrentUserId();
+                ImportJobDto job = productImportService.getJob(currentUserId, spaceId, jobId);
+
+                return ResponseEntity.ok(ApiResponse.success(job));
+        }
+
+        /**
+         * Upsert a catalog into a space by SKU; safe to repeat
+         * PUT /api/spaces/{spaceId}/products/sync
+         */
+        @PutMapping("/sync")
+        public ResponseEntity<ApiResponse<ProductSyncResultDto>> syncProducts(
+                        @PathVariable UUID spaceId,
+                        @Valid @RequestBody ProductSyncRequest request) {
+
+                UUID currentUserId = SecurityUtil.getCurrentUserId();
+
+                ProductSyncResultDto result = productService.syncProducts(
+                                currentUserId, spaceId, request.getProducts());
+
+                String message = result.getCreated() + " created, " + result.getUpdated() + " updated, "
+                                + result.getUnchanged() + " unchanged, " + result.getFailed() + " failed";
+
+                return ResponseEntity.ok(ApiResponse.success(message, result));
+        }
+
+        /**
+         * Relevance-ranked full-text search with facet counts
+         * GET /api/spaces/{spaceId}/products/search
+         */
+        @GetMapping("/search")
+        public ResponseEntity<ApiResponse<ProductSearchResultDto>> searchProducts(
+                        @PathVariable UUID spaceId,
+                        @RequestParam(required = false) String q,
+                        @RequestParam(required = false) String category,
+                        @RequestParam(required = false) StockStatus stockStatus,
+                        @RequestParam(required = false) Double minPrice,
+                        @RequestParam(required = false) Double maxPrice,
+                        @RequestParam(defaultValue = "${app.pagination.default-page}") int page,
+                        @RequestParam(defaultValue = "${app.pagination.default-size}") int size) {
+
+                UUID currentUserId = SecurityUtil.getCurrentUserId();
+                ProductSearchResultDto result = productService.searchProductsFullText(
+                                currentUserId, spaceId, q, category, stockStatus, minPrice, maxPrice, page, size);
+
+                return ResponseEntity.ok(ApiResponse.success(result));
+        }
+
+        /**
+         * Autocomplete product names and SKUs starting with a prefix
+         * GET /api/spaces/{spaceId}/products/suggest
+         */
+        @GetMapping("/suggest")
+        public ResponseEntity<ApiResponse<List<ProductSuggestionDto>>> suggestProducts(
+                        @PathVariable UUID spaceId,
+                        @RequestParam(required = false) String prefix,
+                        @RequestParam(defaultValue = "10") int limit) {
+
+                UUID currentUserId = SecurityUtil.getCurrentUserId();
+                List<ProductSuggestionDto> suggestions = productService.suggestProducts(
+                                currentUserId, spaceId, prefix, limit);
+
+                return ResponseEntity.ok(ApiResponse.success(suggestions));
+        }
+
         /**
          * Get products with low stock in a specific space
          * GET /api/spaces/{spaceId}/products/low-stock
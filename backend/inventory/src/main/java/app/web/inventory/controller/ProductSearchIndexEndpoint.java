@@ -0,0 +1,39 @@
+package app.web.inventory.controller;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import app.web.inventory.service.ProductFullTextIndex;
+
+/**
+ * Operations endpoint for the embedded product search index.
+ * GET /actuator/productsearch reports the backlog,
+ * POST /actuator/productsearch rebuilds the index from the database.
+ * Only reachable when exposed through management.endpoints.web.exposure.include.
+ */
+@Component
+@Endpoint(id = "productsearch")
+public class ProductSearchIndexEndpoint {
+
+    private final ProductFullTextIndex fullTextIndex;
+
+    public ProductSearchIndexEndpoint(ProductFullTextIndex fullTextIndex) {
+        this.fullTextIndex = fullTextIndex;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return Map.of(
+                "enabled", fullTextIndex.isEnabled(),
+                "pendingChanges", fullTextIndex.pendingChanges());
+    }
+
+    @WriteOperation
+    public Map<String, Object> reindex() {
+        return Map.of("indexedProducts", fullTextIndex.reindexAll());
+    }
+}
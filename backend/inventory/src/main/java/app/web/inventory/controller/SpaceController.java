@@ -107,7 +107,8 @@ public class SpaceController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "timestamp") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDirection) {
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(required = false) String cursor) {
         UUID currentUserId = SecurityUtil.getCurrentUserId();
         if (!spaceService.hasAccessToSpace(spaceId, currentUserId)) {
             return ResponseEntity.status(404).body(ApiResponse.error("Space not found or access denied"));
@@ -115,10 +116,14 @@ public class SpaceController {
 
         AuditLogFilterRequest request = new AuditLogFilterRequest(entityType, operation, startDate, endDate,
                 null, page, size, sortBy, sortDirection);
+        if (cursor != null) {
+            return ResponseEntity.ok(ApiResponse.success(AuditLogListDto.fromSlice(
+                    auditLogService.getSpaceAuditLogsAfter(spaceId, request, cursor), size, cursor)));
+        }
         Page<AuditLogDto> logs = auditLogService.getSpaceAuditLogs(spaceId, request);
         PaginationDto pagination = new PaginationDto(logs.getNumber(), logs.getSize(), logs.getTotalElements(),
                 logs.getTotalPages(), logs.hasNext(), logs.hasPrevious());
-        return ResponseEntity.ok(ApiResponse.success(new AuditLogListDto(logs.getContent(), pagination)));
+        return ResponseEntity.ok(ApiResponse.success(new AuditLogListDto(logs.getContent(), pagination, null)));
     }
 
     /**
@@ -0,0 +1,50 @@
+package app.web.inventory.controller;
+
+import java.util.UUID;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import app.web.inventory.dto.api.ApiResponse;
+import app.web.inventory.dto.stock.BatchStockRequest;
+import app.web.inventory.dto.stock.BatchStockResultDto;
+import app.web.inventory.service.ProductService;
+import app.web.inventory.util.SecurityUtil;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/spaces/{spaceId}/stock")
+public class StockController {
+
+        private final ProductService productService;
+
+        public StockController(ProductService productService) {
+                this.productService = productService;
+        }
+
+        /**
+         * Apply a batch of stock additions/removals in a space
+         * POST /api/spaces/{spaceId}/stock/batch
+         */
+        @PostMapping("/batch")
+        public ResponseEntity<ApiResponse<BatchStockResultDto>> applyStockBatch(
+                        @PathVariable UUID spaceId,
+                        @Valid @RequestBody BatchStockRequest request) {
+
+                UUID currentUserId = SecurityUtil.getCurrentUserId();
+
+                BatchStockResultDto result = productService.applyStockBatch(
+                                currentUserId, spaceId, request.getOperations());
+
+                String message = result.getFailed() == 0
+                                ? "All " + result.getSucceeded() + " stock operations applied"
+                                : result.getSucceeded() + " stock operations applied, " + result.getFailed()
+                                                + " failed";
+
+                return ResponseEntity.ok(ApiResponse.success(message, result));
+        }
+}
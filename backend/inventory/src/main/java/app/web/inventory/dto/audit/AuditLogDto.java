@@ -3,6 +3,7 @@ package app.web.inventory.dto.audit;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import app.web.inventory.model.AuditLog;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -20,4 +21,29 @@ public class AuditLogDto {
     private String ipAddress;
     private UUID relatedEntityId;
     private String relatedEntityType;
+    private String productName;
+    private String spaceName;
+    private Integer quantityDelta;
+    private Integer oldStock;
+    private Integer newStock;
+    private String description;
+
+    public static AuditLogDto from(AuditLog auditLog) {
+        return new AuditLogDto(
+                auditLog.getId(),
+                auditLog.getEntityType(),
+                auditLog.getEntityId(),
+                auditLog.getOperation(),
+                auditLog.getDetails(),
+                auditLog.getTimestamp(),
+                auditLog.getIpAddress(),
+                auditLog.getRelatedEntityId(),
+                auditLog.getRelatedEntityType(),
+                auditLog.getProductName(),
+                auditLog.getSpaceName(),
+                auditLog.getQuantityDelta(),
+                auditLog.getOldStock(),
+                auditLog.getNewStock(),
+                auditLog.getDescription());
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package app.web.inventory.dto.audit;
 
+import app.web.inventory.dto.pagination.CursorSlice;
 import app.web.inventory.dto.pagination.PaginationDto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,4 +14,12 @@ import java.util.List;
 public class AuditLogListDto {
     private List<AuditLogDto> data;
     private PaginationDto pagination;
+    // Only set in cursor mode, null on the last page
+    private String nextCursor;
+
+    // Keyset pages carry no totals: totalElements and totalPages are -1
+    public static AuditLogListDto fromSlice(CursorSlice<AuditLogDto> slice, int size, String cursor) {
+        PaginationDto pagination = new PaginationDto(0, size, -1, -1, slice.isHasNext(), !cursor.isBlank());
+        return new AuditLogListDto(slice.getContent(), pagination, slice.getNextCursor());
+    }
 }
\ No newline at end of file
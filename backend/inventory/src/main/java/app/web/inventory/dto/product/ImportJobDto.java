@@ -0,0 +1,36 @@
+package app.web.inventory.dto.product;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDto {
+    private UUID jobId;
+    private UUID spaceId;
+    private String status; // QUEUED, RUNNING, COMPLETED or FAILED
+    private String format;
+    private String fileName;
+    private long processedRows;
+    private long importedRows;
+    private long failedRows;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+    private String message;
+    private Instant submittedAt;
+    private Instant finishedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row; // 1-based data row, header not counted
+        private String message;
+    }
+}
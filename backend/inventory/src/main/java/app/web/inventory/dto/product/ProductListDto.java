@@ -13,4 +13,6 @@ import lombok.NoArgsConstructor;
 public class ProductListDto {
     private List<ProductDto> data;
     private PaginationDto pagination;
+    // Only set in cursor mode, null on the last page
+    private String nextCursor;
 }
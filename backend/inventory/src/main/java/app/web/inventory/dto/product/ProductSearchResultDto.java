@@ -0,0 +1,19 @@
+package app.web.inventory.dto.product;
+
+import java.util.List;
+import java.util.Map;
+
+import app.web.inventory.dto.pagination.PaginationDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResultDto {
+    private List<ProductDto> data;      // best match first
+    private PaginationDto pagination;
+    // facet -> value -> matching products, e.g. "category" -> {"Electronics": 12}
+    private Map<String, Map<String, Long>> facets;
+}
@@ -0,0 +1,18 @@
+package app.web.inventory.dto.product;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestionDto {
+    private UUID productId;
+    private String text;
+    private String matchedField; // "NAME" or "SKU"
+}
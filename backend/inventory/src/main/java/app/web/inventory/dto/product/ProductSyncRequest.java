@@ -0,0 +1,59 @@
+package app.web.inventory.dto.product;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+public class ProductSyncRequest {
+
+    @NotEmpty(message = "At least one product is required")
+    @Size(max = 5000, message = "A sync must not exceed 5000 products")
+    private List<@Valid SyncItem> products;
+
+    // One catalog row, matched to an existing product by SKU
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SyncItem {
+        @NotBlank(message = "SKU is required")
+        @Size(max = 100, message = "SKU must not exceed 100 characters")
+        private String sku;
+
+        @NotBlank(message = "Product name is required")
+        @Size(max = 255, message = "Product name must not exceed 255 characters")
+        private String name;
+
+        @Size(max = 100, message = "Category must not exceed 100 characters")
+        private String category;
+
+        @Size(max = 2048, message = "Image URL must not exceed 2048 characters")
+        private String imageUrl;
+
+        @NotNull(message = "Price is required")
+        @DecimalMin(value = "0.0", inclusive = true, message = "Price must be non-negative")
+        private Double price;
+
+        // Only used when the product is created; stock moves through the stock endpoints
+        @Min(value = 0, message = "Current stock must be non-negative")
+        private Integer currentStock;
+
+        @Min(value = 0, message = "Minimum quantity must be non-negative")
+        private Integer minimumQuantity;
+
+        @Min(value = 0, message = "Maximum quantity must be non-negative")
+        private Integer maximumQuantity;
+
+        @AssertTrue(message = "Maximum quantity must be greater than or equal to minimum quantity")
+        public boolean isMaxQuantityValid() {
+            if (minimumQuantity == null || maximumQuantity == null) {
+                return true;
+            }
+            return maximumQuantity >= minimumQuantity;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package app.web.inventory.dto.product;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSyncResultDto {
+    private int total;
+    private int created;
+    private int updated;
+    private int unchanged;
+    private int failed;
+    private List<LineResult> results; // created, updated and failed rows; unchanged rows are not listed
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineResult {
+        private int index;
+        private String sku;
+        private UUID productId;
+        private String outcome; // CREATED, UPDATED or FAILED
+        private String message;
+    }
+}
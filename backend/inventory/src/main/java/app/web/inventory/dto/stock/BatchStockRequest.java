@@ -0,0 +1,30 @@
+package app.web.inventory.dto.stock;
+
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+public class BatchStockRequest {
+
+    @NotEmpty(message = "At least one stock operation is required")
+    @Size(max = 1000, message = "A batch must not exceed 1000 operations")
+    private List<@Valid StockDelta> operations;
+
+    // Positive delta adds stock, negative delta removes it
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StockDelta {
+        @NotNull(message = "Product ID is required")
+        private UUID productId;
+
+        @NotNull(message = "Delta is required")
+        private Integer delta;
+    }
+}
@@ -0,0 +1,31 @@
+package app.web.inventory.dto.stock;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStockResultDto {
+    private int totalOperations;
+    private int succeeded;
+    private int failed;
+    private List<LineResult> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineResult {
+        private int index;
+        private UUID productId;
+        private Integer delta;
+        private boolean success;
+        private String message;
+        private Integer oldStock;
+        private Integer newStock;
+    }
+}
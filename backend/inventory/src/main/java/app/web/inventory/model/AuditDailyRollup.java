@@ -0,0 +1,59 @@
+package app.web.inventory.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Audit activity counted per user or space, day and operation. Incremented
+ * together with every audit log insert and recomputed from the raw logs by the
+ * nightly compaction, so trend charts read at most one row per day and operation.
+ */
+@Entity
+@Table(name = "audit_daily_rollup")
+@IdClass(AuditDailyRollup.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditDailyRollup {
+
+    public static final String SCOPE_USER = "USER";
+    public static final String SCOPE_SPACE = "SPACE";
+
+    @Id
+    @Column(length = 8)
+    private String scopeType; // "USER" or "SPACE"
+
+    @Id
+    private UUID scopeId;
+
+    @Id
+    private LocalDate activityDate;
+
+    @Id
+    @Column(length = 50)
+    private String operation;
+
+    @Column(nullable = false)
+    private long activityCount;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String scopeType;
+        private UUID scopeId;
+        private LocalDate activityDate;
+        private String operation;
+    }
+}
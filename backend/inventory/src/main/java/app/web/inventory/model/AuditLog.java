@@ -9,7 +9,16 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        // keyset pagination, newest first
+        @Index(name = "idx_audit_user_time", columnList = "userId, timestamp, id"),
+        @Index(name = "idx_audit_entity_time", columnList = "entityId, timestamp, id"),
+        @Index(name = "idx_audit_related_time", columnList = "relatedEntityId, timestamp, id"),
+        // every space-scoped query: single range scan instead of entityId OR relatedEntityId
+        @Index(name = "idx_audit_space_time", columnList = "spaceId, timestamp, id"),
+        // audit rollup compaction and rebuild count one day at a time
+        @Index(name = "idx_audit_time", columnList = "timestamp")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -49,6 +58,44 @@ public class AuditLog {
     @Column(length = 50)
     private String relatedEntityType;
 
+    @Column
+    private UUID spaceId; // The space this entry belongs to, set when it is written
+
+    // Typed copies of the most read details, so activity feeds never parse the JSON
+    @Column(length = 255)
+    private String productName;
+
+    @Column(length = 255)
+    private String spaceName;
+
+    @Column
+    private Integer quantityDelta; // Signed: positive for STOCK_ADD, negative for STOCK_REMOVE
+
+    @Column
+    private Integer oldStock;
+
+    @Column
+    private Integer newStock;
+
+    @Column(length = 500)
+    private String description; // Human-readable summary, built when the entry is written
+
+    /**
+     * The space an entry belongs to: the entity itself for space operations,
+     * otherwise the related space of a product operation. Null for entries
+     * outside any space.
+     */
+    public static UUID resolveSpaceId(String entityType, UUID entityId, String relatedEntityType,
+            UUID relatedEntityId) {
+        if ("SPACE".equals(entityType)) {
+            return entityId;
+        }
+        if ("SPACE".equals(relatedEntityType)) {
+            return relatedEntityId;
+        }
+        return null;
+    }
+
     @PrePersist
     protected void onCreate() {
         timestamp = LocalDateTime.now();
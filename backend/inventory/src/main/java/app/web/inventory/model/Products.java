@@ -2,13 +2,26 @@ package app.web.inventory.model;
 
 import java.time.Instant;
 import java.util.UUID;
+
+import app.web.inventory.model.enums.StockStatus;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // keyset pagination: (space_id, sort key, id)
+        @Index(name = "idx_products_space_name", columnList = "space_id, name, id"),
+        @Index(name = "idx_products_space_price", columnList = "space_id, price, id"),
+        @Index(name = "idx_products_space_stock", columnList = "space_id, currentStock, id"),
+        @Index(name = "idx_products_space_updated", columnList = "space_id, updatedAt, id"),
+        // low stock lookups: stockStatus IN (LOW, OUT)
+        @Index(name = "idx_products_space_status", columnList = "space_id, stockStatus")
+}, uniqueConstraints = {
+        // SKUs are the key for catalog sync; products without a SKU are not constrained
+        @UniqueConstraint(name = "uk_products_space_sku", columnNames = { "space_id", "sku" })
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -43,9 +56,22 @@ public class Products {
     private Integer minimumQuantity;
     private Integer maximumQuantity;
 
+    // Derived from currentStock and minimumQuantity on every write, including the
+    // bulk stock UPDATEs in ProductRepository; rows older than the column are
+    // filled in once by ProductStockStatusBackfill
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private StockStatus stockStatus;
+
     @CreationTimestamp
     private Instant createdAt;
 
     @UpdateTimestamp
     private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void updateStockStatus() {
+        stockStatus = StockStatus.of(currentStock, minimumQuantity);
+    }
 }
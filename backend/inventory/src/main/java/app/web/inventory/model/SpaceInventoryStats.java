@@ -0,0 +1,47 @@
+package app.web.inventory.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Per-space inventory totals, kept up to date with delta arithmetic by every
+ * product mutation so dashboards don't have to scan products.
+ */
+@Entity
+@Table(name = "space_inventory_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpaceInventoryStats {
+
+    @Id
+    private UUID spaceId;
+
+    @Column(nullable = false)
+    private long productCount;
+
+    @Column(nullable = false)
+    private double totalValue; // sum of price * currentStock
+
+    @Column(nullable = false)
+    private long inStockCount; // stock above zero and not low
+
+    @Column(nullable = false)
+    private long lowStockCount; // currentStock <= minimumQuantity, including empty products
+
+    @Column(nullable = false)
+    private long outOfStockCount; // currentStock == 0
+
+    private Instant updatedAt;
+
+    public static SpaceInventoryStats empty(UUID spaceId) {
+        return new SpaceInventoryStats(spaceId, 0, 0.0, 0, 0, 0, Instant.now());
+    }
+}
@@ -0,0 +1,32 @@
+package app.web.inventory.model.enums;
+
+import java.util.Locale;
+
+public enum ProductFileFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson"); // One JSON object per line
+
+    private final String contentType;
+    private final String extension;
+
+    ProductFileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ProductFileFormat from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unsupported format: " + value + ". Use csv or ndjson");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package app.web.inventory.model.enums;
+
+public enum StockStatus {
+    OK,   // Above the minimum quantity, or no minimum set
+    LOW,  // At or below the minimum quantity but not empty
+    OUT;  // No stock left
+
+    public static StockStatus of(Integer currentStock, Integer minimumQuantity) {
+        if (currentStock == null || currentStock <= 0) {
+            return OUT;
+        }
+        if (minimumQuantity != null && currentStock <= minimumQuantity) {
+            return LOW;
+        }
+        return OK;
+    }
+}
@@ -0,0 +1,44 @@
+package app.web.inventory.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import app.web.inventory.model.AuditDailyRollup;
+
+public interface AuditDailyRollupRepository
+        extends JpaRepository<AuditDailyRollup, AuditDailyRollup.Key>, AuditDailyRollupRepositoryCustom {
+
+    // [activityDate, count] per day of one user or space, oldest first
+    @Query("""
+                SELECT r.activityDate, SUM(r.activityCount)
+                FROM AuditDailyRollup r
+                WHERE r.scopeType = :scopeType AND r.scopeId = :scopeId
+                AND r.activityDate BETWEEN :startDate AND :endDate
+                GROUP BY r.activityDate
+                ORDER BY r.activityDate ASC
+            """)
+    List<Object[]> countDaily(
+            @Param("scopeType") String scopeType,
+            @Param("scopeId") UUID scopeId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    // [operation, count] of one user or space over the days
+    @Query("""
+                SELECT r.operation, SUM(r.activityCount)
+                FROM AuditDailyRollup r
+                WHERE r.scopeType = :scopeType AND r.scopeId = :scopeId
+                AND r.activityDate BETWEEN :startDate AND :endDate
+                GROUP BY r.operation
+            """)
+    List<Object[]> countByOperation(
+            @Param("scopeType") String scopeType,
+            @Param("scopeId") UUID scopeId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,18 @@
+package app.web.inventory.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import app.web.inventory.model.AuditLog;
+
+public interface AuditDailyRollupRepositoryCustom {
+
+    // Add freshly inserted audit logs to the user and space counters of their day
+    void increment(List<AuditLog> auditLogs);
+
+    // Replace the counters of one day with counts taken from audit_logs; returns the rows written
+    int rebuildDay(LocalDate day);
+
+    // Date of the oldest audit log, null when there are none
+    LocalDate findFirstActivityDate();
+}
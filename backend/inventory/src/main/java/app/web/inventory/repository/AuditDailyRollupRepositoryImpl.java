@@ -0,0 +1,120 @@
+package app.web.inventory.repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import app.web.inventory.model.AuditDailyRollup;
+import app.web.inventory.model.AuditLog;
+import app.web.inventory.util.UuidUtil;
+
+public class AuditDailyRollupRepositoryImpl implements AuditDailyRollupRepositoryCustom {
+
+    private static final String INCREMENT_SQL = """
+            INSERT INTO audit_daily_rollup (scope_type, scope_id, activity_date, operation, activity_count)
+            VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE activity_count = activity_count + VALUES(activity_count)
+            """;
+
+    private static final String DELETE_DAY_SQL = "DELETE FROM audit_daily_rollup WHERE activity_date = ?";
+
+    // The space is derived like AuditLog.resolveSpaceId so rows not yet backfilled still count
+    private static final String REBUILD_DAY_SQL = """
+            INSERT INTO audit_daily_rollup (scope_type, scope_id, activity_date, operation, activity_count)
+            SELECT 'USER', user_id, CAST(? AS DATE), operation, COUNT(*)
+            FROM audit_logs
+            WHERE timestamp >= ? AND timestamp < ?
+            GROUP BY user_id, operation
+            UNION ALL
+            SELECT 'SPACE', s.space_id, CAST(? AS DATE), s.operation, COUNT(*)
+            FROM (
+                SELECT COALESCE(space_id, CASE
+                        WHEN entity_type = 'SPACE' THEN entity_id
+                        WHEN related_entity_type = 'SPACE' THEN related_entity_id END) AS space_id,
+                    operation
+                FROM audit_logs
+                WHERE timestamp >= ? AND timestamp < ?
+            ) s
+            WHERE s.space_id IS NOT NULL
+            GROUP BY s.space_id, s.operation
+            """;
+
+    private static final String FIRST_DATE_SQL = "SELECT CAST(MIN(timestamp) AS DATE) FROM audit_logs";
+
+    // Fixed row order so concurrent writers lock counters in the same sequence
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator.comparing(RollupKey::scopeType)
+            .thenComparing(RollupKey::scopeId)
+            .thenComparing(RollupKey::day)
+            .thenComparing(RollupKey::operation);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditDailyRollupRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void increment(List<AuditLog> auditLogs) {
+        Map<RollupKey, Long> counts = new TreeMap<>(KEY_ORDER);
+        for (AuditLog auditLog : auditLogs) {
+            LocalDate day = auditLog.getTimestamp().toLocalDate();
+            if (auditLog.getUserId() != null) {
+                counts.merge(new RollupKey(AuditDailyRollup.SCOPE_USER, auditLog.getUserId(), day,
+                        auditLog.getOperation()), 1L, Long::sum);
+            }
+            if (auditLog.getSpaceId() != null) {
+                counts.merge(new RollupKey(AuditDailyRollup.SCOPE_SPACE, auditLog.getSpaceId(), day,
+                        auditLog.getOperation()), 1L, Long::sum);
+            }
+        }
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<RollupKey, Long>> rows = new ArrayList<>(counts.entrySet());
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                RollupKey key = rows.get(i).getKey();
+                ps.setString(1, key.scopeType());
+                ps.setBytes(2, UuidUtil.toBytes(key.scopeId()));
+                ps.setDate(3, Date.valueOf(key.day()));
+                ps.setString(4, key.operation());
+                ps.setLong(5, rows.get(i).getValue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    @Override
+    public int rebuildDay(LocalDate day) {
+        Date date = Date.valueOf(day);
+        Object start = day.atStartOfDay();
+        Object end = day.plusDays(1).atStartOfDay();
+        jdbcTemplate.update(DELETE_DAY_SQL, date);
+        return jdbcTemplate.update(REBUILD_DAY_SQL, date, start, end, date, start, end);
+    }
+
+    @Override
+    public LocalDate findFirstActivityDate() {
+        Date first = jdbcTemplate.queryForObject(FIRST_DATE_SQL, Date.class);
+        return first != null ? first.toLocalDate() : null;
+    }
+
+    private record RollupKey(String scopeType, UUID scopeId, LocalDate day, String operation) {
+    }
+}
@@ -12,14 +12,14 @@ import org.springframework.data.repository.query.Param;
 
 import app.web.inventory.model.AuditLog;
 
-public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
+public interface AuditLogRepository extends JpaRepository<AuditLog, UUID>, AuditLogRepositoryCustom {
 
-        @Query("SELECT a FROM AuditLog a WHERE a.entityId = :spaceId OR a.relatedEntityId = :spaceId ORDER BY a.timestamp DESC")
+        @Query("SELECT a FROM AuditLog a WHERE a.spaceId = :spaceId ORDER BY a.timestamp DESC")
         Page<AuditLog> findBySpaceId(@Param("spaceId") UUID spaceId, Pageable pageable);
 
         @Query("""
                 SELECT a FROM AuditLog a
-                WHERE (a.entityId = :spaceId OR a.relatedEntityId = :spaceId)
+                WHERE a.spaceId = :spaceId
                 AND (:entityType IS NULL OR a.entityType = :entityType)
                 AND (:operation IS NULL OR a.operation = :operation)
                 AND (:startDate IS NULL OR a.timestamp >= :startDate)
@@ -33,14 +33,54 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
                         @Param("endDate") LocalDateTime endDate,
                         Pageable pageable);
 
-        @Query("SELECT a FROM AuditLog a WHERE (a.entityId = :spaceId OR a.relatedEntityId = :spaceId) AND a.timestamp >= :since ORDER BY a.timestamp DESC")
-        List<AuditLog> findRecentActivityBySpaceId(@Param("spaceId") UUID spaceId, @Param("since") LocalDateTime since);
+        // Keyset pages, newest first: rows strictly before (afterTimestamp, afterId), no COUNT
+        @Query("""
+                SELECT a FROM AuditLog a
+                WHERE a.spaceId = :spaceId
+                AND (:entityType IS NULL OR a.entityType = :entityType)
+                AND (:operation IS NULL OR a.operation = :operation)
+                AND (:startDate IS NULL OR a.timestamp >= :startDate)
+                AND (:endDate IS NULL OR a.timestamp <= :endDate)
+                AND (:afterTimestamp IS NULL OR a.timestamp < :afterTimestamp
+                        OR (a.timestamp = :afterTimestamp AND a.id < :afterId))
+                ORDER BY a.timestamp DESC, a.id DESC
+                """)
+        List<AuditLog> findBySpaceIdBefore(
+                        @Param("spaceId") UUID spaceId,
+                        @Param("entityType") String entityType,
+                        @Param("operation") String operation,
+                        @Param("startDate") LocalDateTime startDate,
+                        @Param("endDate") LocalDateTime endDate,
+                        @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                        @Param("afterId") UUID afterId,
+                        Pageable limit);
 
-        @Query("SELECT CAST(a.timestamp AS DATE), COUNT(a) FROM AuditLog a WHERE (a.entityId = :spaceId OR a.relatedEntityId = :spaceId) AND a.timestamp BETWEEN :startDate AND :endDate GROUP BY CAST(a.timestamp AS DATE)")
-        List<Object[]> countDailyActivityBySpaceId(@Param("spaceId") UUID spaceId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+        @Query("""
+                SELECT a FROM AuditLog a
+                WHERE a.userId = :userId
+                AND (:entityId IS NULL OR a.entityId = :entityId)
+                AND (:entityType IS NULL OR a.entityType = :entityType)
+                AND (:operation IS NULL OR a.operation = :operation)
+                AND (:startDate IS NULL OR a.timestamp >= :startDate)
+                AND (:endDate IS NULL OR a.timestamp <= :endDate)
+                AND (:afterTimestamp IS NULL OR a.timestamp < :afterTimestamp
+                        OR (a.timestamp = :afterTimestamp AND a.id < :afterId))
+                ORDER BY a.timestamp DESC, a.id DESC
+                """)
+        List<AuditLog> findByUserIdBefore(
+                        @Param("userId") UUID userId,
+                        @Param("entityId") UUID entityId,
+                        @Param("entityType") String entityType,
+                        @Param("operation") String operation,
+                        @Param("startDate") LocalDateTime startDate,
+                        @Param("endDate") LocalDateTime endDate,
+                        @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                        @Param("afterId") UUID afterId,
+                        Pageable limit);
 
-        @Query("SELECT a.operation, COUNT(a) FROM AuditLog a WHERE (a.entityId = :spaceId OR a.relatedEntityId = :spaceId) AND a.timestamp BETWEEN :startDate AND :endDate GROUP BY a.operation")
-        List<Object[]> countOperationBreakdownBySpaceId(@Param("spaceId") UUID spaceId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+        // Newest entries of a space, LIMIT taken from the Pageable (idx_audit_space_time)
+        @Query("SELECT a FROM AuditLog a WHERE a.spaceId = :spaceId ORDER BY a.timestamp DESC, a.id DESC")
+        List<AuditLog> findLatestBySpaceId(@Param("spaceId") UUID spaceId, Pageable limit);
 
         // Find audit logs by user
         Page<AuditLog> findByUserIdOrderByTimestampDesc(UUID userId, Pageable pageable);
@@ -73,45 +113,11 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
         @Query("SELECT a.entityType, COUNT(a) FROM AuditLog a WHERE a.userId = :userId GROUP BY a.entityType")
         List<Object[]> countEntitiesByUser(@Param("userId") UUID userId);
 
-        // Get recent activity summary
-        @Query("SELECT a FROM AuditLog a WHERE a.userId = :userId AND a.timestamp >= :since ORDER BY a.timestamp DESC")
-        List<AuditLog> findRecentActivity(@Param("userId") UUID userId, @Param("since") LocalDateTime since);
-
-        // AuditLogRepository.java - add these three
-
-        @Query("""
-                            SELECT CAST(a.timestamp AS DATE), COUNT(a)
-                            FROM AuditLog a
-                            WHERE a.userId = :userId
-                            AND a.timestamp BETWEEN :startDate AND :endDate
-                            GROUP BY CAST(a.timestamp AS DATE)
-                            ORDER BY CAST(a.timestamp AS DATE) ASC
-                        """)
-        List<Object[]> countDailyActivityByUser(
-                        @Param("userId") UUID userId,
-                        @Param("startDate") LocalDateTime startDate,
-                        @Param("endDate") LocalDateTime endDate);
-
-        @Query("""
-                            SELECT a.operation, COUNT(a)
-                            FROM AuditLog a
-                            WHERE a.userId = :userId
-                            AND a.timestamp BETWEEN :startDate AND :endDate
-                            GROUP BY a.operation
-                        """)
-        List<Object[]> countOperationBreakdownByUser(
-                        @Param("userId") UUID userId,
-                        @Param("startDate") LocalDateTime startDate,
-                        @Param("endDate") LocalDateTime endDate);
+        // Oldest entry still in the table, the starting point for archival
+        @Query("SELECT MIN(a.timestamp) FROM AuditLog a")
+        LocalDateTime findOldestTimestamp();
 
-        @Query("""
-                            SELECT COUNT(a)
-                            FROM AuditLog a
-                            WHERE a.userId = :userId
-                            AND a.timestamp BETWEEN :startDate AND :endDate
-                        """)
-        long countByUserIdAndTimestampBetween(
-                        @Param("userId") UUID userId,
-                        @Param("startDate") LocalDateTime startDate,
-                        @Param("endDate") LocalDateTime endDate);
+        // Newest entries of a user, LIMIT taken from the Pageable (idx_audit_user_time)
+        @Query("SELECT a FROM AuditLog a WHERE a.userId = :userId ORDER BY a.timestamp DESC, a.id DESC")
+        List<AuditLog> findLatestByUserId(@Param("userId") UUID userId, Pageable limit);
 }
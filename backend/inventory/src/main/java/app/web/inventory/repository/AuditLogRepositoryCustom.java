@@ -0,0 +1,38 @@
+package app.web.inventory.repository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.Consumer;
+
+import app.web.inventory.model.AuditLog;
+
+public interface AuditLogRepositoryCustom {
+
+    // Insert audit log rows as one JDBC batch, bypassing the persistence context
+    void batchInsert(List<AuditLog> auditLogs);
+
+    // Set space_id on up to limit older rows that lack it; returns the rows updated
+    int backfillSpaceIds(int limit);
+
+    // Stream rows with from <= timestamp < to in (timestamp, id) order without buffering them
+    void streamBetween(LocalDateTime from, LocalDateTime to, Consumer<AuditLog> action);
+
+    // Delete up to limit rows with from <= timestamp < to; returns the rows deleted
+    int deleteBetween(LocalDateTime from, LocalDateTime to, int limit);
+
+    // Months that have their own partition, empty while the table is not partitioned
+    List<YearMonth> findMonthPartitions();
+
+    // Rebuild the table with one range partition per month plus a catch-all for later rows
+    void partitionByMonth(List<YearMonth> months);
+
+    // Split the partition for the given month off the catch-all partition
+    void addMonthPartition(YearMonth month);
+
+    void dropMonthPartition(YearMonth month);
+
+    // Run the action while this node holds the named database lock; returns false without
+    // running it when another node holds the lock. The lock dies with its connection.
+    boolean runExclusively(String lockName, Runnable action);
+}
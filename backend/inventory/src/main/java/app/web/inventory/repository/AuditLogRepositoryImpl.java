@@ -0,0 +1,221 @@
+package app.web.inventory.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import app.web.inventory.model.AuditLog;
+import app.web.inventory.util.UuidUtil;
+
+public class AuditLogRepositoryImpl implements AuditLogRepositoryCustom {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO audit_logs (id, user_id, entity_type, entity_id, operation, details,
+                ip_address, user_agent, timestamp, related_entity_id, related_entity_type, space_id,
+                product_name, space_name, quantity_delta, old_stock, new_stock, description)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // Rows written before space_id existed, in chunks so no statement holds locks for long
+    private static final String BACKFILL_SPACE_ID_SQL = """
+            UPDATE audit_logs
+            SET space_id = CASE WHEN entity_type = 'SPACE' THEN entity_id ELSE related_entity_id END
+            WHERE space_id IS NULL
+            AND (entity_type = 'SPACE' OR related_entity_type = 'SPACE')
+            LIMIT ?
+            """;
+
+    private static final String STREAM_BETWEEN_SQL = """
+            SELECT id, user_id, entity_type, entity_id, operation, details, ip_address, user_agent,
+                timestamp, related_entity_id, related_entity_type, space_id,
+                product_name, space_name, quantity_delta, old_stock, new_stock, description
+            FROM audit_logs
+            WHERE timestamp >= ? AND timestamp < ?
+            ORDER BY timestamp, id
+            """;
+
+    private static final String DELETE_BETWEEN_SQL =
+            "DELETE FROM audit_logs WHERE timestamp >= ? AND timestamp < ? LIMIT ?";
+
+    private static final String PARTITIONS_SQL = """
+            SELECT partition_name FROM information_schema.partitions
+            WHERE table_schema = DATABASE() AND table_name = 'audit_logs' AND partition_name IS NOT NULL
+            """;
+
+    // MySQL requires the partitioning column in every unique key, so the primary key becomes (id, timestamp)
+    private static final String PARTITION_PRIMARY_KEY_SQL =
+            "ALTER TABLE audit_logs DROP PRIMARY KEY, ADD PRIMARY KEY (id, timestamp)";
+
+    private static final String CATCH_ALL_PARTITION = "pmax";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditLogRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void batchInsert(List<AuditLog> auditLogs) {
+        if (auditLogs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AuditLog auditLog = auditLogs.get(i);
+                // Same defaults the entity gets from @GeneratedValue/@PrePersist
+                if (auditLog.getId() == null) {
+                    auditLog.setId(UUID.randomUUID());
+                }
+                if (auditLog.getTimestamp() == null) {
+                    auditLog.setTimestamp(LocalDateTime.now());
+                }
+                ps.setBytes(1, UuidUtil.toBytes(auditLog.getId()));
+                ps.setBytes(2, UuidUtil.toBytes(auditLog.getUserId()));
+                ps.setString(3, auditLog.getEntityType());
+                ps.setBytes(4, UuidUtil.toBytes(auditLog.getEntityId()));
+                ps.setString(5, auditLog.getOperation());
+                ps.setString(6, auditLog.getDetails());
+                ps.setString(7, auditLog.getIpAddress());
+                ps.setString(8, auditLog.getUserAgent());
+                ps.setObject(9, auditLog.getTimestamp());
+                ps.setBytes(10, UuidUtil.toBytes(auditLog.getRelatedEntityId()));
+                ps.setString(11, auditLog.getRelatedEntityType());
+                ps.setBytes(12, UuidUtil.toBytes(auditLog.getSpaceId()));
+                ps.setString(13, auditLog.getProductName());
+                ps.setString(14, auditLog.getSpaceName());
+                ps.setObject(15, auditLog.getQuantityDelta(), Types.INTEGER);
+                ps.setObject(16, auditLog.getOldStock(), Types.INTEGER);
+                ps.setObject(17, auditLog.getNewStock(), Types.INTEGER);
+                ps.setString(18, auditLog.getDescription());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return auditLogs.size();
+            }
+        });
+    }
+
+    @Override
+    public int backfillSpaceIds(int limit) {
+        return jdbcTemplate.update(BACKFILL_SPACE_ID_SQL, limit);
+    }
+
+    @Override
+    public void streamBetween(LocalDateTime from, LocalDateTime to, Consumer<AuditLog> action) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(STREAM_BETWEEN_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Tells MySQL Connector/J to stream rows instead of buffering the whole result
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setObject(1, from);
+            ps.setObject(2, to);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(new AuditLog(
+                UuidUtil.fromBytes(rs.getBytes("id")),
+                UuidUtil.fromBytes(rs.getBytes("user_id")),
+                rs.getString("entity_type"),
+                UuidUtil.fromBytes(rs.getBytes("entity_id")),
+                rs.getString("operation"),
+                rs.getString("details"),
+                rs.getString("ip_address"),
+                rs.getString("user_agent"),
+                rs.getObject("timestamp", LocalDateTime.class),
+                UuidUtil.fromBytes(rs.getBytes("related_entity_id")),
+                rs.getString("related_entity_type"),
+                UuidUtil.fromBytes(rs.getBytes("space_id")),
+                rs.getString("product_name"),
+                rs.getString("space_name"),
+                rs.getObject("quantity_delta", Integer.class),
+                rs.getObject("old_stock", Integer.class),
+                rs.getObject("new_stock", Integer.class),
+                rs.getString("description"))));
+    }
+
+    @Override
+    public int deleteBetween(LocalDateTime from, LocalDateTime to, int limit) {
+        return jdbcTemplate.update(DELETE_BETWEEN_SQL, from, to, limit);
+    }
+
+    @Override
+    public List<YearMonth> findMonthPartitions() {
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : jdbcTemplate.queryForList(PARTITIONS_SQL, String.class)) {
+            if (!CATCH_ALL_PARTITION.equals(name)) {
+                months.add(YearMonth.parse(name, PARTITION_NAME));
+            }
+        }
+        return months;
+    }
+
+    @Override
+    public void partitionByMonth(List<YearMonth> months) {
+        StringBuilder ddl = new StringBuilder("ALTER TABLE audit_logs PARTITION BY RANGE COLUMNS(timestamp) (");
+        for (YearMonth month : months) {
+            ddl.append(partitionDefinition(month)).append(", ");
+        }
+        ddl.append("PARTITION ").append(CATCH_ALL_PARTITION).append(" VALUES LESS THAN (MAXVALUE))");
+        jdbcTemplate.execute(PARTITION_PRIMARY_KEY_SQL);
+        jdbcTemplate.execute(ddl.toString());
+    }
+
+    @Override
+    public void addMonthPartition(YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE audit_logs REORGANIZE PARTITION " + CATCH_ALL_PARTITION + " INTO ("
+                + partitionDefinition(month) + ", PARTITION " + CATCH_ALL_PARTITION
+                + " VALUES LESS THAN (MAXVALUE))");
+    }
+
+    @Override
+    public void dropMonthPartition(YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE audit_logs DROP PARTITION " + month.format(PARTITION_NAME));
+    }
+
+    @Override
+    public boolean runExclusively(String lockName, Runnable action) {
+        // GET_LOCK belongs to the session, so the connection is held until the action is done
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            if (!namedLock(con, "SELECT GET_LOCK(?, 0)", lockName)) {
+                return false;
+            }
+            try {
+                action.run();
+                return true;
+            } finally {
+                namedLock(con, "SELECT RELEASE_LOCK(?)", lockName);
+            }
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    private static boolean namedLock(Connection con, String sql, String lockName) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, lockName);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    // Built from a YearMonth only, never from request input
+    private static String partitionDefinition(YearMonth month) {
+        return "PARTITION " + month.format(PARTITION_NAME) + " VALUES LESS THAN ('"
+                + month.plusMonths(1).atDay(1) + " 00:00:00')";
+    }
+}
@@ -1,5 +1,6 @@
 package app.web.inventory.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -11,24 +12,111 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import app.web.inventory.dto.product.ProductDto;
+import app.web.inventory.dto.product.ProductResponseDto;
 import app.web.inventory.model.Products;
 
-public interface ProductRepository extends JpaRepository<Products, UUID> {
+public interface ProductRepository extends JpaRepository<Products, UUID>, ProductRepositoryCustom {
+
+    String STATUS = "app.web.inventory.model.enums.StockStatus";
+
+    // Same products as currentStock <= minimumQuantity, but served by the
+    // (space_id, stock_status) index instead of a two-column comparison
+    String LOW_STOCK = "p.stockStatus IN (" + STATUS + ".LOW, " + STATUS + ".OUT) AND p.minimumQuantity IS NOT NULL";
+
+    // Stock status after adding :quantity to / removing it from the current stock. Stock
+    // UPDATEs assign it before currentStock: MySQL evaluates assignments left to right,
+    // so it must still see the old stock.
+    String STATUS_AFTER_ADD = "CASE WHEN p.currentStock + :quantity <= 0 THEN " + STATUS + ".OUT "
+            + "WHEN p.minimumQuantity IS NOT NULL AND p.currentStock + :quantity <= p.minimumQuantity "
+            + "THEN " + STATUS + ".LOW ELSE " + STATUS + ".OK END";
+    String STATUS_AFTER_REMOVE = "CASE WHEN p.currentStock - :quantity <= 0 THEN " + STATUS + ".OUT "
+            + "WHEN p.minimumQuantity IS NOT NULL AND p.currentStock - :quantity <= p.minimumQuantity "
+            + "THEN " + STATUS + ".LOW ELSE " + STATUS + ".OK END";
 
     // Atomically decrease current stock only when sufficient stock exists
     @Modifying(clearAutomatically = true)
-    @Query("UPDATE Products p SET p.currentStock = p.currentStock - :quantity " +
+    @Query("UPDATE Products p SET p.stockStatus = " + STATUS_AFTER_REMOVE + ", " +
+            "p.currentStock = p.currentStock - :quantity " +
             "WHERE p.id = :productId AND p.currentStock >= :quantity")
     int decrementStock(@Param("productId") UUID productId, @Param("quantity") Integer quantity);
 
     // Atomically increase current stock only when it does not exceed
     // maximumQuantity
     @Modifying(clearAutomatically = true)
-    @Query("UPDATE Products p SET p.currentStock = p.currentStock + :quantity " +
+    @Query("UPDATE Products p SET p.stockStatus = " + STATUS_AFTER_ADD + ", " +
+            "p.currentStock = p.currentStock + :quantity " +
             "WHERE p.id = :productId " +
             "AND (p.maximumQuantity IS NULL OR p.currentStock + :quantity <= p.maximumQuantity)")
     int incrementStock(@Param("productId") UUID productId, @Param("quantity") Integer quantity);
 
+    // Guarded increment that also enforces the space scope and write access
+    // (owner, or ADMIN/MEMBER membership) in the same statement
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Products p SET p.stockStatus = " + STATUS_AFTER_ADD + ", " + """
+                p.currentStock = p.currentStock + :quantity
+                WHERE p.id = :productId
+                AND p.space.id = :spaceId
+                AND (p.maximumQuantity IS NULL OR p.currentStock + :quantity <= p.maximumQuantity)
+                AND (
+                    EXISTS (
+                        SELECT s FROM Spaces s
+                        WHERE s.id = :spaceId
+                        AND s.owner.id = :userId
+                    )
+                    OR EXISTS (
+                        SELECT sm FROM SpaceMember sm
+                        WHERE sm.space.id = :spaceId
+                        AND sm.user.id = :userId
+                        AND sm.role != 'VIEWER'
+                        AND sm.role != 'PENDING'
+                    )
+                )
+            """)
+    int incrementStockInSpace(
+            @Param("productId") UUID productId,
+            @Param("spaceId") UUID spaceId,
+            @Param("userId") UUID userId,
+            @Param("quantity") Integer quantity);
+
+    // Guarded decrement that also enforces the space scope and write access
+    // (owner, or ADMIN/MEMBER membership) in the same statement
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Products p SET p.stockStatus = " + STATUS_AFTER_REMOVE + ", " + """
+                p.currentStock = p.currentStock - :quantity
+                WHERE p.id = :productId
+                AND p.space.id = :spaceId
+                AND p.currentStock >= :quantity
+                AND (
+                    EXISTS (
+                        SELECT s FROM Spaces s
+                        WHERE s.id = :spaceId
+                        AND s.owner.id = :userId
+                    )
+                    OR EXISTS (
+                        SELECT sm FROM SpaceMember sm
+                        WHERE sm.space.id = :spaceId
+                        AND sm.user.id = :userId
+                        AND sm.role != 'VIEWER'
+                        AND sm.role != 'PENDING'
+                    )
+                )
+            """)
+    int decrementStockInSpace(
+            @Param("productId") UUID productId,
+            @Param("spaceId") UUID spaceId,
+            @Param("userId") UUID userId,
+            @Param("quantity") Integer quantity);
+
+    // Find a product together with its space in a single statement
+    @Query("SELECT p FROM Products p JOIN FETCH p.space WHERE p.id = :productId")
+    Optional<Products> findByIdWithSpace(@Param("productId") UUID productId);
+
+    // Find several products of one space in a single statement
+    @Query("SELECT p FROM Products p WHERE p.space.id = :spaceId AND p.id IN :productIds")
+    List<Products> findBySpaceIdAndIdIn(@Param("spaceId") UUID spaceId,
+            @Param("productIds") Collection<UUID> productIds);
+
     // Delete all products in a specific space
     void deleteBySpaceId(UUID spaceId);
 
@@ -50,8 +138,80 @@ public interface ProductRepository extends JpaRepository<Products, UUID> {
     @Query("SELECT p FROM Products p WHERE p.space.owner.id = :ownerId")
     List<Products> findByOwnerId(@Param("ownerId") UUID ownerId);
 
+    // Find every product the user can access (owned spaces + active memberships),
+    // with its space fetched in the same query
+    @Query("""
+                SELECT p FROM Products p
+                JOIN FETCH p.space s
+                WHERE s.owner.id = :userId
+                OR EXISTS (
+                    SELECT sm FROM SpaceMember sm
+                    WHERE sm.space.id = s.id
+                    AND sm.user.id = :userId
+                    AND sm.role != 'PENDING'
+                )
+            """)
+    List<Products> findAccessibleByUserId(@Param("userId") UUID userId);
+
+    // Same as findAccessibleByUserId, limited to low stock products
+    @Query("""
+                SELECT p FROM Products p
+                JOIN FETCH p.space s
+                WHERE
+            """ + LOW_STOCK + """
+                AND (
+                    s.owner.id = :userId
+                    OR EXISTS (
+                        SELECT sm FROM SpaceMember sm
+                        WHERE sm.space.id = s.id
+                        AND sm.user.id = :userId
+                        AND sm.role != 'PENDING'
+                    )
+                )
+            """)
+    List<Products> findAccessibleLowStockByUserId(@Param("userId") UUID userId);
+
+    // Price and stock statistics over every product the user can access:
+    // [minPrice, maxPrice, avgPrice, minStock, maxStock, avgStock, totalStock, productCount]
+    @Query("""
+                SELECT MIN(p.price), MAX(p.price), AVG(p.price),
+                    MIN(p.currentStock), MAX(p.currentStock), AVG(p.currentStock), SUM(p.currentStock),
+                    COUNT(p)
+                FROM Products p
+                JOIN p.space s
+                WHERE s.owner.id = :userId
+                OR EXISTS (
+                    SELECT sm FROM SpaceMember sm
+                    WHERE sm.space.id = s.id
+                    AND sm.user.id = :userId
+                    AND sm.role != 'PENDING'
+                )
+            """)
+    List<Object[]> aggregateAccessibleStatistics(@Param("userId") UUID userId);
+
+    // Inventory value and product count per space name over every product the
+    // user can access: [spaceName, totalValue, productCount]
+    @Query("""
+                SELECT s.name, SUM(p.price * p.currentStock), COUNT(p)
+                FROM Products p
+                JOIN p.space s
+                WHERE s.owner.id = :userId
+                OR EXISTS (
+                    SELECT sm FROM SpaceMember sm
+                    WHERE sm.space.id = s.id
+                    AND sm.user.id = :userId
+                    AND sm.role != 'PENDING'
+                )
+                GROUP BY s.name
+            """)
+    List<Object[]> aggregateAccessibleValueBySpaceName(@Param("userId") UUID userId);
+
+    // Find all products in a space with the space fetched in the same query
+    @Query("SELECT p FROM Products p JOIN FETCH p.space WHERE p.space.id = :spaceId")
+    List<Products> findBySpaceIdWithSpace(@Param("spaceId") UUID spaceId);
+
     // Find products with low stock (current stock <= minimum quantity) - GLOBAL
-    @Query("SELECT p FROM Products p WHERE p.space.owner.id = :ownerId AND p.currentStock <= p.minimumQuantity")
+    @Query("SELECT p FROM Products p WHERE p.space.owner.id = :ownerId AND " + LOW_STOCK)
     List<Products> findLowStockProductsByOwnerId(@Param("ownerId") UUID ownerId);
 
     // Find product by ID and checks owner OR member:
@@ -95,7 +255,8 @@ public interface ProductRepository extends JpaRepository<Products, UUID> {
     @Query("""
                 SELECT p FROM Products p
                 WHERE p.space.id = :spaceId
-                AND p.currentStock <= p.minimumQuantity
+                AND
+            """ + LOW_STOCK + """
                 AND (
                     p.space.owner.id = :userId
                     OR EXISTS (
@@ -131,8 +292,77 @@ public interface ProductRepository extends JpaRepository<Products, UUID> {
             @Param("search") String search,
             Pageable pageable);
 
+    // Id and name of every product in a space, to build the in-memory search index
+    @Query("SELECT p.id, p.name FROM Products p WHERE p.space.id = :spaceId")
+    List<Object[]> findIdAndNameBySpaceId(@Param("spaceId") UUID spaceId);
+
+    // Id, name and SKU of every product in a space, to build the suggest index
+    @Query("SELECT p.id, p.name, p.sku FROM Products p WHERE p.space.id = :spaceId")
+    List<Object[]> findIdNameAndSkuBySpaceId(@Param("spaceId") UUID spaceId);
+
+    // Walk every product in id order, batch by batch, for full search reindexes
+    @Query("SELECT p FROM Products p WHERE (:afterId IS NULL OR p.id > :afterId) ORDER BY p.id")
+    List<Products> findNextBatchAfter(@Param("afterId") UUID afterId, Pageable pageable);
+
+    // Products of a space matching any of the SKUs, for catalog sync
+    @Query("SELECT p FROM Products p WHERE p.space.id = :spaceId AND p.sku IN :skus")
+    List<Products> findBySpaceIdAndSkuIn(@Param("spaceId") UUID spaceId, @Param("skus") Collection<String> skus);
+
+    boolean existsBySpaceIdAndSku(UUID spaceId, String sku);
+
+    boolean existsBySpaceIdAndSkuAndIdNot(UUID spaceId, String sku, UUID id);
+
+    // DTO projections for read endpoints: rows go straight into DTOs, so no managed
+    // entities or dirty-checking snapshots are created. p.space.id reads the foreign
+    // key without joining spaces.
+    String PRODUCT_DTO = "new app.web.inventory.dto.product.ProductDto(p.id, p.space.id, p.name, p.sku, "
+            + "p.category, p.imageUrl, p.price, p.currentStock, p.minimumQuantity, p.maximumQuantity)";
+
+    @Query("SELECT " + PRODUCT_DTO + " FROM Products p WHERE p.space.id = :spaceId")
+    List<ProductDto> findDtosBySpaceId(@Param("spaceId") UUID spaceId);
+
+    @Query("SELECT " + PRODUCT_DTO + " FROM Products p WHERE p.space.id = :spaceId "
+            + "AND LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    List<ProductDto> findDtosBySpaceIdAndNameContaining(@Param("spaceId") UUID spaceId, @Param("name") String name);
+
+    @Query("SELECT " + PRODUCT_DTO + " FROM Products p WHERE p.space.id = :spaceId AND p.id IN :productIds")
+    List<ProductDto> findDtosBySpaceIdAndIdIn(@Param("spaceId") UUID spaceId,
+            @Param("productIds") Collection<UUID> productIds);
+
+    @Query(value = "SELECT " + PRODUCT_DTO + " FROM Products p WHERE p.space.id = :spaceId AND p.id IN :productIds",
+            countQuery = "SELECT COUNT(p) FROM Products p WHERE p.space.id = :spaceId AND p.id IN :productIds")
+    Page<ProductDto> findDtosBySpaceIdAndIdIn(@Param("spaceId") UUID spaceId,
+            @Param("productIds") Collection<UUID> productIds, Pageable pageable);
+
+    // Access is checked by the caller before the page is read
+    @Query(value = "SELECT " + PRODUCT_DTO + " FROM Products p WHERE p.space.id = :spaceId "
+            + "AND (:search IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')))",
+            countQuery = "SELECT COUNT(p) FROM Products p WHERE p.space.id = :spaceId "
+                    + "AND (:search IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')))")
+    Page<ProductDto> findDtosBySpaceIdAndSearch(@Param("spaceId") UUID spaceId, @Param("search") String search,
+            Pageable pageable);
+
+    @Query("SELECT " + PRODUCT_DTO + " FROM Products p WHERE p.space.id = :spaceId AND " + LOW_STOCK)
+    List<ProductDto> findLowStockDtosBySpaceId(@Param("spaceId") UUID spaceId);
+
+    // Single product with its space name and low stock flag, without loading the space entity
+    @Query("""
+                SELECT new app.web.inventory.dto.product.ProductResponseDto(
+                    p.id, s.id, s.name, p.name, p.sku, p.category, p.imageUrl, p.price, p.currentStock,
+                    p.minimumQuantity, p.maximumQuantity,
+                    CASE WHEN p.minimumQuantity IS NOT NULL AND p.currentStock <= p.minimumQuantity
+                        THEN true ELSE false END,
+                    p.createdAt, p.updatedAt)
+                FROM Products p
+                JOIN p.space s
+                WHERE p.id = :productId
+                AND s.id = :spaceId
+            """)
+    Optional<ProductResponseDto> findResponseDtoByIdAndSpaceId(@Param("productId") UUID productId,
+            @Param("spaceId") UUID spaceId);
+
     // Find products in a space with low stock - HIERARCHICAL
-    @Query("SELECT p FROM Products p WHERE p.space.id = :spaceId AND p.currentStock <= p.minimumQuantity")
+    @Query("SELECT p FROM Products p WHERE p.space.id = :spaceId AND " + LOW_STOCK)
     List<Products> findLowStockProductsBySpaceId(@Param("spaceId") UUID spaceId);
 
     // Search products by name in user's spaces - GLOBAL
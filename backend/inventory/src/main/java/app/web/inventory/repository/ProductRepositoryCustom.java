@@ -0,0 +1,39 @@
+package app.web.inventory.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import app.web.inventory.dto.product.ProductDto;
+import app.web.inventory.model.Products;
+
+public interface ProductRepositoryCustom {
+
+    // Apply signed stock deltas as one JDBC batch, with the same guards as
+    // incrementStock/decrementStock. Returns the update count for each delta.
+    int[] batchApplyStockDeltas(UUID spaceId, List<UUID> productIds, List<Integer> deltas);
+
+    // Keyset page of a space's products ordered by (sortField, id), projected straight
+    // into DTOs. afterValue/afterId are the keys of the last row already returned,
+    // both null for the first page. When candidateIds is set it replaces the LIKE search.
+    List<PageRow> findSpacePageAfter(UUID spaceId, String search, Collection<UUID> candidateIds,
+            String sortField, boolean ascending, Object afterValue, UUID afterId, int limit);
+
+    long countInSpace(UUID spaceId, String search, Collection<UUID> candidateIds);
+
+    // Set stock_status on up to limit rows written before the column existed;
+    // returns the rows updated
+    int backfillStockStatus(int limit);
+
+    // Insert new products as one JDBC batch. Ids and timestamps must already be set.
+    int[] batchInsert(UUID spaceId, List<Products> products);
+
+    // Stream every product of a space through a forward-only result set, one row
+    // in memory at a time, ordered by name
+    void streamBySpaceId(UUID spaceId, Consumer<ProductDto> action);
+
+    // One keyset row with the value of the column it is sorted by, for the next cursor
+    record PageRow(ProductDto product, Object sortValue) {
+    }
+}
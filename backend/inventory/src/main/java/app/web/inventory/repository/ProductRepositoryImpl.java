@@ -0,0 +1,224 @@
+package app.web.inventory.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import app.web.inventory.dto.product.ProductDto;
+import app.web.inventory.model.Products;
+import app.web.inventory.model.enums.StockStatus;
+import app.web.inventory.util.UuidUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    // Positive deltas respect maximum_quantity (incrementStock), negative deltas
+    // must not drive stock below zero (decrementStock). stock_status is assigned
+    // first so it is computed from the old stock, as in ProductRepository.
+    private static final String APPLY_STOCK_DELTA_SQL = """
+            UPDATE products SET
+                stock_status = CASE
+                    WHEN current_stock + ? <= 0 THEN 'OUT'
+                    WHEN minimum_quantity IS NOT NULL AND current_stock + ? <= minimum_quantity THEN 'LOW'
+                    ELSE 'OK' END,
+                current_stock = current_stock + ?
+            WHERE id = ?
+            AND space_id = ?
+            AND current_stock + ? >= 0
+            AND (? < 0 OR maximum_quantity IS NULL OR current_stock + ? <= maximum_quantity)
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO products (id, space_id, name, sku, category, image_url, price, current_stock,
+                minimum_quantity, maximum_quantity, stock_status, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String BACKFILL_STOCK_STATUS_SQL = """
+            UPDATE products SET
+                stock_status = CASE
+                    WHEN current_stock <= 0 THEN 'OUT'
+                    WHEN minimum_quantity IS NOT NULL AND current_stock <= minimum_quantity THEN 'LOW'
+                    ELSE 'OK' END
+            WHERE stock_status IS NULL
+            LIMIT ?
+            """;
+
+    private static final String STREAM_SPACE_SQL = """
+            SELECT id, name, sku, category, image_url, price, current_stock, minimum_quantity, maximum_quantity
+            FROM products
+            WHERE space_id = ?
+            ORDER BY name, id
+            """;
+
+    private static final String SPACE_FILTER = " WHERE p.space.id = :spaceId";
+    private static final String SEARCH_FILTER = " AND LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%'))";
+    private static final String CANDIDATE_FILTER = " AND p.id IN :candidateIds";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProductRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] batchApplyStockDeltas(UUID spaceId, List<UUID> productIds, List<Integer> deltas) {
+        byte[] spaceIdBytes = UuidUtil.toBytes(spaceId);
+
+        return jdbcTemplate.batchUpdate(APPLY_STOCK_DELTA_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                int delta = deltas.get(i);
+                ps.setInt(1, delta);
+                ps.setInt(2, delta);
+                ps.setInt(3, delta);
+                ps.setBytes(4, UuidUtil.toBytes(productIds.get(i)));
+                ps.setBytes(5, spaceIdBytes);
+                ps.setInt(6, delta);
+                ps.setInt(7, delta);
+                ps.setInt(8, delta);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return productIds.size();
+            }
+        });
+    }
+
+    // sortField is whitelisted by the caller, it is never taken from the request as-is
+    @Override
+    public List<PageRow> findSpacePageAfter(UUID spaceId, String search, Collection<UUID> candidateIds,
+            String sortField, boolean ascending, Object afterValue, UUID afterId, int limit) {
+        String direction = ascending ? "ASC" : "DESC";
+        String comparison = ascending ? ">" : "<";
+
+        // Scalar columns only: no entities enter the persistence context
+        StringBuilder jpql = new StringBuilder("SELECT p.id, p.space.id, p.name, p.sku, p.category, p.imageUrl, ")
+                .append("p.price, p.currentStock, p.minimumQuantity, p.maximumQuantity, p.").append(sortField)
+                .append(" FROM Products p")
+                .append(filter(search, candidateIds));
+        if (afterId != null) {
+            jpql.append(" AND (p.").append(sortField).append(' ').append(comparison).append(" :afterValue")
+                    .append(" OR (p.").append(sortField).append(" = :afterValue AND p.id ")
+                    .append(comparison).append(" :afterId))");
+        }
+        jpql.append(" ORDER BY p.").append(sortField).append(' ').append(direction)
+                .append(", p.id ").append(direction);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class)
+                .setMaxResults(limit);
+        bindFilter(query, spaceId, search, candidateIds);
+        if (afterId != null) {
+            query.setParameter("afterValue", afterValue)
+                    .setParameter("afterId", afterId);
+        }
+
+        List<Object[]> rows = query.getResultList();
+        List<PageRow> page = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ProductDto product = new ProductDto((UUID) row[0], (UUID) row[1], (String) row[2], (String) row[3],
+                    (String) row[4], (String) row[5], (Double) row[6], (Integer) row[7], (Integer) row[8],
+                    (Integer) row[9]);
+            page.add(new PageRow(product, row[10]));
+        }
+        return page;
+    }
+
+    @Override
+    public long countInSpace(UUID spaceId, String search, Collection<UUID> candidateIds) {
+        TypedQuery<Long> query = entityManager.createQuery(
+                "SELECT COUNT(p) FROM Products p" + filter(search, candidateIds), Long.class);
+        bindFilter(query, spaceId, search, candidateIds);
+        return query.getSingleResult();
+    }
+
+    @Override
+    public int backfillStockStatus(int limit) {
+        return jdbcTemplate.update(BACKFILL_STOCK_STATUS_SQL, limit);
+    }
+
+    @Override
+    public int[] batchInsert(UUID spaceId, List<Products> products) {
+        byte[] spaceIdBytes = UuidUtil.toBytes(spaceId);
+
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Products product = products.get(i);
+                ps.setBytes(1, UuidUtil.toBytes(product.getId()));
+                ps.setBytes(2, spaceIdBytes);
+                ps.setString(3, product.getName());
+                ps.setString(4, product.getSku());
+                ps.setString(5, product.getCategory());
+                ps.setString(6, product.getImageUrl());
+                ps.setDouble(7, product.getPrice());
+                ps.setInt(8, product.getCurrentStock());
+                ps.setObject(9, product.getMinimumQuantity(), Types.INTEGER);
+                ps.setObject(10, product.getMaximumQuantity(), Types.INTEGER);
+                ps.setString(11, StockStatus.of(product.getCurrentStock(), product.getMinimumQuantity()).name());
+                ps.setTimestamp(12, Timestamp.from(product.getCreatedAt()));
+                ps.setTimestamp(13, Timestamp.from(product.getUpdatedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return products.size();
+            }
+        });
+    }
+
+    @Override
+    public void streamBySpaceId(UUID spaceId, Consumer<ProductDto> action) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(STREAM_SPACE_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Tells MySQL Connector/J to stream rows instead of buffering the whole result
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setBytes(1, UuidUtil.toBytes(spaceId));
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(new ProductDto(
+                UuidUtil.fromBytes(rs.getBytes("id")),
+                spaceId,
+                rs.getString("name"),
+                rs.getString("sku"),
+                rs.getString("category"),
+                rs.getString("image_url"),
+                rs.getDouble("price"),
+                rs.getInt("current_stock"),
+                rs.getObject("minimum_quantity", Integer.class),
+                rs.getObject("maximum_quantity", Integer.class))));
+    }
+
+    private static String filter(String search, Collection<UUID> candidateIds) {
+        if (candidateIds != null) {
+            return SPACE_FILTER + CANDIDATE_FILTER;
+        }
+        return search != null ? SPACE_FILTER + SEARCH_FILTER : SPACE_FILTER;
+    }
+
+    private static void bindFilter(TypedQuery<?> query, UUID spaceId, String search, Collection<UUID> candidateIds) {
+        query.setParameter("spaceId", spaceId);
+        if (candidateIds != null) {
+            query.setParameter("candidateIds", candidateIds);
+        } else if (search != null) {
+            query.setParameter("search", search);
+        }
+    }
+}
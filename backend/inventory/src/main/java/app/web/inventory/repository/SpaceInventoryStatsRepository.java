@@ -0,0 +1,73 @@
+package app.web.inventory.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import app.web.inventory.model.SpaceInventoryStats;
+import jakarta.persistence.LockModeType;
+
+public interface SpaceInventoryStatsRepository extends JpaRepository<SpaceInventoryStats, UUID>,
+        SpaceInventoryStatsRepositoryCustom {
+
+    // SELECT ... FOR UPDATE: applyDelta on the same row waits until the lock holder commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SpaceInventoryStats s WHERE s.spaceId = :spaceId")
+    Optional<SpaceInventoryStats> findForUpdate(@Param("spaceId") UUID spaceId);
+
+    // Atomically apply counter deltas to a space's stats row
+    @Modifying
+    @Query("""
+                UPDATE SpaceInventoryStats s SET
+                    s.productCount = s.productCount + :productCount,
+                    s.totalValue = s.totalValue + :totalValue,
+                    s.inStockCount = s.inStockCount + :inStockCount,
+                    s.lowStockCount = s.lowStockCount + :lowStockCount,
+                    s.outOfStockCount = s.outOfStockCount + :outOfStockCount,
+                    s.updatedAt = :now
+                WHERE s.spaceId = :spaceId
+            """)
+    int applyDelta(
+            @Param("spaceId") UUID spaceId,
+            @Param("productCount") long productCount,
+            @Param("totalValue") double totalValue,
+            @Param("inStockCount") long inStockCount,
+            @Param("lowStockCount") long lowStockCount,
+            @Param("outOfStockCount") long outOfStockCount,
+            @Param("now") Instant now);
+
+    // Recompute the counters of one space from the products table:
+    // [productCount, totalValue, inStockCount, lowStockCount, outOfStockCount]
+    @Query("""
+                SELECT COUNT(p),
+                    COALESCE(SUM(p.price * p.currentStock), 0),
+                    COALESCE(SUM(CASE WHEN p.currentStock > 0
+                        AND (p.minimumQuantity IS NULL OR p.currentStock > p.minimumQuantity) THEN 1 ELSE 0 END), 0),
+                    COALESCE(SUM(CASE WHEN p.currentStock <= p.minimumQuantity THEN 1 ELSE 0 END), 0),
+                    COALESCE(SUM(CASE WHEN p.currentStock = 0 THEN 1 ELSE 0 END), 0)
+                FROM Products p
+                WHERE p.space.id = :spaceId
+            """)
+    List<Object[]> computeFromProducts(@Param("spaceId") UUID spaceId);
+
+    // Recompute the counters of every space that has products:
+    // [spaceId, productCount, totalValue, inStockCount, lowStockCount, outOfStockCount]
+    @Query("""
+                SELECT p.space.id, COUNT(p),
+                    COALESCE(SUM(p.price * p.currentStock), 0),
+                    COALESCE(SUM(CASE WHEN p.currentStock > 0
+                        AND (p.minimumQuantity IS NULL OR p.currentStock > p.minimumQuantity) THEN 1 ELSE 0 END), 0),
+                    COALESCE(SUM(CASE WHEN p.currentStock <= p.minimumQuantity THEN 1 ELSE 0 END), 0),
+                    COALESCE(SUM(CASE WHEN p.currentStock = 0 THEN 1 ELSE 0 END), 0)
+                FROM Products p
+                GROUP BY p.space.id
+            """)
+    List<Object[]> computeAllFromProducts();
+}
@@ -0,0 +1,9 @@
+package app.web.inventory.repository;
+
+import app.web.inventory.model.SpaceInventoryStats;
+
+public interface SpaceInventoryStatsRepositoryCustom {
+
+    // Insert a space's stats row unless one already exists; returns 0 when it did
+    int insertIfAbsent(SpaceInventoryStats stats);
+}
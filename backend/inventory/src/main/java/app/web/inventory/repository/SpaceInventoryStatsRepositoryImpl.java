@@ -0,0 +1,37 @@
+package app.web.inventory.repository;
+
+import java.sql.Timestamp;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import app.web.inventory.model.SpaceInventoryStats;
+import app.web.inventory.util.UuidUtil;
+
+public class SpaceInventoryStatsRepositoryImpl implements SpaceInventoryStatsRepositoryCustom {
+
+    // A concurrent insert of the same space waits for the other transaction and
+    // is then skipped instead of failing on the duplicate key
+    private static final String INSERT_IF_ABSENT_SQL = """
+            INSERT IGNORE INTO space_inventory_stats (space_id, product_count, total_value, in_stock_count,
+                low_stock_count, out_of_stock_count, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SpaceInventoryStatsRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int insertIfAbsent(SpaceInventoryStats stats) {
+        return jdbcTemplate.update(INSERT_IF_ABSENT_SQL,
+                UuidUtil.toBytes(stats.getSpaceId()),
+                stats.getProductCount(),
+                stats.getTotalValue(),
+                stats.getInStockCount(),
+                stats.getLowStockCount(),
+                stats.getOutOfStockCount(),
+                Timestamp.from(stats.getUpdatedAt()));
+    }
+}
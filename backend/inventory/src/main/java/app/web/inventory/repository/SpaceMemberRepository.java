@@ -34,7 +34,20 @@ public interface SpaceMemberRepository extends JpaRepository<SpaceMember, UUID>
     @Query("SELECT sm FROM SpaceMember sm WHERE sm.user.id = :userId AND sm.role != 'PENDING'")
     List<SpaceMember> findActiveSpacesByUserId(@Param("userId") UUID userId);
 
-    // Check if user has specific role
+    // Get active memberships in spaces the user doesn't own, with the space, its
+    // owner and the maintained product count in one query: [membership, productCount]
+    // productCount is null when the space has no stats row yet
+    @Query("""
+                SELECT sm, st.productCount FROM SpaceMember sm
+                JOIN FETCH sm.space s
+                JOIN FETCH s.owner o
+                LEFT JOIN SpaceInventoryStats st ON st.spaceId = s.id
+                WHERE sm.user.id = :userId
+                AND sm.role != 'PENDING'
+                AND o.id != :userId
+            """)
+    List<Object[]> findSharedSpacesWithProductCount(@Param("userId") UUID userId);
+
     // Check if user has specific role
     boolean existsBySpaceIdAndUserIdAndRole(UUID spaceId, UUID userId, SpaceRole role);
 
@@ -1,5 +1,6 @@
 package app.web.inventory.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,12 +28,26 @@ public interface SpaceRepository extends JpaRepository<Spaces, UUID> {
     // Find space by name and owner
     Optional<Spaces> findByOwnerIdAndName(UUID ownerId, String name);
 
+    // IDs of every space
+    @Query("SELECT s.id FROM Spaces s")
+    List<UUID> findAllIds();
+
     // Count products in a space
     @Query("SELECT COUNT(p) FROM Products p WHERE p.space.id = :spaceId")
     long countProductsInSpace(@Param("spaceId") UUID spaceId);
 
-    // Get spaces with product counts
-    // SpaceRepository.java - keep both queries
-    @Query("SELECT s, COUNT(p) FROM Spaces s LEFT JOIN Products p ON s.id = p.space.id WHERE s.owner.id = :ownerId GROUP BY s")
+    // Count products for several spaces at once: [spaceId, productCount]
+    // Spaces without products are absent from the result
+    @Query("SELECT p.space.id, COUNT(p) FROM Products p WHERE p.space.id IN :spaceIds GROUP BY p.space.id")
+    List<Object[]> countProductsBySpaceIds(@Param("spaceIds") Collection<UUID> spaceIds);
+
+    // Get owned spaces with their maintained product counts: [space, productCount]
+    // productCount is null when the space has no stats row yet
+    @Query("""
+                SELECT s, st.productCount FROM Spaces s
+                JOIN FETCH s.owner
+                LEFT JOIN SpaceInventoryStats st ON st.spaceId = s.id
+                WHERE s.owner.id = :ownerId
+            """)
     List<Object[]> findSpacesWithProductCount(@Param("ownerId") UUID ownerId);
 }
\ No newline at end of file
@@ -1,15 +1,22 @@
 package app.web.inventory.security;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.Date;
 import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import app.web.inventory.util.BoundedTtlCache;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
 import jakarta.servlet.FilterChain;
@@ -21,9 +28,14 @@ import jakarta.servlet.http.HttpServletResponse;
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    // SHA-256 of already verified tokens -> principal, never kept past the token's exp
+    private final BoundedTtlCache<String, Map<String, Object>> verifiedTokens;
 
-    public JwtFilter(JwtUtil jwtUtil) {
+    public JwtFilter(JwtUtil jwtUtil,
+            @Value("${app.jwt.cache.max-size:10000}") int cacheMaxSize,
+            @Value("${app.jwt.cache.ttl-seconds:300}") long cacheTtlSeconds) {
         this.jwtUtil = jwtUtil;
+        this.verifiedTokens = new BoundedTtlCache<>(cacheMaxSize, cacheTtlSeconds * 1000);
     }
 
     @Override
@@ -51,13 +63,7 @@ public class JwtFilter extends OncePerRequestFilter {
 
         String token = authHeader.substring(7);
         try {
-            Jws<Claims> claims = jwtUtil.parseToken(token);
-            String userId = claims.getBody().getSubject();
-            String email = (String) claims.getBody().get("email");
-
-            Map<String, Object> principal = Map.of(
-                    "userId", UUID.fromString(userId),
-                    "email", email);
+            Map<String, Object> principal = resolvePrincipal(token);
 
             // Set authenticated user in context
             UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
@@ -75,4 +81,31 @@ public class JwtFilter extends OncePerRequestFilter {
 
         chain.doFilter(request, response);
     }
+
+    // Verify the token, or reuse the principal of an identical token verified earlier
+    private Map<String, Object> resolvePrincipal(String token) throws NoSuchAlgorithmException {
+        String digest = Base64.getEncoder().encodeToString(
+                MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        Map<String, Object> cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        Jws<Claims> claims = jwtUtil.parseToken(token);
+        String userId = claims.getBody().getSubject();
+        String email = (String) claims.getBody().get("email");
+
+        Map<String, Object> principal = Map.of(
+                "userId", UUID.fromString(userId),
+                "email", email);
+
+        Date expiration = claims.getBody().getExpiration();
+        if (expiration == null) {
+            verifiedTokens.put(digest, principal);
+        } else {
+            long remainingMs = expiration.getTime() - System.currentTimeMillis();
+            verifiedTokens.putUntil(digest, principal, System.nanoTime() + remainingMs * 1_000_000L);
+        }
+        return principal;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,184 @@
+package app.web.inventory.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import app.web.inventory.repository.AuditLogRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps audit_logs bounded. Months older than the hot window are written to
+ * the archive and only then removed from the table, by dropping their
+ * partition when the table is partitioned or in small deletes otherwise.
+ * With partitioning enabled the table is converted to monthly range
+ * partitions once, and partitions for the coming months are added ahead of time.
+ *
+ * With several nodes only one runs archival at a time, under a database lock,
+ * and the archive directory must be shared storage mounted on every node: a
+ * month removed from the table is then served from the files another node
+ * wrote.
+ */
+@Service
+@Slf4j
+public class AuditArchiveService {
+
+    private static final String LOCK_NAME = "inventory.audit-archive";
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditArchiveStore archiveStore;
+    private final boolean enabled;
+    private final int hotMonths;
+    private final boolean partitioning;
+    private final int futureMonths;
+    private final int deleteBatchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public AuditArchiveService(AuditLogRepository auditLogRepository, AuditArchiveStore archiveStore,
+            @Value("${app.audit.archive.enabled:true}") boolean enabled,
+            @Value("${app.audit.retention.hot-months:6}") int hotMonths,
+            @Value("${app.audit.partitioning.enabled:false}") boolean partitioning,
+            @Value("${app.audit.partitioning.future-months:3}") int futureMonths,
+            @Value("${app.audit.archive.delete-batch-size:5000}") int deleteBatchSize) {
+        if (hotMonths < 1 || futureMonths < 1 || deleteBatchSize <= 0) {
+            throw new IllegalArgumentException("Audit hot months, future months and delete batch size must be positive");
+        }
+        this.auditLogRepository = auditLogRepository;
+        this.archiveStore = archiveStore;
+        this.enabled = enabled;
+        this.hotMonths = hotMonths;
+        this.partitioning = partitioning;
+        this.futureMonths = futureMonths;
+        this.deleteBatchSize = deleteBatchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::run, "audit-archive");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Scheduled(cron = "${app.audit.archive.cron:0 30 1 * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /**
+     * First instant kept in the table: the start of the oldest month inside
+     * the hot window. The current month always counts as hot.
+     */
+    public LocalDateTime hotCutoff() {
+        return YearMonth.now().minusMonths(hotMonths).atDay(1).atStartOfDay();
+    }
+
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            boolean ran = auditLogRepository.runExclusively(LOCK_NAME, () -> {
+                if (partitioning) {
+                    preparePartitions();
+                }
+                try {
+                    archiveExpired();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (!ran) {
+                log.info("Audit archival is running on another node, skipped here");
+            }
+        } catch (Exception e) {
+            log.error("Audit archival failed, it is retried on the next run", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void preparePartitions() {
+        YearMonth last = YearMonth.now().plusMonths(futureMonths);
+        List<YearMonth> existing = auditLogRepository.findMonthPartitions();
+        if (existing.isEmpty()) {
+            LocalDateTime oldest = auditLogRepository.findOldestTimestamp();
+            List<YearMonth> months = new ArrayList<>();
+            for (YearMonth month = oldest != null ? YearMonth.from(oldest) : YearMonth.now();
+                    !month.isAfter(last); month = month.plusMonths(1)) {
+                months.add(month);
+            }
+            long started = System.currentTimeMillis();
+            log.info("Partitioning audit_logs into {} monthly partitions, the table is rebuilt once", months.size());
+            auditLogRepository.partitionByMonth(months);
+            log.info("Partitioned audit_logs in {} ms", System.currentTimeMillis() - started);
+            return;
+        }
+        for (YearMonth month = Collections.max(existing).plusMonths(1); !month.isAfter(last);
+                month = month.plusMonths(1)) {
+            auditLogRepository.addMonthPartition(month);
+        }
+    }
+
+    private void archiveExpired() throws IOException {
+        List<YearMonth> partitions = partitioning ? auditLogRepository.findMonthPartitions() : List.of();
+        LocalDateTime oldest = auditLogRepository.findOldestTimestamp();
+        YearMonth first = oldest != null ? YearMonth.from(oldest) : null;
+        if (!partitions.isEmpty()) {
+            YearMonth firstPartition = Collections.min(partitions);
+            first = first == null || firstPartition.isBefore(first) ? firstPartition : first;
+        }
+        if (first == null) {
+            return;
+        }
+
+        YearMonth cutoff = YearMonth.from(hotCutoff());
+        for (YearMonth month = first; month.isBefore(cutoff); month = month.plusMonths(1)) {
+            archiveMonth(month, partitions.contains(month));
+        }
+    }
+
+    private void archiveMonth(YearMonth month, boolean hasPartition) throws IOException {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        // An existing archive was complete before any row of the month was removed
+        if (!archiveStore.contains(month)) {
+            long started = System.currentTimeMillis();
+            AuditArchiveStore.Manifest manifest = archiveStore.write(month,
+                    sink -> auditLogRepository.streamBetween(from, to, sink));
+            log.info("Archived {} audit logs of {} in {} ms", manifest.rows(), month,
+                    System.currentTimeMillis() - started);
+        }
+
+        if (hasPartition) {
+            auditLogRepository.dropMonthPartition(month);
+            log.info("Dropped audit_logs partition of {}", month);
+            return;
+        }
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = auditLogRepository.deleteBetween(from, to, deleteBatchSize);
+            deleted += chunk;
+        } while (chunk == deleteBatchSize);
+        if (deleted > 0) {
+            log.info("Removed {} archived audit logs of {} from audit_logs", deleted, month);
+        }
+    }
+}
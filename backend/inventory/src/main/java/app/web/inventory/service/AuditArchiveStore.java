@@ -0,0 +1,376 @@
+package app.web.inventory.service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.web.inventory.model.AuditLog;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cold storage for audit logs that left the audit_logs table. Each archived
+ * month is a gzip NDJSON file of AuditLog rows sorted by (timestamp, id),
+ * written as a series of independent gzip members of block-rows rows, plus a
+ * JSON manifest describing the format, row count and the byte range and time
+ * span of every block. Readers decompress only the blocks whose span overlaps
+ * the requested range. A month counts as archived once its manifest exists.
+ */
+@Component
+@Slf4j
+public class AuditArchiveStore {
+
+    public static final String FORMAT = "inventory-audit-log";
+    public static final int VERSION = 1;
+
+    private static final List<String> COLUMNS = List.of("id", "userId", "entityType", "entityId", "operation",
+            "details", "ipAddress", "userAgent", "timestamp", "relatedEntityId", "relatedEntityType", "spaceId",
+            "productName", "spaceName", "quantityDelta", "oldStock", "newStock", "description");
+
+    /** Rows of the archive matched by a query; null fields do not filter. */
+    public record ArchiveFilter(UUID userId, UUID spaceId, UUID entityId, String entityType, String operation,
+            LocalDateTime startDate, LocalDateTime endDate) {
+
+        boolean matches(AuditLog entry) {
+            return (userId == null || userId.equals(entry.getUserId()))
+                    && (spaceId == null || spaceId.equals(entry.getSpaceId()))
+                    && (entityId == null || entityId.equals(entry.getEntityId()))
+                    && (entityType == null || entityType.equals(entry.getEntityType()))
+                    && (operation == null || operation.equals(entry.getOperation()))
+                    && (startDate == null || !entry.getTimestamp().isBefore(startDate))
+                    && (endDate == null || !entry.getTimestamp().isAfter(endDate));
+        }
+    }
+
+    public record Block(long offset, int length, int rows, LocalDateTime first, LocalDateTime last) {
+    }
+
+    public record Manifest(String format, int version, YearMonth month, long rows, LocalDateTime archivedAt,
+            List<String> columns, List<Block> blocks) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int blockRows;
+    private final NavigableMap<YearMonth, Manifest> manifests = new ConcurrentSkipListMap<>();
+
+    public AuditArchiveStore(ObjectMapper objectMapper,
+            @Value("${app.audit.archive.path:data/audit-archive}") String path,
+            @Value("${app.audit.archive.block-rows:5000}") int blockRows) {
+        if (blockRows <= 0) {
+            throw new IllegalArgumentException("Audit archive block rows must be positive");
+        }
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(path);
+        this.blockRows = blockRows;
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        Files.createDirectories(directory);
+        // Leftovers of a write that never completed
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "audit-*.tmp")) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "audit-*.json")) {
+            for (Path file : files) {
+                Manifest manifest = objectMapper.readValue(file.toFile(), Manifest.class);
+                if (!FORMAT.equals(manifest.format()) || manifest.version() > VERSION) {
+                    log.warn("Ignoring audit archive {} in unknown format {} v{}", file, manifest.format(),
+                            manifest.version());
+                    continue;
+                }
+                manifests.put(manifest.month(), manifest);
+            }
+        }
+        if (!manifests.isEmpty()) {
+            log.info("Audit archive holds {} months, {} to {}", manifests.size(), manifests.firstKey(),
+                    manifests.lastKey());
+        }
+    }
+
+    public boolean contains(YearMonth month) {
+        return manifests.containsKey(month);
+    }
+
+    /**
+     * Start of the hot table: every row before it lives in the archive. Null
+     * while nothing has been archived.
+     */
+    public LocalDateTime archivedBefore() {
+        return manifests.isEmpty() ? null : manifests.lastKey().plusMonths(1).atDay(1).atStartOfDay();
+    }
+
+    /**
+     * Write one month. The source must hand over rows in (timestamp, id) order.
+     * Files are written under temporary names and moved into place data first,
+     * manifest last, so a crash never leaves a month that looks complete.
+     */
+    public Manifest write(YearMonth month, Consumer<Consumer<AuditLog>> source) throws IOException {
+        Path data = dataFile(month);
+        Path manifestFile = manifestFile(month);
+        Path dataTmp = data.resolveSibling(data.getFileName() + ".tmp");
+        Path manifestTmp = manifestFile.resolveSibling(manifestFile.getFileName() + ".tmp");
+
+        List<Block> blocks = new ArrayList<>();
+        long[] rows = { 0 };
+        try (CountingOutputStream out = new CountingOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(dataTmp), 64 * 1024))) {
+            BlockWriter writer = new BlockWriter(out, blocks);
+            try {
+                source.accept(entry -> {
+                    writer.write(entry);
+                    rows[0]++;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.finishBlock();
+        }
+
+        Manifest manifest = new Manifest(FORMAT, VERSION, month, rows[0], LocalDateTime.now(), COLUMNS, blocks);
+        objectMapper.writeValue(manifestTmp.toFile(), manifest);
+        sync(dataTmp);
+        sync(manifestTmp);
+        Files.move(dataTmp, data, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(manifestTmp, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        manifests.put(month, manifest);
+        return manifest;
+    }
+
+    /** Up to limit matching rows strictly before (beforeTimestamp, beforeId), newest first. */
+    public List<AuditLog> findBefore(ArchiveFilter filter, LocalDateTime beforeTimestamp, UUID beforeId, int limit) {
+        List<AuditLog> page = new ArrayList<>(limit);
+        if (limit <= 0) {
+            return page;
+        }
+        LocalDateTime end = filter.endDate();
+        if (beforeTimestamp != null && (end == null || beforeTimestamp.isBefore(end))) {
+            end = beforeTimestamp;
+        }
+        forEachNewestFirst(filter, end, entry -> {
+            if (beforeTimestamp == null || isBefore(entry, beforeTimestamp, beforeId)) {
+                page.add(entry);
+            }
+            return page.size() < limit;
+        });
+        return page;
+    }
+
+    /** Matching rows newest first, skipping the first skip of them. */
+    public List<AuditLog> findPage(ArchiveFilter filter, long skip, int limit) {
+        List<AuditLog> page = new ArrayList<>(limit);
+        if (limit <= 0) {
+            return page;
+        }
+        long[] skipped = { 0 };
+        forEachNewestFirst(filter, filter.endDate(), entry -> {
+            if (skipped[0] < skip) {
+                skipped[0]++;
+                return true;
+            }
+            page.add(entry);
+            return page.size() < limit;
+        });
+        return page;
+    }
+
+    public long count(ArchiveFilter filter) {
+        long[] count = { 0 };
+        forEachNewestFirst(filter, filter.endDate(), entry -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    // Visits matching rows newest first until the visitor returns false
+    private void forEachNewestFirst(ArchiveFilter filter, LocalDateTime end, Predicate<AuditLog> visitor) {
+        LocalDateTime start = filter.startDate();
+        NavigableMap<YearMonth, Manifest> months = manifests;
+        if (start != null) {
+            months = months.tailMap(YearMonth.from(start), true);
+        }
+        if (end != null) {
+            months = months.headMap(YearMonth.from(end), true);
+        }
+
+        for (Manifest manifest : months.descendingMap().values()) {
+            List<Block> blocks = manifest.blocks();
+            for (int b = blocks.size() - 1; b >= 0; b--) {
+                Block block = blocks.get(b);
+                if ((start != null && block.last().isBefore(start)) || (end != null && block.first().isAfter(end))) {
+                    continue;
+                }
+                List<AuditLog> rows = readBlock(manifest.month(), block);
+                Collections.reverse(rows);
+                for (AuditLog row : rows) {
+                    if (filter.matches(row) && !visitor.test(row)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private List<AuditLog> readBlock(YearMonth month, Block block) {
+        byte[] compressed = new byte[block.length()];
+        try (RandomAccessFile file = new RandomAccessFile(dataFile(month).toFile(), "r")) {
+            file.seek(block.offset());
+            file.readFully(compressed);
+
+            List<AuditLog> rows = new ArrayList<>(block.rows());
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(compressed)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isEmpty()) {
+                        rows.add(objectMapper.readValue(line, AuditLog.class));
+                    }
+                }
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read audit archive " + month, e);
+        }
+    }
+
+    // Same order as the (timestamp, id) keyset in the database, where ids compare as unsigned bytes
+    private static boolean isBefore(AuditLog entry, LocalDateTime timestamp, UUID id) {
+        int cmp = entry.getTimestamp().compareTo(timestamp);
+        if (cmp != 0 || id == null) {
+            return cmp < 0;
+        }
+        cmp = Long.compareUnsigned(entry.getId().getMostSignificantBits(), id.getMostSignificantBits());
+        if (cmp == 0) {
+            cmp = Long.compareUnsigned(entry.getId().getLeastSignificantBits(), id.getLeastSignificantBits());
+        }
+        return cmp < 0;
+    }
+
+    private Path dataFile(YearMonth month) {
+        return directory.resolve("audit-" + month + ".ndjson.gz");
+    }
+
+    private Path manifestFile(YearMonth month) {
+        return directory.resolve("audit-" + month + ".json");
+    }
+
+    private static void sync(Path file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.getFD().sync();
+        }
+    }
+
+    // Starts a new gzip member every blockRows rows and records where it lies
+    private final class BlockWriter {
+        private final CountingOutputStream out;
+        private final List<Block> blocks;
+        private GZIPOutputStream gzip;
+        private long blockOffset;
+        private int blockCount;
+        private LocalDateTime first;
+        private LocalDateTime last;
+
+        private BlockWriter(CountingOutputStream out, List<Block> blocks) {
+            this.out = out;
+            this.blocks = blocks;
+        }
+
+        void write(AuditLog entry) {
+            try {
+                if (gzip == null) {
+                    blockOffset = out.count;
+                    gzip = new GZIPOutputStream(new NonClosingOutputStream(out), 64 * 1024);
+                    first = entry.getTimestamp();
+                }
+                gzip.write(objectMapper.writeValueAsBytes(entry));
+                gzip.write('\n');
+                last = entry.getTimestamp();
+                if (++blockCount == blockRows) {
+                    finishBlock();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finishBlock() throws IOException {
+            if (gzip == null) {
+                return;
+            }
+            gzip.finish();
+            blocks.add(new Block(blockOffset, (int) (out.count - blockOffset), blockCount, first, last));
+            gzip = null;
+            blockCount = 0;
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    // Lets a gzip member finish without closing the file underneath
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        private NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
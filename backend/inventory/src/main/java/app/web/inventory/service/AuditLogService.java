@@ -1,17 +1,22 @@
 package app.web.inventory.service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -20,8 +25,13 @@ import app.web.inventory.dto.audit.AuditLogDto;
 import app.web.inventory.dto.audit.AuditLogFilterRequest;
 import app.web.inventory.dto.audit.AuditLogSummaryDto;
 import app.web.inventory.dto.dashboard.ActivityTrendsDto;
+import app.web.inventory.dto.pagination.CursorSlice;
+import app.web.inventory.model.AuditDailyRollup;
 import app.web.inventory.model.AuditLog;
+import app.web.inventory.repository.AuditDailyRollupRepository;
 import app.web.inventory.repository.AuditLogRepository;
+import app.web.inventory.service.AuditArchiveStore.ArchiveFilter;
+import app.web.inventory.util.KeysetCursor;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
@@ -30,11 +40,21 @@ import lombok.extern.slf4j.Slf4j;
 public class AuditLogService {
 
     private final AuditLogRepository auditLogRepository;
+    private final AuditDailyRollupRepository rollupRepository;
     private final ObjectMapper objectMapper;
+    private final AuditLogWriter auditLogWriter;
+    private final AuditArchiveStore archiveStore;
+    private final RecentActivityCache recentActivityCache;
 
-    public AuditLogService(AuditLogRepository auditLogRepository, ObjectMapper objectMapper) {
+    public AuditLogService(AuditLogRepository auditLogRepository, AuditDailyRollupRepository rollupRepository,
+            ObjectMapper objectMapper, AuditLogWriter auditLogWriter, AuditArchiveStore archiveStore,
+            RecentActivityCache recentActivityCache) {
         this.auditLogRepository = auditLogRepository;
+        this.rollupRepository = rollupRepository;
         this.objectMapper = objectMapper;
+        this.auditLogWriter = auditLogWriter;
+        this.archiveStore = archiveStore;
+        this.recentActivityCache = recentActivityCache;
     }
 
     /**
@@ -44,41 +64,108 @@ public class AuditLogService {
             Object changeDetails, String ipAddress, String userAgent,
             UUID relatedEntityId, String relatedEntityType) {
         try {
-            AuditLog auditLog = new AuditLog();
-            auditLog.setUserId(userId);
-            auditLog.setEntityType(entityType);
-            auditLog.setEntityId(entityId);
-            auditLog.setOperation(operation);
-            auditLog.setIpAddress(ipAddress);
-            auditLog.setUserAgent(userAgent);
-            auditLog.setRelatedEntityId(relatedEntityId);
-            auditLog.setRelatedEntityType(relatedEntityType);
-
-            if (changeDetails != null) {
-                auditLog.setDetails(objectMapper.writeValueAsString(changeDetails));
+            if (auditLogWriter.isEnabled()) {
+                // Details are serialized by the writer thread, after the transaction commits
+                AuditLog auditLog = buildAuditLog(userId, entityType, entityId, operation, changeDetails,
+                        ipAddress, userAgent, relatedEntityId, relatedEntityType, false);
+                auditLogWriter.enqueue(auditLog, changeDetails);
+                return;
             }
 
-            auditLogRepository.save(auditLog);
+            AuditLog auditLog = createAuditLog(userId, entityType, entityId, operation, changeDetails,
+                    ipAddress, userAgent, relatedEntityId, relatedEntityType);
+
+            insert(List.of(auditLog));
             log.debug("Audit log created for user {} - {} {} {}", userId, operation, entityType, entityId);
 
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize audit log details", e);
-            // Save without details rather than failing completely
-            AuditLog auditLog = new AuditLog();
-            auditLog.setUserId(userId);
-            auditLog.setEntityType(entityType);
-            auditLog.setEntityId(entityId);
-            auditLog.setOperation(operation);
-            auditLog.setIpAddress(ipAddress);
-            auditLog.setUserAgent(userAgent);
-            auditLog.setDetails("Error serializing details");
-            auditLogRepository.save(auditLog);
         } catch (Exception e) {
             log.error("Failed to create audit log", e);
             // Don't throw exception to avoid disrupting main business logic
         }
     }
 
+    /**
+     * Create several audit log entries with one batched insert
+     */
+    public void logActions(List<AuditLog> auditLogs) {
+        if (auditLogs == null || auditLogs.isEmpty()) {
+            return;
+        }
+        try {
+            if (auditLogWriter.isEnabled()) {
+                auditLogs.forEach(auditLog -> auditLogWriter.enqueue(auditLog, null));
+                return;
+            }
+            insert(auditLogs);
+            log.debug("{} audit logs created in one batch", auditLogs.size());
+        } catch (Exception e) {
+            log.error("Failed to create audit logs", e);
+            // Don't throw exception to avoid disrupting main business logic
+        }
+    }
+
+    // Same path as the async writer, so the daily rollup and activity feeds see every entry
+    private void insert(List<AuditLog> auditLogs) {
+        auditLogRepository.batchInsert(auditLogs);
+        rollupRepository.increment(auditLogs);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentActivityCache.onCommitted(auditLogs);
+                }
+            });
+        } else {
+            recentActivityCache.onCommitted(auditLogs);
+        }
+    }
+
+    /**
+     * Build an unsaved audit log entry, serializing the change details
+     */
+    public AuditLog createAuditLog(UUID userId, String entityType, UUID entityId, String operation,
+            Object changeDetails, String ipAddress, String userAgent,
+            UUID relatedEntityId, String relatedEntityType) {
+        return buildAuditLog(userId, entityType, entityId, operation, changeDetails, ipAddress, userAgent,
+                relatedEntityId, relatedEntityType, true);
+    }
+
+    private AuditLog buildAuditLog(UUID userId, String entityType, UUID entityId, String operation,
+            Object changeDetails, String ipAddress, String userAgent,
+            UUID relatedEntityId, String relatedEntityType, boolean serializeDetails) {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setUserId(userId);
+        auditLog.setEntityType(entityType);
+        auditLog.setEntityId(entityId);
+        auditLog.setOperation(operation);
+        auditLog.setIpAddress(ipAddress);
+        auditLog.setUserAgent(userAgent);
+        auditLog.setRelatedEntityId(relatedEntityId);
+        auditLog.setRelatedEntityType(relatedEntityType);
+        auditLog.setSpaceId(AuditLog.resolveSpaceId(entityType, entityId, relatedEntityType, relatedEntityId));
+
+        Map<?, ?> details = changeDetails instanceof Map<?, ?> map ? map : Map.of();
+        auditLog.setProductName(text(details.get("productName")));
+        auditLog.setSpaceName(text(details.get("spaceName")));
+        auditLog.setOldStock(number(details.get("oldStock")));
+        auditLog.setNewStock(number(details.get("newStock")));
+        Integer added = number(details.get("quantityAdded"));
+        Integer removed = number(details.get("quantityRemoved"));
+        auditLog.setQuantityDelta(added != null ? added : removed != null ? Integer.valueOf(-removed) : null);
+        auditLog.setDescription(describe(operation, entityType, details));
+
+        if (serializeDetails && changeDetails != null) {
+            try {
+                auditLog.setDetails(objectMapper.writeValueAsString(changeDetails));
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialize audit log details", e);
+                // Save without details rather than failing completely
+                auditLog.setDetails("Error serializing details");
+            }
+        }
+        return auditLog;
+    }
+
     /**
      * Simplified method for basic logging
      */
@@ -99,7 +186,9 @@ public class AuditLogService {
         // Apply filters
         if (request.getStartDate() != null && request.getEndDate() != null) {
             auditLogs = auditLogRepository.findByUserIdAndTimestampBetweenOrderByTimestampDesc(
-                    userId, request.getStartDate(), request.getEndDate(), pageable);
+                    userId, hotStart(request.getStartDate()), request.getEndDate(), pageable);
+            auditLogs = withArchive(auditLogs, pageable, new ArchiveFilter(userId, null, null, null, null,
+                    request.getStartDate(), request.getEndDate()));
         } else if (request.getEntityType() != null && !request.getEntityType().isEmpty()) {
             auditLogs = auditLogRepository.findByUserIdAndEntityTypeOrderByTimestampDesc(
                     userId, request.getEntityType().toUpperCase(), pageable);
@@ -116,6 +205,132 @@ public class AuditLogService {
         return auditLogs.map(this::convertToDto);
     }
 
+    /**
+     * Get audit logs newest first with keyset pagination. Unlike getAuditLogs all
+     * filters combine, and no COUNT is issued. Sorting is always (timestamp, id) DESC.
+     */
+    public CursorSlice<AuditLogDto> getAuditLogsAfter(UUID userId, AuditLogFilterRequest request, String cursor) {
+        AuditPosition after = AuditPosition.decode(cursor);
+        List<AuditLog> rows = auditLogRepository.findByUserIdBefore(
+                userId,
+                request.getEntityId(),
+                normalizeFilter(request.getEntityType()),
+                normalizeFilter(request.getOperation()),
+                hotStart(request.getStartDate()),
+                request.getEndDate(),
+                after.timestamp(),
+                after.id(),
+                PageRequest.of(0, keysetSize(request) + 1));
+        rows = withArchive(rows, keysetSize(request) + 1, after, new ArchiveFilter(userId, null,
+                request.getEntityId(), normalizeFilter(request.getEntityType()),
+                normalizeFilter(request.getOperation()), request.getStartDate(), request.getEndDate()));
+        return toSlice(rows, keysetSize(request));
+    }
+
+    public CursorSlice<AuditLogDto> getSpaceAuditLogsAfter(UUID spaceId, AuditLogFilterRequest request, String cursor) {
+        AuditPosition after = AuditPosition.decode(cursor);
+        List<AuditLog> rows = auditLogRepository.findBySpaceIdBefore(
+                spaceId,
+                normalizeFilter(request.getEntityType()),
+                normalizeFilter(request.getOperation()),
+                hotStart(request.getStartDate()),
+                request.getEndDate(),
+                after.timestamp(),
+                after.id(),
+                PageRequest.of(0, keysetSize(request) + 1));
+        rows = withArchive(rows, keysetSize(request) + 1, after, new ArchiveFilter(null, spaceId, null,
+                normalizeFilter(request.getEntityType()), normalizeFilter(request.getOperation()),
+                request.getStartDate(), request.getEndDate()));
+        return toSlice(rows, keysetSize(request));
+    }
+
+    /*
+     * Archived months are only read when the requested range starts before the
+     * hot table does. Hot queries are then limited to rows after that point so
+     * a month being removed from the table is never returned twice.
+     */
+
+    private LocalDateTime hotStart(LocalDateTime startDate) {
+        LocalDateTime archivedBefore = archiveStore.archivedBefore();
+        return startDate != null && archivedBefore != null && startDate.isBefore(archivedBefore)
+                ? archivedBefore
+                : startDate;
+    }
+
+    private boolean reachesArchive(LocalDateTime startDate) {
+        LocalDateTime archivedBefore = archiveStore.archivedBefore();
+        return startDate != null && archivedBefore != null && startDate.isBefore(archivedBefore);
+    }
+
+    // Keyset pages continue into the archive once the hot rows run out
+    private List<AuditLog> withArchive(List<AuditLog> rows, int limit, AuditPosition after, ArchiveFilter filter) {
+        if (rows.size() >= limit || !reachesArchive(filter.startDate())) {
+            return rows;
+        }
+        AuditLog last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        List<AuditLog> merged = new ArrayList<>(rows);
+        merged.addAll(archiveStore.findBefore(filter,
+                last != null ? last.getTimestamp() : after.timestamp(),
+                last != null ? last.getId() : after.id(),
+                limit - rows.size()));
+        return merged;
+    }
+
+    // Offset pages sorted newest first append archived rows after the hot ones
+    private Page<AuditLog> withArchive(Page<AuditLog> hot, Pageable pageable, ArchiveFilter filter) {
+        Sort.Order first = pageable.getSort().stream().findFirst().orElse(null);
+        boolean newestFirst = first != null && "timestamp".equals(first.getProperty()) && first.isDescending();
+        if (!newestFirst || !reachesArchive(filter.startDate())) {
+            return hot;
+        }
+        long archived = archiveStore.count(filter);
+        List<AuditLog> content = new ArrayList<>(hot.getContent());
+        int missing = pageable.getPageSize() - content.size();
+        if (missing > 0 && archived > 0) {
+            long skip = Math.max(0, pageable.getOffset() - hot.getTotalElements());
+            content.addAll(archiveStore.findPage(filter, skip, missing));
+        }
+        return new PageImpl<>(content, pageable, hot.getTotalElements() + archived);
+    }
+
+    private int keysetSize(AuditLogFilterRequest request) {
+        if (request.getSize() <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than 0");
+        }
+        return request.getSize();
+    }
+
+    // rows holds up to size + 1 entries, the extra one only signals another page
+    private CursorSlice<AuditLogDto> toSlice(List<AuditLog> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<AuditLog> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            AuditLog last = page.get(page.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getTimestamp().toString(), last.getId().toString());
+        }
+        return new CursorSlice<>(
+                page.stream().map(this::convertToDto).collect(Collectors.toList()),
+                nextCursor,
+                hasNext,
+                null);
+    }
+
+    private record AuditPosition(LocalDateTime timestamp, UUID id) {
+
+        static AuditPosition decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return new AuditPosition(null, null);
+            }
+            String[] parts = KeysetCursor.decode(cursor, 2);
+            try {
+                return new AuditPosition(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+
     /**
      * Get audit log summary statistics
      */
@@ -156,13 +371,7 @@ public class AuditLogService {
      * Get recent activity for dashboard
      */
     public List<AuditLogDto> getRecentActivity(UUID userId, int hours) {
-        LocalDateTime since = LocalDateTime.now().minusHours(hours);
-        List<AuditLog> recentLogs = auditLogRepository.findRecentActivity(userId, since);
-
-        return recentLogs.stream()
-                .limit(50) // Limit to prevent excessive data
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return recentActivityCache.recentForUser(userId, LocalDateTime.now().minusHours(hours));
     }
 
     public Page<AuditLogDto> getSpaceAuditLogs(UUID spaceId, Pageable pageable) {
@@ -174,28 +383,19 @@ public class AuditLogService {
         Pageable pageable = PageRequest.of(request.getPage(), request.getSize(), sort);
         String entityType = normalizeFilter(request.getEntityType());
         String operation = normalizeFilter(request.getOperation());
-        return auditLogRepository.findBySpaceIdWithFilters(
-                spaceId, entityType, operation, request.getStartDate(), request.getEndDate(), pageable)
+        Page<AuditLog> auditLogs = auditLogRepository.findBySpaceIdWithFilters(
+                spaceId, entityType, operation, hotStart(request.getStartDate()), request.getEndDate(), pageable);
+        return withArchive(auditLogs, pageable, new ArchiveFilter(null, spaceId, null, entityType, operation,
+                request.getStartDate(), request.getEndDate()))
                 .map(this::convertToDto);
     }
 
     public List<AuditLogDto> getRecentActivityForSpace(UUID spaceId, int hours) {
-        return auditLogRepository.findRecentActivityBySpaceId(spaceId, LocalDateTime.now().minusHours(hours)).stream()
-                .limit(50)
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return recentActivityCache.recentForSpace(spaceId, LocalDateTime.now().minusHours(hours));
     }
 
     public ActivityTrendsDto getSpaceActivityTrends(UUID spaceId, int days) {
-        LocalDateTime endDate = LocalDateTime.now();
-        LocalDateTime startDate = endDate.minusDays(days);
-        Map<String, Long> daily = auditLogRepository.countDailyActivityBySpaceId(spaceId, startDate, endDate).stream()
-                .collect(Collectors.toMap(row -> row[0].toString(), row -> (Long) row[1]));
-        Map<String, Long> operations = auditLogRepository.countOperationBreakdownBySpaceId(spaceId, startDate, endDate)
-                .stream()
-                .collect(Collectors.toMap(row -> (String) row[0], row -> (Long) row[1]));
-        long total = daily.values().stream().mapToLong(Long::longValue).sum();
-        return new ActivityTrendsDto(daily, operations, total, days + " days");
+        return rollupTrends(AuditDailyRollup.SCOPE_SPACE, spaceId, days);
     }
 
     /**
@@ -209,30 +409,31 @@ public class AuditLogService {
             throw new IllegalArgumentException("Days must be between 1 and 365");
         }
 
-        // Single timestamp reference - avoids microsecond drift
-        LocalDateTime endDate = LocalDateTime.now();
-        LocalDateTime startDate = endDate.minusDays(days);
+        return rollupTrends(AuditDailyRollup.SCOPE_USER, userId, days);
+    }
+
+    /**
+     * Trends from the daily rollup: at most one row per day and operation,
+     * covering the same calendar days as the last {@code days} days of logs
+     */
+    private ActivityTrendsDto rollupTrends(String scopeType, UUID scopeId, int days) {
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(days);
 
-        // All counting done in DB - no rows loaded into memory
-        @SuppressWarnings("null")
-        Map<String, Long> dailyActivity = auditLogRepository
-                .countDailyActivityByUser(userId, startDate, endDate)
+        Map<String, Long> dailyActivity = rollupRepository.countDaily(scopeType, scopeId, startDate, endDate)
                 .stream()
                 .collect(Collectors.toMap(
                         row -> row[0].toString(),
-                        row -> (Long) row[1]));
+                        row -> ((Number) row[1]).longValue()));
 
-        @SuppressWarnings("null")
-        Map<String, Long> operationBreakdown = auditLogRepository
-                .countOperationBreakdownByUser(userId, startDate, endDate)
+        Map<String, Long> operationBreakdown = rollupRepository
+                .countByOperation(scopeType, scopeId, startDate, endDate)
                 .stream()
                 .collect(Collectors.toMap(
                         row -> (String) row[0],
-                        row -> (Long) row[1]));
+                        row -> ((Number) row[1]).longValue()));
 
-        @SuppressWarnings("null")
-        long totalActivities = auditLogRepository
-                .countByUserIdAndTimestampBetween(userId, startDate, endDate);
+        long totalActivities = dailyActivity.values().stream().mapToLong(Long::longValue).sum();
 
         return new ActivityTrendsDto(
                 dailyActivity,
@@ -241,20 +442,48 @@ public class AuditLogService {
                 days + " days");
     }
 
+    /**
+     * Human-readable summary of an entry, stored with it so feeds can show it as is
+     */
+    private static String describe(String operation, String entityType, Map<?, ?> details) {
+        String description = switch (operation) {
+            case "STOCK_ADD" ->
+                "Added " + details.get("quantityAdded") + " units to '" + details.get("productName") + "'";
+            case "STOCK_REMOVE" ->
+                "Removed " + details.get("quantityRemoved") + " units from '" + details.get("productName") + "'";
+            case "STOCK_UPDATE" -> "Updated stock for '" + details.get("productName") + "' from " +
+                    details.get("oldStock") + " to " + details.get("newStock");
+            default -> switch (operation + "_" + entityType) {
+                case "CREATE_SPACE" -> "Created space: " + details.get("spaceName");
+                case "UPDATE_SPACE" ->
+                    "Renamed space from '" + details.get("oldName") + "' to '" + details.get("newName") + "'";
+                case "DELETE_SPACE" -> "Deleted space: " + details.get("spaceName");
+                case "CREATE_PRODUCT" ->
+                    "Created product '" + details.get("productName") + "' in space '" + details.get("spaceName")
+                            + "'";
+                case "UPDATE_PRODUCT" -> "Updated product: " + details.get("productName");
+                case "DELETE_PRODUCT" ->
+                    "Deleted product '" + details.get("productName") + "' from space '" + details.get("spaceName")
+                            + "'";
+                default -> operation + " " + entityType;
+            };
+        };
+        return description.length() > 500 ? description.substring(0, 500) : description;
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static Integer number(Object value) {
+        return value instanceof Number n ? Integer.valueOf(n.intValue()) : null;
+    }
+
     /**
      * Convert AuditLog entity to DTO
      */
     private AuditLogDto convertToDto(AuditLog auditLog) {
-        return new AuditLogDto(
-                auditLog.getId(),
-                auditLog.getEntityType(),
-                auditLog.getEntityId(),
-                auditLog.getOperation(),
-                auditLog.getDetails(),
-                auditLog.getTimestamp(),
-                auditLog.getIpAddress(),
-                auditLog.getRelatedEntityId(),
-                auditLog.getRelatedEntityType());
+        return AuditLogDto.from(auditLog);
     }
 
     private String normalizeFilter(String value) {
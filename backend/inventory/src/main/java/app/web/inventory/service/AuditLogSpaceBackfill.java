@@ -0,0 +1,77 @@
+package app.web.inventory.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import app.web.inventory.repository.AuditLogRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fills in space_id on audit logs written before the column existed. Runs once
+ * after startup on a background thread, in small auto-committed chunks so it
+ * never holds row locks for long. Until it finishes, space-scoped queries do
+ * not see those older entries. Once nothing is left to update each startup
+ * costs a single statement.
+ */
+@Component
+@Slf4j
+public class AuditLogSpaceBackfill {
+
+    private final AuditLogRepository auditLogRepository;
+    private final boolean enabled;
+    private final int batchSize;
+
+    private volatile boolean running;
+
+    public AuditLogSpaceBackfill(AuditLogRepository auditLogRepository,
+            @Value("${app.audit.backfill.enabled:true}") boolean enabled,
+            @Value("${app.audit.backfill.batch-size:5000}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Audit backfill batch size must be positive");
+        }
+        this.auditLogRepository = auditLogRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::run, "audit-space-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+
+    private void run() {
+        long started = System.currentTimeMillis();
+        long total = 0;
+        try {
+            int updated;
+            do {
+                updated = auditLogRepository.backfillSpaceIds(batchSize);
+                total += updated;
+                if (updated > 0 && total % (batchSize * 20L) < updated) {
+                    log.info("Audit space backfill: {} rows so far", total);
+                }
+            } while (running && updated == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Audit space backfill stopped after {} rows, it resumes on the next startup", total, e);
+            return;
+        }
+        if (total > 0) {
+            log.info("Audit space backfill set space_id on {} rows in {} ms", total,
+                    System.currentTimeMillis() - started);
+        }
+    }
+}
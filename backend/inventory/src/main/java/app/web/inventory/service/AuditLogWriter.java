@@ -0,0 +1,274 @@
+package app.web.inventory.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.web.inventory.model.AuditLog;
+import app.web.inventory.repository.AuditDailyRollupRepository;
+import app.web.inventory.repository.AuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes audit logs off the request path. Entries are handed over once the
+ * business transaction commits, buffered in a bounded queue and inserted by a
+ * single writer thread in JDBC batches. Whatever is still queued on shutdown is
+ * flushed before the application context closes.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter {
+
+    public enum OverflowPolicy {
+        BLOCK,       // Wait up to offer-timeout-ms for space, then drop
+        DROP,        // Drop the entry immediately
+        CALLER_RUNS  // Insert synchronously on the calling thread
+    }
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditDailyRollupRepository rollupRepository;
+    private final RecentActivityCache recentActivityCache;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final OverflowPolicy overflowPolicy;
+    private final BlockingQueue<PendingAuditLog> queue;
+
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditLogWriter(AuditLogRepository auditLogRepository, AuditDailyRollupRepository rollupRepository,
+            RecentActivityCache recentActivityCache, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${app.audit.async.enabled:true}") boolean enabled,
+            @Value("${app.audit.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.audit.batch-size:200}") int batchSize,
+            @Value("${app.audit.flush-interval-ms:500}") long flushIntervalMs,
+            @Value("${app.audit.offer-timeout-ms:100}") long offerTimeoutMs,
+            @Value("${app.audit.overflow-policy:CALLER_RUNS}") OverflowPolicy overflowPolicy) {
+        if (queueCapacity <= 0 || batchSize <= 0 || flushIntervalMs <= 0) {
+            throw new IllegalArgumentException("Audit queue capacity, batch size and flush interval must be positive");
+        }
+        this.auditLogRepository = auditLogRepository;
+        this.rollupRepository = rollupRepository;
+        this.recentActivityCache = recentActivityCache;
+        this.objectMapper = objectMapper;
+        // Runs from afterCommit callbacks too, so never join the finished transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.overflowPolicy = overflowPolicy;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("audit.queue.depth", queue, BlockingQueue::size)
+                .description("Audit log entries waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.flush.latency")
+                .description("Time spent inserting one batch of audit logs")
+                .register(meterRegistry);
+        this.writtenCounter = meterRegistry.counter("audit.written");
+        this.droppedCounter = meterRegistry.counter("audit.dropped");
+        this.failedCounter = meterRegistry.counter("audit.failed");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::drainLoop, "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(flushIntervalMs * 4);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Flush whatever is left synchronously so nothing is lost on shutdown
+        List<PendingAuditLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+        log.info("Audit log writer stopped");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue an audit log for writing. Details are serialized on the writer thread.
+     * Inside a transaction the entry is only queued once that transaction commits.
+     */
+    public void enqueue(AuditLog auditLog, Object changeDetails) {
+        if (auditLog.getTimestamp() == null) {
+            auditLog.setTimestamp(LocalDateTime.now());
+        }
+        PendingAuditLog entry = new PendingAuditLog(auditLog, changeDetails);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(entry);
+                }
+            });
+        } else {
+            offer(entry);
+        }
+    }
+
+    private void offer(PendingAuditLog entry) {
+        if (!running) {
+            write(List.of(entry));
+            return;
+        }
+        if (queue.offer(entry)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    if (queue.offer(entry, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                droppedCounter.increment();
+                log.warn("Audit log queue full, dropped {} {}", entry.auditLog.getOperation(),
+                        entry.auditLog.getEntityType());
+            }
+            case CALLER_RUNS -> write(List.of(entry));
+            case DROP -> {
+                droppedCounter.increment();
+                log.warn("Audit log queue full, dropped {} {}", entry.auditLog.getOperation(),
+                        entry.auditLog.getEntityType());
+            }
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingAuditLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingAuditLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Fill the batch until it is full or the flush interval has passed
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingAuditLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Audit log writer loop failed", e);
+                batch.clear();
+            }
+        }
+        // Entries taken off the queue but not yet written when interrupted
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<PendingAuditLog> batch) {
+        List<AuditLog> auditLogs = new ArrayList<>(batch.size());
+        for (PendingAuditLog entry : batch) {
+            if (entry.changeDetails != null) {
+                try {
+                    entry.auditLog.setDetails(objectMapper.writeValueAsString(entry.changeDetails));
+                } catch (JsonProcessingException e) {
+                    log.error("Failed to serialize audit log details", e);
+                    entry.auditLog.setDetails("Error serializing details");
+                }
+            }
+            auditLogs.add(entry.auditLog);
+        }
+
+        try {
+            // Rows and their daily counters commit together
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                auditLogRepository.batchInsert(auditLogs);
+                rollupRepository.increment(auditLogs);
+            }));
+            writtenCounter.increment(auditLogs.size());
+        } catch (Exception e) {
+            failedCounter.increment(auditLogs.size());
+            log.error("Failed to write {} audit logs", auditLogs.size(), e);
+            return;
+        }
+        recentActivityCache.onCommitted(auditLogs);
+    }
+
+    private static final class PendingAuditLog {
+        private final AuditLog auditLog;
+        private final Object changeDetails;
+
+        private PendingAuditLog(AuditLog auditLog, Object changeDetails) {
+            this.auditLog = auditLog;
+            this.changeDetails = changeDetails;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package app.web.inventory.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import app.web.inventory.repository.AuditDailyRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps audit_daily_rollup honest. Counters are incremented as audit logs are
+ * written; the nightly compaction recomputes the last few days from the raw logs
+ * once they are complete, and a rebuild regenerates any range of days, one day
+ * per transaction. An empty rollup is rebuilt in the background at startup.
+ */
+@Service
+@Slf4j
+public class AuditRollupService {
+
+    public record RebuildResult(LocalDate from, LocalDate to, int days, long rows) {
+    }
+
+    private final AuditDailyRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int compactDays;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public AuditRollupService(AuditDailyRollupRepository rollupRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.audit.rollup.compact-days:2}") int compactDays) {
+        if (compactDays <= 0) {
+            throw new IllegalArgumentException("Audit rollup compact days must be positive");
+        }
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.compactDays = compactDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (rollupRepository.count() > 0) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                rebuild(null, null);
+            } catch (RuntimeException e) {
+                log.error("Initial audit rollup rebuild failed", e);
+            }
+        }, "audit-rollup-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Close out the previous days: late audit writes and failed increments are
+     * corrected by recounting them from audit_logs.
+     */
+    @Scheduled(cron = "${app.audit.rollup.compact-cron:0 15 0 * * *}")
+    public void compact() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        try {
+            RebuildResult result = rebuild(yesterday.minusDays(compactDays - 1L), yesterday);
+            log.info("Compacted audit rollup for {} to {}: {} rows", result.from(), result.to(), result.rows());
+        } catch (IllegalStateException e) {
+            log.info("Skipped audit rollup compaction: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Regenerate the rollup for the given days, both inclusive. A missing end
+     * means today. Days before the oldest entry still in audit_logs are left
+     * alone: their logs are archived and the rollup is all that is left of them.
+     */
+    public RebuildResult rebuild(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        if (from != null && from.isAfter(end)) {
+            throw new IllegalArgumentException("Rebuild start must not be after its end");
+        }
+        LocalDate first = rollupRepository.findFirstActivityDate();
+        if (first == null) {
+            return new RebuildResult(from, end, 0, 0);
+        }
+        LocalDate start = from != null && from.isAfter(first) ? from : first;
+        if (start.isAfter(end)) {
+            return new RebuildResult(start, end, 0, 0);
+        }
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("An audit rollup rebuild is already running");
+        }
+
+        try {
+            long started = System.currentTimeMillis();
+            int days = 0;
+            long rows = 0;
+            for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+                LocalDate current = day;
+                rows += transactionTemplate.execute(status -> rollupRepository.rebuildDay(current));
+                days++;
+            }
+            log.info("Rebuilt audit rollup for {} days ({} rows) in {} ms", days, rows,
+                    System.currentTimeMillis() - started);
+            return new RebuildResult(start, end, days, rows);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+}
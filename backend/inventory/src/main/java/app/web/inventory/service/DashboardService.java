@@ -2,9 +2,7 @@ package app.web.inventory.service;
 
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.DoubleSummaryStatistics;
 import java.util.HashMap;
-import java.util.IntSummaryStatistics;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -13,9 +11,6 @@ import java.util.stream.Collectors;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import app.web.inventory.dto.audit.AuditLogDto;
 import app.web.inventory.dto.dashboard.ActivityTrendsDto;
 import app.web.inventory.dto.dashboard.DashboardOverviewDto;
@@ -36,6 +31,7 @@ import app.web.inventory.dto.dashboard.TopProductsDto;
 import app.web.inventory.dto.dashboard.TopProductsDto.ProductSummary;
 import app.web.inventory.dto.space.SpaceDto;
 import app.web.inventory.model.Products;
+import app.web.inventory.model.SpaceInventoryStats;
 import app.web.inventory.model.Spaces;
 
 @Service
@@ -44,12 +40,14 @@ public class DashboardService {
     private final ProductService productService;
     private final SpaceService spaceService;
     private final AuditLogService auditLogService;
+    private final SpaceInventoryStatsService statsService;
 
     public DashboardService(ProductService productService, SpaceService spaceService,
-            AuditLogService auditLogService) {
+            AuditLogService auditLogService, SpaceInventoryStatsService statsService) {
         this.productService = productService;
         this.spaceService = spaceService;
         this.auditLogService = auditLogService;
+        this.statsService = statsService;
     }
 
     /**
@@ -59,29 +57,22 @@ public class DashboardService {
         // The main dashboard covers every space the user can access, including shared
         // spaces.
         List<Spaces> spaces = spaceService.getAccessibleSpaces(userId);
-        List<Products> products = productService.getAccessibleProducts(userId);
-        List<Products> lowStockProducts = productService.getAccessibleLowStockProducts(userId);
-
-        double totalValue = products.stream()
-                .mapToDouble(p -> p.getPrice() * p.getCurrentStock())
-                .sum();
+        StockSummary summary = summarizeStats(spaces);
 
         int maxSpaces = 10;
         int usedSpaces = spaces.size();
         double spaceUtilization = (usedSpaces / (double) maxSpaces) * 100;
 
-        Map<String, Integer> stockStatus = getStockStatusBreakdown(products);
-
         return new DashboardOverviewDto(
                 usedSpaces,
                 maxSpaces,
                 Math.round(spaceUtilization * 100.0) / 100.0,
-                products.size(),
-                Math.round(totalValue * 100.0) / 100.0,
-                lowStockProducts.size(),
-                stockStatus,
+                summary.productCount,
+                Math.round(summary.totalValue * 100.0) / 100.0,
+                summary.lowStockCount,
+                summary.stockStatus(),
                 usedSpaces > 0
-                        ? Math.round((products.size() / (double) usedSpaces) * 100.0) / 100.0
+                        ? Math.round((summary.productCount / (double) usedSpaces) * 100.0) / 100.0
                         : 0.0);
     }
 
@@ -92,17 +83,15 @@ public class DashboardService {
 
         Spaces space = spaceService.getSpaceById(spaceId);
 
-        List<Products> products = productService.getProductsBySpace(userId, spaceId);
-
-        List<Products> lowStock = products.stream().filter(productService::isLowStock).collect(Collectors.toList());
-
-        Map<String, Integer> stockStatus = getStockStatusBreakdown(products);
+        // Counters come from the maintained stats row; only the low stock products are
+        // loaded, through the stock status index
+        StockSummary summary = summarizeStats(List.of(space));
 
-        double totalValue = products.stream().mapToDouble(p -> p.getPrice() * p.getCurrentStock()).sum();
-
-        DashboardOverviewDto overview = new DashboardOverviewDto(1, 1, 100.0, products.size(),
-                Math.round(totalValue * 100.0) / 100.0, lowStock.size(), stockStatus, (double) products.size());
-        List<TopProductsDto.ProductSummary> alerts = lowStock.stream().map(this::createProductSummary)
+        DashboardOverviewDto overview = new DashboardOverviewDto(1, 1, 100.0, summary.productCount,
+                Math.round(summary.totalValue * 100.0) / 100.0, summary.lowStockCount,
+                summary.stockStatus(), (double) summary.productCount);
+        List<TopProductsDto.ProductSummary> alerts = productService.getLowStockProductsBySpace(userId, spaceId).stream()
+                .map(this::createProductSummary)
                 .collect(Collectors.toList());
         List<AuditLogDto> recent = auditLogService.getRecentActivityForSpace(spaceId, 24 * 7);
 
@@ -119,48 +108,36 @@ public class DashboardService {
      * Get detailed inventory insights
      */
     public InventoryInsightsDto getInventoryInsights(UUID userId) {
-        List<Products> products = productService.getAccessibleProducts(userId);
+        // All statistics are aggregated by the database - no products are loaded
+        Object[] stats = productService.getAccessibleProductStatistics(userId);
+        long productCount = stats[7] instanceof Number ? ((Number) stats[7]).longValue() : 0L;
 
-        if (products.isEmpty()) {
+        if (productCount == 0) {
             return new InventoryInsightsDto(false, null, null, new HashMap<>(), new HashMap<>());
         }
 
         // Price analysis
-        DoubleSummaryStatistics priceStats = products.stream()
-                .mapToDouble(Products::getPrice)
-                .summaryStatistics();
-
         PriceAnalysisDto priceAnalysis = new PriceAnalysisDto(
-                Math.round(priceStats.getMin() * 100.0) / 100.0,
-                Math.round(priceStats.getMax() * 100.0) / 100.0,
-                Math.round(priceStats.getAverage() * 100.0) / 100.0);
+                Math.round(((Number) stats[0]).doubleValue() * 100.0) / 100.0,
+                Math.round(((Number) stats[1]).doubleValue() * 100.0) / 100.0,
+                Math.round(((Number) stats[2]).doubleValue() * 100.0) / 100.0);
 
         // Stock analysis
-        IntSummaryStatistics stockStats = products.stream()
-                .mapToInt(Products::getCurrentStock)
-                .summaryStatistics();
-
         StockAnalysisDto stockAnalysis = new StockAnalysisDto(
-                stockStats.getMin(),
-                stockStats.getMax(),
-                Math.round(stockStats.getAverage() * 100.0) / 100.0,
-                stockStats.getSum());
-
-        // Value distribution by space
-        Map<String, Double> valueBySpace = products.stream()
-                .collect(Collectors.groupingBy(
-                        p -> p.getSpace().getName(),
-                        Collectors.summingDouble(p -> p.getPrice() * p.getCurrentStock())))
-                .entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        e -> Math.round(e.getValue() * 100.0) / 100.0));
-
-        // Product count by space
-        Map<String, Long> countBySpace = products.stream()
-                .collect(Collectors.groupingBy(
-                        p -> p.getSpace().getName(),
-                        Collectors.counting()));
+                ((Number) stats[3]).intValue(),
+                ((Number) stats[4]).intValue(),
+                Math.round(((Number) stats[5]).doubleValue() * 100.0) / 100.0,
+                ((Number) stats[6]).longValue());
+
+        // Value distribution and product count by space
+        Map<String, Double> valueBySpace = new HashMap<>();
+        Map<String, Long> countBySpace = new HashMap<>();
+        for (Object[] row : productService.getAccessibleValueBySpaceName(userId)) {
+            String spaceName = (String) row[0];
+            double value = row[1] instanceof Number ? ((Number) row[1]).doubleValue() : 0.0;
+            valueBySpace.put(spaceName, Math.round(value * 100.0) / 100.0);
+            countBySpace.put(spaceName, ((Number) row[2]).longValue());
+        }
 
         return new InventoryInsightsDto(true, priceAnalysis, stockAnalysis, valueBySpace, countBySpace);
     }
@@ -191,40 +168,24 @@ public class DashboardService {
     }
 
     /**
-     * Get recent activity using audit logs
+     * Get recent activity using audit logs. Descriptions and the typed fields
+     * were stored with each entry, so no details JSON is parsed here.
      */
-    @SuppressWarnings("unchecked")
     public RecentActivityDto getRecentActivity(UUID userId) {
         List<AuditLogDto> recentLogs = auditLogService.getRecentActivity(userId, 168); // Last 7 days
 
         List<ActivityItem> activities = recentLogs.stream()
-                .map((AuditLogDto log) -> {
-                    Map<String, Object> details = new HashMap<>();
-                    String description;
-
-                    // Parse details for display
-                    if (log.getDetails() != null) {
-                        try {
-                            ObjectMapper mapper = new ObjectMapper();
-                            details = mapper.readValue(log.getDetails(), Map.class);
-                            description = generateActivityDescription(log.getOperation(), log.getEntityType(), details);
-                        } catch (JsonProcessingException e) {
-                            description = log.getOperation() + " " + log.getEntityType();
-                        }
-                    } else {
-                        description = log.getOperation() + " " + log.getEntityType();
-                    }
-
-                    return new ActivityItem(
-                            log.getId(),
-                            log.getOperation().toLowerCase(),
-                            log.getEntityType().toLowerCase(),
-                            log.getEntityId(),
-                            log.getTimestamp(),
-                            log.getIpAddress(),
-                            details,
-                            description);
-                })
+                .map((AuditLogDto log) -> new ActivityItem(
+                        log.getId(),
+                        log.getOperation().toLowerCase(),
+                        log.getEntityType().toLowerCase(),
+                        log.getEntityId(),
+                        log.getTimestamp(),
+                        log.getIpAddress(),
+                        activityDetails(log),
+                        log.getDescription() != null
+                                ? log.getDescription()
+                                : log.getOperation() + " " + log.getEntityType()))
                 .collect(Collectors.toList());
 
         return new RecentActivityDto(
@@ -234,6 +195,22 @@ public class DashboardService {
                 "Recent activities from audit logs");
     }
 
+    private Map<String, Object> activityDetails(AuditLogDto log) {
+        Map<String, Object> details = new HashMap<>();
+        putIfPresent(details, "productName", log.getProductName());
+        putIfPresent(details, "spaceName", log.getSpaceName());
+        putIfPresent(details, "quantityDelta", log.getQuantityDelta());
+        putIfPresent(details, "oldStock", log.getOldStock());
+        putIfPresent(details, "newStock", log.getNewStock());
+        return details;
+    }
+
+    private static void putIfPresent(Map<String, Object> map, String key, Object value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+
     /**
      * Get space performance metrics
      */
@@ -246,34 +223,22 @@ public class DashboardService {
             return new SpaceMetricsDto(false, new ArrayList<>(), null);
         }
 
-        // Load ALL accessible products in ONE query instead of one per space
-        List<Products> allProducts = productService.getAccessibleProducts(userId);
-
-        // Group by space ID in memory - no more per-space queries
-        Map<UUID, List<Products>> productsBySpace = allProducts.stream()
-                .collect(Collectors.groupingBy(p -> p.getSpace().getId()));
+        // Read the maintained per-space counters - no product scans
+        Map<UUID, SpaceInventoryStats> statsBySpace = statsService.getStats(
+                spacesWithCounts.stream().map(SpaceDto::getId).collect(Collectors.toSet()));
 
         List<SpaceMetric> spaceMetrics = spacesWithCounts.stream()
                 .map(space -> {
-                    // Just a map lookup - no DB call
-                    List<Products> spaceProducts = productsBySpace
-                            .getOrDefault(space.getId(), new ArrayList<>());
-
-                    double totalValue = spaceProducts.stream()
-                            .mapToDouble(p -> p.getPrice() * p.getCurrentStock())
-                            .sum();
-
-                    long lowStockCount = spaceProducts.stream()
-                            .filter(productService::isLowStock)
-                            .count();
+                    StockSummary spaceSummary = new StockSummary();
+                    spaceSummary.add(statsBySpace.get(space.getId()));
 
                     return new SpaceMetric(
                             space.getId(),
                             space.getName(),
                             space.getProductCount(),
-                            Math.round(totalValue * 100.0) / 100.0,
-                            lowStockCount,
-                            calculateSpaceHealthScore(spaceProducts));
+                            Math.round(spaceSummary.totalValue * 100.0) / 100.0,
+                            (long) spaceSummary.lowStockCount,
+                            spaceSummary.healthScore());
                 })
                 .sorted((a, b) -> Double.compare(b.getTotalValue(), a.getTotalValue()))
                 .collect(Collectors.toList());
@@ -341,18 +306,16 @@ public class DashboardService {
      * Get inventory trends
      */
     public InventoryTrendsDto getInventoryTrends(UUID userId, int days) {
-        List<Products> products = productService.getAccessibleProducts(userId);
         List<Spaces> spaces = spaceService.getAccessibleSpaces(userId);
+        StockSummary summary = summarizeStats(spaces);
 
         // Build snapshot once - used in both branches
         CurrentSnapshot snapshot = new CurrentSnapshot(
                 new Date(),
-                products.size(),
+                summary.productCount,
                 spaces.size(),
-                Math.round(products.stream()
-                        .mapToDouble(p -> p.getPrice() * p.getCurrentStock())
-                        .sum() * 100.0) / 100.0,
-                productService.getAccessibleLowStockProducts(userId).size());
+                Math.round(summary.totalValue * 100.0) / 100.0,
+                summary.lowStockCount);
 
         // Get trends from audit logs
         ActivityTrendsDto trendsData = auditLogService.getActivityTrends(userId, days);
@@ -370,23 +333,13 @@ public class DashboardService {
 
     // Helper methods
 
-    private Map<String, Integer> getStockStatusBreakdown(List<Products> products) {
-        Map<String, Integer> status = new HashMap<>();
-        status.put("inStock", 0);
-        status.put("lowStock", 0);
-        status.put("outOfStock", 0);
-
-        for (Products product : products) {
-            if (product.getCurrentStock() == 0) {
-                status.put("outOfStock", status.get("outOfStock") + 1);
-            } else if (productService.isLowStock(product)) {
-                status.put("lowStock", status.get("lowStock") + 1);
-            } else {
-                status.put("inStock", status.get("inStock") + 1);
-            }
-        }
-
-        return status;
+    // Combine the maintained counters of the given spaces
+    private StockSummary summarizeStats(List<Spaces> spaces) {
+        StockSummary total = new StockSummary();
+        statsService.getStats(spaces.stream().map(Spaces::getId).collect(Collectors.toSet()))
+                .values()
+                .forEach(total::add);
+        return total;
     }
 
     private AlertInfo createAlertInfo(Products product) {
@@ -415,26 +368,6 @@ public class DashboardService {
         return "low";
     }
 
-    private double calculateSpaceHealthScore(List<Products> products) {
-        if (products.isEmpty()) {
-            return 100.0;
-        }
-
-        long totalProducts = products.size();
-        long lowStockProducts = products.stream()
-                .filter(productService::isLowStock)
-                .count();
-        long outOfStockProducts = products.stream()
-                .filter(p -> p.getCurrentStock() == 0)
-                .count();
-
-        // Health score: 100 - (lowStock penalty + outOfStock penalty)
-        double lowStockPenalty = (lowStockProducts / (double) totalProducts) * 30;
-        double outOfStockPenalty = (outOfStockProducts / (double) totalProducts) * 50;
-
-        return Math.max(0, Math.round((100 - lowStockPenalty - outOfStockPenalty) * 100.0) / 100.0);
-    }
-
     private ProductSummary createProductSummary(Products product) {
         return new ProductSummary(
                 product.getId(),
@@ -446,26 +379,41 @@ public class DashboardService {
                 productService.isLowStock(product));
     }
 
-    private String generateActivityDescription(String operation, String entityType, Map<String, Object> details) {
-        return switch (operation + "_" + entityType) {
-            case "CREATE_SPACE" -> "Created space: " + details.get("spaceName");
-            case "UPDATE_SPACE" ->
-                "Renamed space from '" + details.get("oldName") + "' to '" + details.get("newName") + "'";
-            case "DELETE_SPACE" -> "Deleted space: " + details.get("spaceName");
-            case "CREATE_PRODUCT" ->
-                "Created product '" + details.get("productName") + "' in space '" + details.get("spaceName")
-                        + "'";
-            case "UPDATE_PRODUCT" -> "Updated product: " + details.get("productName");
-            case "DELETE_PRODUCT" ->
-                "Deleted product '" + details.get("productName") + "' from space '" + details.get("spaceName")
-                        + "'";
-            case "STOCK_ADD" ->
-                "Added " + details.get("quantityAdded") + " units to '" + details.get("productName") + "'";
-            case "STOCK_REMOVE" ->
-                "Removed " + details.get("quantityRemoved") + " units from '" + details.get("productName") + "'";
-            case "STOCK_UPDATE" -> "Updated stock for '" + details.get("productName") + "' from " +
-                    details.get("oldStock") + " to " + details.get("newStock");
-            default -> operation + " " + entityType;
-        };
+    private static final class StockSummary {
+        private int productCount;
+        private double totalValue;
+        private int inStock;
+        private int lowStock; // low but not empty, for the stock status breakdown
+        private int outOfStock;
+        private int lowStockCount; // includes empty products
+
+        private void add(SpaceInventoryStats stats) {
+            productCount += (int) stats.getProductCount();
+            totalValue += stats.getTotalValue();
+            inStock += (int) stats.getInStockCount();
+            outOfStock += (int) stats.getOutOfStockCount();
+            lowStock += (int) (stats.getProductCount() - stats.getInStockCount() - stats.getOutOfStockCount());
+            lowStockCount += (int) stats.getLowStockCount();
+        }
+
+        private Map<String, Integer> stockStatus() {
+            Map<String, Integer> status = new HashMap<>();
+            status.put("inStock", inStock);
+            status.put("lowStock", lowStock);
+            status.put("outOfStock", outOfStock);
+            return status;
+        }
+
+        private double healthScore() {
+            if (productCount == 0) {
+                return 100.0;
+            }
+
+            // Health score: 100 - (lowStock penalty + outOfStock penalty)
+            double lowStockPenalty = (lowStockCount / (double) productCount) * 30;
+            double outOfStockPenalty = (outOfStock / (double) productCount) * 50;
+
+            return Math.max(0, Math.round((100 - lowStockPenalty - outOfStockPenalty) * 100.0) / 100.0);
+        }
     }
 }
@@ -0,0 +1,133 @@
+package app.web.inventory.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import app.web.inventory.dto.product.ProductDto;
+import app.web.inventory.exception.ResourceNotFoundException;
+import app.web.inventory.model.enums.ProductFileFormat;
+import app.web.inventory.repository.ProductRepository;
+import app.web.inventory.util.CsvUtil;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams a space's products as CSV or NDJSON. Rows go from a forward-only
+ * result set straight to the output stream, so memory use does not depend on
+ * the number of products.
+ */
+@Service
+@Slf4j
+public class ProductExportService {
+
+    private static final String CSV_HEADER =
+            "id,spaceId,name,sku,category,imageUrl,price,currentStock,minimumQuantity,maximumQuantity";
+
+    private final ProductRepository productRepository;
+    private final SpaceService spaceService;
+    private final ObjectMapper objectMapper;
+
+    public ProductExportService(ProductRepository productRepository, SpaceService spaceService,
+            ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.spaceService = spaceService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Must run before the response starts streaming: once the body is being
+     * written an access error can no longer become a 404.
+     */
+    public void checkExportAccess(UUID userId, UUID spaceId) {
+        if (!spaceService.hasAccessToSpace(spaceId, userId)) {
+            throw new ResourceNotFoundException("Space not found or access denied");
+        }
+    }
+
+    public void writeProducts(UUID spaceId, ProductFileFormat format, boolean gzip, OutputStream out)
+            throws IOException {
+        long started = System.currentTimeMillis();
+        long[] rows = { 0 };
+
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        try {
+            if (format == ProductFileFormat.CSV) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                productRepository.streamBySpaceId(spaceId, product -> {
+                    writeCsvRow(writer, product);
+                    rows[0]++;
+                });
+                writer.flush();
+            } else {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(target);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                try (SequenceWriter writer = objectMapper.writerFor(ProductDto.class)
+                        .withRootValueSeparator("\n")
+                        .writeValues(generator)) {
+                    productRepository.streamBySpaceId(spaceId, product -> {
+                        try {
+                            writer.write(product);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        rows[0]++;
+                    });
+                }
+                if (rows[0] > 0) {
+                    target.write('\n');
+                }
+            }
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download
+            throw e.getCause();
+        }
+
+        if (gzip) {
+            ((GZIPOutputStream) target).finish();
+        }
+        target.flush();
+        log.info("Exported {} products of space {} as {} in {} ms", rows[0], spaceId, format,
+                System.currentTimeMillis() - started);
+    }
+
+    private void writeCsvRow(Writer writer, ProductDto product) {
+        try {
+            writer.write(product.getId().toString());
+            writer.write(',');
+            writer.write(product.getSpaceId().toString());
+            writer.write(',');
+            writer.write(CsvUtil.escape(product.getName()));
+            writer.write(',');
+            writer.write(CsvUtil.escape(product.getSku()));
+            writer.write(',');
+            writer.write(CsvUtil.escape(product.getCategory()));
+            writer.write(',');
+            writer.write(CsvUtil.escape(product.getImageUrl()));
+            writer.write(',');
+            writer.write(CsvUtil.escape(product.getPrice()));
+            writer.write(',');
+            writer.write(CsvUtil.escape(product.getCurrentStock()));
+            writer.write(',');
+            writer.write(CsvUtil.escape(product.getMinimumQuantity()));
+            writer.write(',');
+            writer.write(CsvUtil.escape(product.getMaximumQuantity()));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
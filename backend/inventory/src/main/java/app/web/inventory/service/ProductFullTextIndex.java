@@ -0,0 +1,571 @@
+package app.web.inventory.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoubleDocValuesField;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.FacetsCollectorManager;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.StringDocValuesReaderState;
+import org.apache.lucene.facet.StringValueFacetCounts;
+import org.apache.lucene.facet.range.DoubleRange;
+import org.apache.lucene.facet.range.DoubleRangeFacetCounts;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import app.web.inventory.model.Products;
+import app.web.inventory.model.enums.StockStatus;
+import app.web.inventory.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optional embedded Lucene index of products on local disk, for relevance-ranked
+ * search over name, SKU and category with facet counts.
+ *
+ * Product mutations and space deletions only queue the affected id once their
+ * transaction commits. A single indexing thread re-reads the queued products from
+ * the database, updates or deletes their documents, and refreshes the
+ * near-real-time searcher, so the index never blocks a write. The queue is
+ * bounded; when it overflows the dropped changes are covered by a full reindex
+ * on the indexing thread. Each node indexes only the mutations it handles;
+ * a full reindex (startup on an empty index, the optional cron or the actuator
+ * endpoint) brings a node back in line with the database.
+ *
+ * A full reindex rewrites the live index under the write lock, which also
+ * guards every commit, so neither searches nor the on-disk index see it before
+ * it completes. A failed reindex rolls the writer back to its last commit.
+ */
+@Component
+@Slf4j
+public class ProductFullTextIndex {
+
+    private static final String ID = "id";
+    private static final String SPACE_ID = "spaceId";
+    private static final String NAME = "name";
+    private static final String SKU = "sku";
+    private static final String CATEGORY_TEXT = "categoryText";
+    private static final String CATEGORY = "category";
+    private static final String STOCK_STATUS = "stockStatus";
+    private static final String PRICE = "price";
+
+    private static final DoubleRange[] PRICE_BUCKETS = {
+            new DoubleRange("0-10", 0, true, 10, false),
+            new DoubleRange("10-50", 10, true, 50, false),
+            new DoubleRange("50-100", 50, true, 100, false),
+            new DoubleRange("100-500", 100, true, 500, false),
+            new DoubleRange("500+", 500, true, Double.POSITIVE_INFINITY, true)
+    };
+
+    // Lucene collects every hit up to page * size; deeper pages belong in the list endpoint
+    private static final int MAX_RESULT_WINDOW = 10_000;
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final Path indexPath;
+    private final int batchSize;
+    private final long commitIntervalMs;
+
+    private final BlockingQueue<PendingUpdate> queue;
+    // Set when a change could not be queued or the index starts empty; the indexer
+    // then reindexes everything, retrying until it succeeds
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    // Held while documents are written or committed, so a full reindex never
+    // interleaves with incremental updates and is only made visible once complete
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Timer lagTimer;
+    private final Timer reindexTimer;
+
+    // Replaced after a rollback, which closes the writer
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private volatile FacetState facetState;
+    private volatile boolean running;
+    private Thread indexerThread;
+
+    public ProductFullTextIndex(ProductRepository productRepository, MeterRegistry meterRegistry,
+            @Value("${app.search.lucene.enabled:false}") boolean enabled,
+            @Value("${app.search.lucene.path:data/product-index}") String indexPath,
+            @Value("${app.search.lucene.batch-size:500}") int batchSize,
+            @Value("${app.search.lucene.commit-interval-ms:30000}") long commitIntervalMs,
+            @Value("${app.search.lucene.queue-capacity:100000}") int queueCapacity) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Search index queue capacity must be positive");
+        }
+        this.productRepository = productRepository;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.enabled = enabled;
+        this.indexPath = Path.of(indexPath);
+        this.batchSize = batchSize;
+        this.commitIntervalMs = commitIntervalMs;
+
+        Gauge.builder("product.search.lucene.queue.depth", queue, BlockingQueue::size)
+                .description("Product changes waiting to be indexed")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("product.search.lucene.index.lag")
+                .description("Time from a product change committing to it being searchable")
+                .register(meterRegistry);
+        this.reindexTimer = meterRegistry.timer("product.search.lucene.reindex");
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        open();
+        if (writer.getDocStats().numDocs == 0) {
+            overflowed.set(true);
+        }
+
+        running = true;
+        indexerThread = new Thread(this::indexLoop, "product-search-indexer");
+        indexerThread.setDaemon(true);
+        indexerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        indexerThread.interrupt();
+        try {
+            indexerThread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // A running reindex sees running == false and rolls back at its next batch
+        writeLock.lock();
+        try {
+            searcherManager.close();
+            // close() commits; anything still queued is picked up by the next reindex
+            if (writer.isOpen()) {
+                writer.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Product search index closed with {} changes pending", queue.size());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int pendingChanges() {
+        return queue.size();
+    }
+
+    /**
+     * Queue a product for (re)indexing once the current transaction commits.
+     * Deleted products are removed from the index by the same path.
+     */
+    public void onChange(UUID productId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> enqueue(PendingUpdate.product(productId, System.nanoTime())));
+    }
+
+    public void onChanges(Iterable<UUID> productIds) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            long now = System.nanoTime();
+            for (UUID productId : productIds) {
+                enqueue(PendingUpdate.product(productId, now));
+            }
+        });
+    }
+
+    public void onSpaceDeleted(UUID spaceId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> enqueue(PendingUpdate.space(spaceId, System.nanoTime())));
+    }
+
+    private void enqueue(PendingUpdate update) {
+        if (!queue.offer(update) && overflowed.compareAndSet(false, true)) {
+            log.warn("Product search index queue is full, a full reindex will follow");
+        }
+    }
+
+    /**
+     * Rebuild every document from the database. Searches keep seeing the previous
+     * index until the rebuild is committed; on failure the index is rolled back
+     * to it.
+     */
+    public long reindexAll() {
+        if (!enabled) {
+            throw new IllegalStateException("Full-text search is not enabled");
+        }
+        writeLock.lock();
+        long started = System.nanoTime();
+        try {
+            // Incremental updates made so far must survive a rollback
+            writer.commit();
+            try {
+                long indexed = rebuild();
+                log.info("Product search index rebuilt with {} products", indexed);
+                return indexed;
+            } catch (IOException | RuntimeException e) {
+                rollback();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Product search reindex failed", e);
+        } finally {
+            reindexTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            writeLock.unlock();
+        }
+    }
+
+    // Caller holds writeLock
+    private long rebuild() throws IOException {
+        writer.deleteAll();
+        long indexed = 0;
+        UUID afterId = null;
+        List<Products> batch;
+        do {
+            if (!running) {
+                throw new IllegalStateException("Product search index is shutting down");
+            }
+            batch = productRepository.findNextBatchAfter(afterId, PageRequest.of(0, batchSize));
+            for (Products product : batch) {
+                writer.addDocument(toDocument(product));
+            }
+            indexed += batch.size();
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == batchSize);
+
+        writer.commit();
+        searcherManager.maybeRefreshBlocking();
+        return indexed;
+    }
+
+    // Drop everything since the last commit and reopen on it. Caller holds writeLock.
+    private void rollback() {
+        SearcherManager previous = searcherManager;
+        try {
+            writer.rollback();
+            previous.close();
+            if (running) {
+                open();
+            }
+        } catch (IOException e) {
+            log.error("Failed to reopen the product search index after a rollback", e);
+        }
+    }
+
+    private void open() throws IOException {
+        writer = new IndexWriter(FSDirectory.open(indexPath),
+                new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    // Optional periodic rebuild for multi-node deployments; disabled with "-"
+    @Scheduled(cron = "${app.search.lucene.reindex-cron:-}")
+    public void scheduledReindex() {
+        if (enabled) {
+            reindexAll();
+        }
+    }
+
+    /**
+     * Search one space. Returns product ids best match first, the total hit count
+     * and facet counts over all hits.
+     */
+    public Result search(UUID spaceId, String text, String category, StockStatus stockStatus,
+            Double minPrice, Double maxPrice, int page, int size) {
+        if (!enabled) {
+            throw new IllegalStateException("Full-text search is not enabled");
+        }
+        if ((long) (page + 1) * size > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Search results are limited to the first " + MAX_RESULT_WINDOW
+                    + " matches, narrow the query");
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(SPACE_ID, spaceId.toString())), Occur.FILTER);
+        if (text != null && !text.isBlank()) {
+            query.add(parse(text), Occur.MUST);
+        }
+        if (category != null && !category.isBlank()) {
+            query.add(new TermQuery(new Term(CATEGORY, category.trim())), Occur.FILTER);
+        }
+        if (stockStatus != null) {
+            query.add(new TermQuery(new Term(STOCK_STATUS, stockStatus.name())), Occur.FILTER);
+        }
+        if (minPrice != null || maxPrice != null) {
+            query.add(DoublePoint.newRangeQuery(PRICE,
+                    minPrice != null ? minPrice : Double.NEGATIVE_INFINITY,
+                    maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY), Occur.FILTER);
+        }
+
+        SearcherManager manager = searcherManager;
+        IndexSearcher searcher;
+        try {
+            searcher = manager.acquire();
+        } catch (IOException e) {
+            throw new IllegalStateException("Product search index unavailable", e);
+        }
+        try {
+            FacetsCollectorManager.FacetsResult result = FacetsCollectorManager.search(
+                    searcher, query.build(), (page + 1) * size, new FacetsCollectorManager());
+            TopDocs topDocs = result.topDocs();
+
+            List<UUID> ids = new ArrayList<>(size);
+            ScoreDoc[] hits = topDocs.scoreDocs;
+            for (int i = page * size; i < hits.length; i++) {
+                ids.add(UUID.fromString(searcher.storedFields().document(hits[i].doc).get(ID)));
+            }
+
+            FacetState state = facetState(searcher.getIndexReader());
+            Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+            facets.put(CATEGORY, counts(state.category() == null ? null
+                    : new StringValueFacetCounts(state.category(), result.facetsCollector())
+                            .getTopChildren(20, CATEGORY)));
+            facets.put(STOCK_STATUS, counts(state.stockStatus() == null ? null
+                    : new StringValueFacetCounts(state.stockStatus(), result.facetsCollector())
+                            .getAllChildren(STOCK_STATUS)));
+            facets.put(PRICE, counts(new DoubleRangeFacetCounts(PRICE, result.facetsCollector(), PRICE_BUCKETS)
+                    .getAllChildren(PRICE)));
+
+            return new Result(ids, topDocs.totalHits.value, facets);
+        } catch (IOException e) {
+            throw new IllegalStateException("Product search failed", e);
+        } finally {
+            try {
+                manager.release(searcher);
+            } catch (IOException e) {
+                log.warn("Failed to release product searcher", e);
+            }
+        }
+    }
+
+    private Query parse(String text) {
+        Map<String, Float> weights = new HashMap<>();
+        weights.put(NAME, 3f);
+        weights.put(SKU, 2f);
+        weights.put(CATEGORY_TEXT, 1f);
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, weights);
+        parser.setDefaultOperator(Occur.MUST);
+        return parser.parse(text);
+    }
+
+    private void indexLoop() {
+        long lastCommit = System.nanoTime();
+        List<PendingUpdate> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                if (overflowed.getAndSet(false)) {
+                    // Everything queued so far is covered by the reindex
+                    queue.clear();
+                    try {
+                        reindexAll();
+                        lastCommit = System.nanoTime();
+                    } catch (RuntimeException e) {
+                        overflowed.set(true);
+                        log.error("Product search reindex failed, retrying", e);
+                        TimeUnit.SECONDS.sleep(10);
+                    }
+                    continue;
+                }
+                PendingUpdate first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    apply(batch);
+                    batch.clear();
+                }
+                if (System.nanoTime() - lastCommit > TimeUnit.MILLISECONDS.toNanos(commitIntervalMs)) {
+                    commit();
+                    lastCommit = System.nanoTime();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Product search indexing failed for {} changes", batch.size(), e);
+                batch.clear();
+            }
+        }
+    }
+
+    // Never lands in the middle of a reindex
+    private void commit() throws IOException {
+        writeLock.lock();
+        try {
+            writer.commit();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void apply(List<PendingUpdate> batch) throws IOException {
+        Set<UUID> ids = new LinkedHashSet<>();
+        Set<UUID> deletedSpaces = new LinkedHashSet<>();
+        for (PendingUpdate update : batch) {
+            (update.space() ? deletedSpaces : ids).add(update.id());
+        }
+
+        Map<UUID, Products> current = new HashMap<>();
+        for (Products product : productRepository.findAllById(ids)) {
+            current.put(product.getId(), product);
+        }
+
+        writeLock.lock();
+        try {
+            for (UUID id : ids) {
+                Products product = current.get(id);
+                if (product == null) {
+                    writer.deleteDocuments(new Term(ID, id.toString()));
+                } else {
+                    writer.updateDocument(new Term(ID, id.toString()), toDocument(product));
+                }
+            }
+            for (UUID spaceId : deletedSpaces) {
+                writer.deleteDocuments(new Term(SPACE_ID, spaceId.toString()));
+            }
+            searcherManager.maybeRefreshBlocking();
+        } finally {
+            writeLock.unlock();
+        }
+
+        long now = System.nanoTime();
+        for (PendingUpdate update : batch) {
+            lagTimer.record(now - update.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Document toDocument(Products product) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, product.getId().toString(), Field.Store.YES));
+        doc.add(new StringField(SPACE_ID, product.getSpace().getId().toString(), Field.Store.NO));
+        doc.add(new TextField(NAME, product.getName(), Field.Store.NO));
+        if (product.getSku() != null) {
+            doc.add(new TextField(SKU, product.getSku(), Field.Store.NO));
+        }
+        if (product.getCategory() != null) {
+            doc.add(new TextField(CATEGORY_TEXT, product.getCategory(), Field.Store.NO));
+            doc.add(new StringField(CATEGORY, product.getCategory(), Field.Store.NO));
+            doc.add(new SortedSetDocValuesField(CATEGORY, new BytesRef(product.getCategory())));
+        }
+        String status = StockStatus.of(product.getCurrentStock(), product.getMinimumQuantity()).name();
+        doc.add(new StringField(STOCK_STATUS, status, Field.Store.NO));
+        doc.add(new SortedSetDocValuesField(STOCK_STATUS, new BytesRef(status)));
+        doc.add(new DoublePoint(PRICE, product.getPrice()));
+        doc.add(new DoubleDocValuesField(PRICE, product.getPrice()));
+        return doc;
+    }
+
+    // Ordinal maps are per reader, so rebuild them only when the searcher was refreshed
+    private FacetState facetState(IndexReader reader) throws IOException {
+        FacetState state = facetState;
+        if (state == null || state.reader() != reader) {
+            state = new FacetState(reader, docValuesState(reader, CATEGORY), docValuesState(reader, STOCK_STATUS));
+            facetState = state;
+        }
+        return state;
+    }
+
+    private static StringDocValuesReaderState docValuesState(IndexReader reader, String field) throws IOException {
+        // The field has no doc values at all until one product sets it
+        boolean present = reader.leaves().stream()
+                .anyMatch(leaf -> leaf.reader().getFieldInfos().fieldInfo(field) != null);
+        return present ? new StringDocValuesReaderState(reader, field) : null;
+    }
+
+    private static Map<String, Long> counts(FacetResult result) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (result != null) {
+            for (LabelAndValue entry : result.labelValues) {
+                counts.put(entry.label, entry.value.longValue());
+            }
+        }
+        return counts;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    public record Result(List<UUID> productIds, long totalHits, Map<String, Map<String, Long>> facets) {
+    }
+
+    // A changed product, or a deleted space whose documents all go
+    private record PendingUpdate(UUID id, boolean space, long enqueuedAt) {
+        static PendingUpdate product(UUID productId, long enqueuedAt) {
+            return new PendingUpdate(productId, false, enqueuedAt);
+        }
+
+        static PendingUpdate space(UUID spaceId, long enqueuedAt) {
+            return new PendingUpdate(spaceId, true, enqueuedAt);
+        }
+    }
+
+    private record FacetState(IndexReader reader, StringDocValuesReaderState category,
+            StringDocValuesReaderState stockStatus) {
+    }
+}
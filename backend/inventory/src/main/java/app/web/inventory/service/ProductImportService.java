@@ -0,0 +1,530 @@
+package app.web.inventory.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.web.inventory.dto.product.ImportJobDto;
+import app.web.inventory.dto.product.ImportJobDto.RowError;
+import app.web.inventory.exception.ResourceNotFoundException;
+import app.web.inventory.model.Products;
+import app.web.inventory.model.enums.ProductFileFormat;
+import app.web.inventory.model.enums.SpaceRole;
+import app.web.inventory.repository.ProductRepository;
+import app.web.inventory.util.CsvUtil;
+import app.web.inventory.util.RequestUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk product import from CSV or NDJSON uploads.
+ *
+ * The upload is copied to a temporary file and parsed on a background thread one
+ * row at a time, so memory use does not depend on the file size. Valid rows are
+ * inserted in JDBC batches, each batch in its own transaction together with its
+ * space counter update. When a batch fails its rows are retried one by one so
+ * the error report can name the offending rows. The whole import writes a single
+ * summary audit entry.
+ *
+ * Job state is kept in memory on the node that accepted the upload and finished
+ * jobs are forgotten after app.import.job-retention-minutes.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ProductRepository productRepository;
+    private final SpaceService spaceService;
+    private final AuditLogService auditLogService;
+    private final SpaceInventoryStatsService statsService;
+    private final ProductSearchIndex searchIndex;
+    private final ProductSuggestIndex suggestIndex;
+    private final ProductFullTextIndex fullTextIndex;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final Duration jobRetention;
+    private final ThreadPoolExecutor executor;
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final Timer importTimer;
+
+    public ProductImportService(ProductRepository productRepository, SpaceService spaceService,
+            AuditLogService auditLogService, SpaceInventoryStatsService statsService,
+            ProductSearchIndex searchIndex, ProductSuggestIndex suggestIndex, ProductFullTextIndex fullTextIndex,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${app.import.batch-size:1000}") int batchSize,
+            @Value("${app.import.max-concurrent-jobs:2}") int maxConcurrentJobs,
+            @Value("${app.import.max-queued-jobs:20}") int maxQueuedJobs,
+            @Value("${app.import.job-retention-minutes:60}") long jobRetentionMinutes) {
+        if (batchSize <= 0 || maxConcurrentJobs <= 0 || maxQueuedJobs <= 0) {
+            throw new IllegalArgumentException("Import batch size and job limits must be positive");
+        }
+        this.productRepository = productRepository;
+        this.spaceService = spaceService;
+        this.auditLogService = auditLogService;
+        this.statsService = statsService;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.fullTextIndex = fullTextIndex;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.jobRetention = Duration.ofMinutes(jobRetentionMinutes);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueuedJobs), runnable -> {
+                    Thread thread = new Thread(runnable, "product-import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("product.import.jobs.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Product imports currently running")
+                .register(meterRegistry);
+        Gauge.builder("product.import.jobs.queued", executor, e -> e.getQueue().size())
+                .description("Product imports waiting for a worker")
+                .register(meterRegistry);
+        this.importTimer = Timer.builder("product.import.duration")
+                .description("Time spent running one product import")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Running imports stop at their next batch; committed batches stay
+        executor.shutdownNow();
+    }
+
+    /**
+     * Accept an upload for import into the space. Access is checked and the file
+     * copied here, on the request thread; parsing and inserting happen later.
+     * The format defaults to the file extension, then CSV.
+     */
+    public ImportJobDto submit(UUID userId, UUID spaceId, MultipartFile file, String format) {
+        checkWriteAccess(spaceId, userId);
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Import file is required");
+        }
+
+        String fileName = file.getOriginalFilename();
+        ProductFileFormat fileFormat = resolveFormat(format, fileName);
+        boolean gzip = fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".gz");
+
+        Path tempFile;
+        try {
+            tempFile = Files.createTempFile("product-import-", "." + fileFormat.getExtension());
+            file.transferTo(tempFile);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not store the uploaded file", e);
+        }
+
+        Job job = new Job(UUID.randomUUID(), spaceId, userId, fileFormat, fileName, tempFile, gzip,
+                RequestUtil.getClientIpAddress(), RequestUtil.getUserAgent());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            deleteQuietly(tempFile);
+            throw new IllegalStateException("Too many imports in progress, try again later");
+        }
+        return job.toDto();
+    }
+
+    public ImportJobDto getJob(UUID userId, UUID spaceId, UUID jobId) {
+        if (!spaceService.hasAccessToSpace(spaceId, userId)) {
+            throw new ResourceNotFoundException("Space not found or access denied");
+        }
+        Job job = jobs.get(jobId);
+        if (job == null || !job.spaceId.equals(spaceId)) {
+            throw new ResourceNotFoundException("Import job not found");
+        }
+        return job.toDto();
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeFinishedJobs() {
+        Instant cutoff = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private void run(Job job) {
+        long started = System.currentTimeMillis();
+        job.status = "RUNNING";
+        try (BufferedReader reader = open(job)) {
+            if (job.format == ProductFileFormat.CSV) {
+                importCsv(job, reader);
+            } else {
+                importNdjson(job, reader);
+            }
+            job.status = "COMPLETED";
+        } catch (Exception e) {
+            log.warn("Product import {} into space {} failed after {} rows", job.id, job.spaceId,
+                    job.processedRows, e);
+            job.status = "FAILED";
+            job.message = e instanceof IOException || e instanceof IllegalArgumentException
+                    ? e.getMessage()
+                    : "Import stopped unexpectedly";
+        } finally {
+            deleteQuietly(job.file);
+            searchIndex.onBulkChange(job.spaceId);
+            suggestIndex.onBulkChange(job.spaceId);
+            job.finishedAt = Instant.now();
+        }
+
+        long durationMs = System.currentTimeMillis() - started;
+        importTimer.record(durationMs, TimeUnit.MILLISECONDS);
+        log.info("Product import {} into space {}: {} rows, {} imported, {} failed in {} ms", job.id, job.spaceId,
+                job.processedRows, job.importedRows, job.failedRows, durationMs);
+
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("jobId", job.id);
+        details.put("fileName", job.fileName);
+        details.put("format", job.format.name());
+        details.put("status", job.status);
+        details.put("totalRows", job.processedRows);
+        details.put("imported", job.importedRows);
+        details.put("failed", job.failedRows);
+        details.put("durationMs", durationMs);
+        details.put("action", "Products imported");
+        auditLogService.logAction(job.userId, "SPACE", job.spaceId, "PRODUCT_IMPORT", details,
+                job.ipAddress, job.userAgent, job.spaceId, "SPACE");
+    }
+
+    private void importCsv(Job job, BufferedReader reader) throws IOException {
+        List<String> header = CsvUtil.readRecord(reader);
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Tolerate a UTF-8 byte order mark on the first column
+            String column = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(column, i);
+        }
+        if (!columns.containsKey("name")) {
+            throw new IllegalArgumentException("CSV header must contain a name column");
+        }
+
+        List<Products> batch = new ArrayList<>(batchSize);
+        List<Long> rowNumbers = new ArrayList<>(batchSize);
+        long row = 0;
+        List<String> record;
+        while ((record = CsvUtil.readRecord(reader)) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            row++;
+            Map<String, String> values = new HashMap<>();
+            for (Map.Entry<String, Integer> column : columns.entrySet()) {
+                int index = column.getValue();
+                values.put(column.getKey(), index < record.size() ? record.get(index) : null);
+            }
+            accept(job, row, values, batch, rowNumbers);
+        }
+        flush(job, batch, rowNumbers);
+    }
+
+    private void importNdjson(Job job, BufferedReader reader) throws IOException {
+        List<Products> batch = new ArrayList<>(batchSize);
+        List<Long> rowNumbers = new ArrayList<>(batchSize);
+        long row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            row++;
+            Map<String, String> values = new HashMap<>();
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                if (!node.isObject()) {
+                    throw new IllegalArgumentException("Row must be a JSON object");
+                }
+                node.fields().forEachRemaining(field -> values.put(field.getKey().toLowerCase(Locale.ROOT),
+                        field.getValue().isNull() ? null : field.getValue().asText()));
+            } catch (IOException | IllegalArgumentException e) {
+                job.recordError(row, "Invalid JSON: " + e.getMessage());
+                continue;
+            }
+            accept(job, row, values, batch, rowNumbers);
+        }
+        flush(job, batch, rowNumbers);
+    }
+
+    // Validate one row and queue it, writing the batch once it is full
+    private void accept(Job job, long row, Map<String, String> values, List<Products> batch,
+            List<Long> rowNumbers) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new IllegalStateException("Import interrupted");
+        }
+        try {
+            batch.add(toProduct(values));
+            rowNumbers.add(row);
+        } catch (IllegalArgumentException e) {
+            job.recordError(row, e.getMessage());
+        }
+        if (batch.size() >= batchSize) {
+            flush(job, batch, rowNumbers);
+        }
+    }
+
+    private void flush(Job job, List<Products> batch, List<Long> rowNumbers) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<UUID> inserted = new ArrayList<>(batch.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                productRepository.batchInsert(job.spaceId, batch);
+                statsService.recordCreates(job.spaceId, batch);
+            });
+            batch.forEach(product -> inserted.add(product.getId()));
+        } catch (RuntimeException batchFailure) {
+            log.debug("Import batch failed, retrying {} rows one by one", batch.size(), batchFailure);
+            for (int i = 0; i < batch.size(); i++) {
+                List<Products> single = List.of(batch.get(i));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        productRepository.batchInsert(job.spaceId, single);
+                        statsService.recordCreates(job.spaceId, single);
+                    });
+                    inserted.add(single.get(0).getId());
+                } catch (RuntimeException e) {
+                    job.addError(rowNumbers.get(i), e instanceof DuplicateKeyException
+                            ? "A product with this SKU already exists in this space"
+                            : "Could not be saved: " + rootMessage(e));
+                }
+            }
+        }
+
+        fullTextIndex.onChanges(inserted);
+        job.processed(batch.size(), inserted.size());
+        batch.clear();
+        rowNumbers.clear();
+    }
+
+    // Same rules as a single create, so an import never stores what the API would reject
+    private Products toProduct(Map<String, String> values) {
+        String name = blankToNull(values.get("name"));
+        Double price = parseDouble(values.get("price"), "Price");
+        Integer currentStock = parseInteger(values.get("currentstock"), "Current stock");
+        ProductService.validateNewProduct(name, price, currentStock);
+
+        Integer minimumQuantity = parseInteger(values.get("minimumquantity"), "Minimum quantity");
+        Integer maximumQuantity = parseInteger(values.get("maximumquantity"), "Maximum quantity");
+        if (minimumQuantity != null && minimumQuantity < 0) {
+            throw new IllegalArgumentException("Minimum quantity must be non-negative");
+        }
+        if (maximumQuantity != null && maximumQuantity < 0) {
+            throw new IllegalArgumentException("Maximum quantity must be non-negative");
+        }
+        if (minimumQuantity != null && maximumQuantity != null && maximumQuantity < minimumQuantity) {
+            throw new IllegalArgumentException("Maximum quantity must be greater than or equal to minimum quantity");
+        }
+
+        Products product = new Products();
+        product.setId(UUID.randomUUID());
+        product.setName(checkLength(name.trim(), 255, "Product name must be between 1 and 255 characters"));
+        product.setSku(checkLength(ProductService.normalizeOptional(values.get("sku")), 100,
+                "SKU must not exceed 100 characters"));
+        product.setCategory(checkLength(ProductService.normalizeOptional(values.get("category")), 100,
+                "Category must not exceed 100 characters"));
+        product.setImageUrl(checkLength(ProductService.normalizeOptional(values.get("imageurl")), 2048,
+                "Image URL must not exceed 2048 characters"));
+        product.setPrice(price);
+        product.setCurrentStock(currentStock);
+        product.setMinimumQuantity(minimumQuantity);
+        product.setMaximumQuantity(maximumQuantity);
+        Instant now = Instant.now();
+        product.setCreatedAt(now);
+        product.setUpdatedAt(now);
+        return product;
+    }
+
+    private void checkWriteAccess(UUID spaceId, UUID userId) {
+        SpaceRole role = spaceService.getUserRoleInSpace(spaceId, userId);
+        // VIEWER can't write, PENDING can't do anything
+        if (role == SpaceRole.VIEWER || role == SpaceRole.PENDING) {
+            throw new SecurityException("Insufficient permissions to modify products");
+        }
+    }
+
+    private static ProductFileFormat resolveFormat(String format, String fileName) {
+        if (format != null && !format.isBlank()) {
+            return ProductFileFormat.from(format);
+        }
+        String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") ? ProductFileFormat.NDJSON : ProductFileFormat.CSV;
+    }
+
+    private static BufferedReader open(Job job) throws IOException {
+        InputStream in = Files.newInputStream(job.file);
+        if (job.gzip) {
+            in = new GZIPInputStream(in, 64 * 1024);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private static Double parseDouble(String value, String field) {
+        String text = blankToNull(value);
+        if (text == null) {
+            return null;
+        }
+        try {
+            double parsed = Double.parseDouble(text);
+            if (!Double.isFinite(parsed)) {
+                throw new NumberFormatException();
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a number");
+        }
+    }
+
+    private static Integer parseInteger(String value, String field) {
+        String text = blankToNull(value);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a whole number");
+        }
+    }
+
+    private static String checkLength(String value, int max, String message) {
+        if (value != null && value.length() > max) {
+            throw new IllegalArgumentException(message);
+        }
+        return value;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}", file, e);
+        }
+    }
+
+    /**
+     * Progress of one import. Counters are written only by the job's worker
+     * thread and read by status requests.
+     */
+    private static final class Job {
+        final UUID id;
+        final UUID spaceId;
+        final UUID userId;
+        final ProductFileFormat format;
+        final String fileName;
+        final Path file;
+        final boolean gzip;
+        final String ipAddress;
+        final String userAgent;
+        final Instant submittedAt = Instant.now();
+
+        volatile String status = "QUEUED";
+        volatile String message;
+        volatile long processedRows;
+        volatile long importedRows;
+        volatile long failedRows;
+        volatile Instant finishedAt;
+        private final List<RowError> errors = new ArrayList<>(); // guarded by this
+        private boolean errorsTruncated; // guarded by this
+
+        Job(UUID id, UUID spaceId, UUID userId, ProductFileFormat format, String fileName, Path file,
+                boolean gzip, String ipAddress, String userAgent) {
+            this.id = id;
+            this.spaceId = spaceId;
+            this.userId = userId;
+            this.format = format;
+            this.fileName = fileName;
+            this.file = file;
+            this.gzip = gzip;
+            this.ipAddress = ipAddress;
+            this.userAgent = userAgent;
+        }
+
+        // A row rejected before it reached the database
+        synchronized void recordError(long row, String message) {
+            processedRows++;
+            failedRows++;
+            addError(row, message);
+        }
+
+        // Counted by processed(); only the report entry is added here
+        synchronized void addError(long row, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(row, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        synchronized void processed(int rows, int imported) {
+            processedRows += rows;
+            importedRows += imported;
+            failedRows += rows - imported;
+        }
+
+        synchronized ImportJobDto toDto() {
+            return new ImportJobDto(id, spaceId, status, format.name(), fileName, processedRows, importedRows,
+                    failedRows, new ArrayList<>(errors), errorsTruncated, message, submittedAt, finishedAt);
+        }
+    }
+}
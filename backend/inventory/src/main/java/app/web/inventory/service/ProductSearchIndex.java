@@ -0,0 +1,265 @@
+package app.web.inventory.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import app.web.inventory.repository.ProductRepository;
+import app.web.inventory.util.CollationUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory trigram index over product names, one per space. A space is
+ * loaded on its first search and kept current from product mutations; the
+ * least recently searched spaces are evicted once the indexed product count
+ * exceeds the budget. Searches answer the same question as
+ * LOWER(name) LIKE '%term%' but only return candidate ids, so callers still
+ * hydrate (and access-check) the rows they need from the database. Names and
+ * terms are compared without case and accents, as the LIKE fallback does under
+ * the default utf8mb4_0900_ai_ci collation, so "cafe" finds "Café" either way.
+ *
+ * A load reads the space in its own short transaction, so its snapshot is
+ * never older than the generation it captured beforehand; a load that raced
+ * with a mutation is returned once but not installed.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate loadTransaction;
+    private final SpaceGenerations generations = new SpaceGenerations();
+    private final int maxProducts;
+    private final int maxCandidates;
+
+    // guarded by this; access order gives LRU eviction
+    private final LinkedHashMap<UUID, SpaceIndex> spaces = new LinkedHashMap<>(16, 0.75f, true);
+    private long indexedProducts; // guarded by this
+
+    public ProductSearchIndex(ProductRepository productRepository, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.search.index.max-products:200000}") int maxProducts,
+            @Value("${app.search.index.max-candidates:1000}") int maxCandidates) {
+        this.productRepository = productRepository;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+        this.maxProducts = maxProducts;
+        this.maxCandidates = maxCandidates;
+        Gauge.builder("product.search.index.products", this, ProductSearchIndex::indexedProducts)
+                .register(meterRegistry);
+        Gauge.builder("product.search.index.spaces", this, ProductSearchIndex::indexedSpaces)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ids of the space's products whose name contains the term, ignoring case
+     * and accents.
+     * Returns null when more than max-candidates products match: an id list
+     * that long is no cheaper for the database than the LIKE scan itself.
+     */
+    public Set<UUID> search(UUID spaceId, String term) {
+        SpaceIndex index = getOrLoad(spaceId);
+        String query = normalize(term);
+        Set<UUID> matches;
+        synchronized (index) {
+            matches = index.search(query);
+        }
+        return matches.size() > maxCandidates ? null : matches;
+    }
+
+    // Product created or renamed
+    public void onSave(UUID spaceId, UUID productId, String name) {
+        afterCommit(() -> apply(spaceId, index -> index.put(productId, normalize(name))));
+    }
+
+    public void onDelete(UUID spaceId, UUID productId) {
+        afterCommit(() -> apply(spaceId, index -> index.remove(productId)));
+    }
+
+    // Many products changed at once (bulk import or sync): drop the space and let
+    // the next lookup reload it, rather than patching it product by product
+    public void onBulkChange(UUID spaceId) {
+        afterCommit(() -> evict(spaceId));
+    }
+
+    public synchronized void evict(UUID spaceId) {
+        generations.bump(spaceId);
+        SpaceIndex removed = spaces.remove(spaceId);
+        if (removed != null) {
+            indexedProducts -= removed.size();
+        }
+    }
+
+    public synchronized long indexedProducts() {
+        return indexedProducts;
+    }
+
+    public synchronized int indexedSpaces() {
+        return spaces.size();
+    }
+
+    private SpaceIndex getOrLoad(UUID spaceId) {
+        long generation;
+        synchronized (this) {
+            SpaceIndex existing = spaces.get(spaceId);
+            if (existing != null) {
+                return existing;
+            }
+            generation = generations.current(spaceId);
+        }
+
+        SpaceIndex index = new SpaceIndex();
+        for (Object[] row : loadTransaction.execute(status -> productRepository.findIdAndNameBySpaceId(spaceId))) {
+            index.put((UUID) row[0], normalize((String) row[1]));
+        }
+
+        synchronized (this) {
+            // A concurrent load may have won, and a mutation committed after our
+            // snapshot may be missing from it: only install a clean, first result
+            SpaceIndex existing = spaces.get(spaceId);
+            if (existing != null) {
+                return existing;
+            }
+            if (generations.current(spaceId) == generation) {
+                spaces.put(spaceId, index);
+                indexedProducts += index.size();
+                evictColdSpaces(spaceId);
+            }
+        }
+        return index;
+    }
+
+    private synchronized void apply(UUID spaceId, Consumer<SpaceIndex> mutation) {
+        generations.bump(spaceId);
+        SpaceIndex index = spaces.get(spaceId);
+        if (index == null) {
+            return;
+        }
+        // Lock order is always this, then the space index
+        synchronized (index) {
+            indexedProducts -= index.size();
+            mutation.accept(index);
+            indexedProducts += index.size();
+        }
+        evictColdSpaces(spaceId);
+    }
+
+    // Caller holds this; never evicts the space that was just touched
+    private void evictColdSpaces(UUID keep) {
+        Iterator<Map.Entry<UUID, SpaceIndex>> it = spaces.entrySet().iterator();
+        while (indexedProducts > maxProducts && it.hasNext()) {
+            Map.Entry<UUID, SpaceIndex> eldest = it.next();
+            if (!eldest.getKey().equals(keep)) {
+                indexedProducts -= eldest.getValue().size();
+                it.remove();
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return CollationUtil.fold(value);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Posting lists keyed by trigram, packed as three UTF-16 chars in a long.
+     * Not thread-safe; callers synchronize on the instance.
+     */
+    private static class SpaceIndex {
+        private final Map<UUID, String> names = new HashMap<>();
+        private final Map<Long, Set<UUID>> postings = new HashMap<>();
+
+        int size() {
+            return names.size();
+        }
+
+        void put(UUID productId, String name) {
+            remove(productId);
+            names.put(productId, name);
+            for (long trigram : trigrams(name)) {
+                postings.computeIfAbsent(trigram, k -> new HashSet<>()).add(productId);
+            }
+        }
+
+        void remove(UUID productId) {
+            String old = names.remove(productId);
+            if (old == null) {
+                return;
+            }
+            for (long trigram : trigrams(old)) {
+                Set<UUID> ids = postings.get(trigram);
+                if (ids != null) {
+                    ids.remove(productId);
+                    if (ids.isEmpty()) {
+                        postings.remove(trigram);
+                    }
+                }
+            }
+        }
+
+        Set<UUID> search(String query) {
+            Set<UUID> result = new HashSet<>();
+            Collection<UUID> candidates = names.keySet();
+
+            // Terms shorter than a trigram are checked against every name
+            if (query.length() >= 3) {
+                Set<UUID> smallest = null;
+                for (long trigram : trigrams(query)) {
+                    Set<UUID> ids = postings.get(trigram);
+                    if (ids == null) {
+                        return result;
+                    }
+                    if (smallest == null || ids.size() < smallest.size()) {
+                        smallest = ids;
+                    }
+                }
+                candidates = smallest;
+            }
+
+            // Verifying the substring also rules out trigram false positives
+            for (UUID id : candidates) {
+                if (names.get(id).contains(query)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+
+        private static List<Long> trigrams(String value) {
+            List<Long> result = new ArrayList<>(Math.max(0, value.length() - 2));
+            for (int i = 0; i + 3 <= value.length(); i++) {
+                result.add(((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2));
+            }
+            return result;
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package app.web.inventory.service;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -15,31 +20,59 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import app.web.inventory.dto.pagination.CursorSlice;
 import app.web.inventory.dto.product.ProductDto;
+import app.web.inventory.dto.pagination.PaginationDto;
 import app.web.inventory.dto.product.ProductResponseDto;
+import app.web.inventory.dto.product.ProductSearchResultDto;
+import app.web.inventory.dto.product.ProductSuggestionDto;
+import app.web.inventory.dto.product.ProductSyncRequest.SyncItem;
+import app.web.inventory.dto.product.ProductSyncResultDto;
+import app.web.inventory.dto.stock.BatchStockRequest.StockDelta;
+import app.web.inventory.dto.stock.BatchStockResultDto;
+import app.web.inventory.exception.DuplicateResourceException;
 import app.web.inventory.exception.ResourceNotFoundException;
+import app.web.inventory.model.AuditLog;
 import app.web.inventory.model.Products;
 import app.web.inventory.model.Spaces;
 import app.web.inventory.model.enums.SpaceRole;
+import app.web.inventory.model.enums.StockStatus;
 import app.web.inventory.repository.ProductRepository;
-import app.web.inventory.repository.SpaceMemberRepository;
+import app.web.inventory.repository.ProductRepositoryCustom;
+import app.web.inventory.util.CollationUtil;
+import app.web.inventory.util.KeysetCursor;
 import app.web.inventory.util.RequestUtil;
+import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Transactional
+@Slf4j
 public class ProductService {
 
+    // Sort keys backed by a (space_id, key, id) index
+    private static final List<String> KEYSET_SORT_FIELDS = List.of("name", "price", "currentStock", "updatedAt");
+    // SKUs per IN list when loading the products a sync touches
+    private static final int SYNC_LOOKUP_CHUNK = 1000;
+
     private final ProductRepository productRepository;
     private final SpaceService spaceService;
     private final AuditLogService auditLogService;
-    private final SpaceMemberRepository spaceMemberRepository;
+    private final SpaceInventoryStatsService statsService;
+    private final ProductSearchIndex searchIndex;
+    private final ProductSuggestIndex suggestIndex;
+    private final ProductFullTextIndex fullTextIndex;
 
     public ProductService(ProductRepository productRepository, SpaceService spaceService,
-            AuditLogService auditLogService, SpaceMemberRepository spaceMemberRepository) {
+            AuditLogService auditLogService, SpaceInventoryStatsService statsService,
+            ProductSearchIndex searchIndex, ProductSuggestIndex suggestIndex,
+            ProductFullTextIndex fullTextIndex) {
         this.productRepository = productRepository;
         this.spaceService = spaceService;
         this.auditLogService = auditLogService;
-        this.spaceMemberRepository = spaceMemberRepository;
+        this.statsService = statsService;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.fullTextIndex = fullTextIndex;
     }
 
     /**
@@ -53,15 +86,8 @@ public class ProductService {
 
         Spaces space = spaceService.getSpaceById(spaceId);
 
-        if (name == null || name.trim().isEmpty()) {
-            throw new IllegalArgumentException("Product name is required");
-        }
-        if (price == null || price < 0) {
-            throw new IllegalArgumentException("Product price must be non-negative");
-        }
-        if (currentStock == null || currentStock < 0) {
-            throw new IllegalArgumentException("Current stock must be non-negative");
-        }
+        validateNewProduct(name, price, currentStock);
+        checkSkuAvailable(spaceId, normalizeOptional(sku), null);
 
         Products product = new Products();
         product.setSpace(space);
@@ -75,6 +101,10 @@ public class ProductService {
         product.setMaximumQuantity(maximumQuantity);
 
         Products savedProduct = productRepository.save(product);
+        statsService.recordCreate(spaceId, savedProduct);
+        searchIndex.onSave(spaceId, savedProduct.getId(), savedProduct.getName());
+        suggestIndex.onSave(spaceId, savedProduct.getId(), savedProduct.getName(), savedProduct.getSku());
+        fullTextIndex.onChange(savedProduct.getId());
 
         // Log the creation
         Map<String, Object> details = Map.of(
@@ -99,45 +129,53 @@ public class ProductService {
         return convertToResponseDto(savedProduct);
     }
 
-    // Get all accessible products for a user (owned + member spaces)
+    // Get all accessible products for a user (owned + member spaces) in one query,
+    // with each product's space already loaded
+    @Transactional(readOnly = true)
     public List<Products> getAccessibleProducts(UUID userId) {
         if (userId == null) {
             throw new IllegalArgumentException("User ID cannot be null");
         }
+        return productRepository.findAccessibleByUserId(userId);
+    }
 
-        // Get from owned spaces
-        List<Products> ownedProducts = productRepository.findByOwnerId(userId);
-
-        // Get from member spaces
-        List<Products> memberProducts = spaceMemberRepository
-                .findActiveSpacesByUserId(userId)
-                .stream()
-                .filter(sm -> !sm.getSpace().getOwner().getId().equals(userId))
-                .flatMap(sm -> productRepository.findBySpaceId(sm.getSpace().getId()).stream())
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<Products> getAccessibleLowStockProducts(UUID userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        return productRepository.findAccessibleLowStockByUserId(userId);
+    }
 
-        List<Products> all = new ArrayList<>(ownedProducts);
-        all.addAll(memberProducts);
-        return all;
+    // Price/stock statistics across accessible products, computed by the database:
+    // [minPrice, maxPrice, avgPrice, minStock, maxStock, avgStock, totalStock, productCount]
+    @Transactional(readOnly = true)
+    public Object[] getAccessibleProductStatistics(UUID userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        List<Object[]> rows = productRepository.aggregateAccessibleStatistics(userId);
+        return rows.isEmpty() ? new Object[8] : rows.get(0);
     }
 
-    public List<Products> getAccessibleLowStockProducts(UUID userId) {
-        return getAccessibleProducts(userId).stream()
-                .filter(this::isLowStock)
-                .collect(Collectors.toList());
+    // Inventory value and product count per space name: [spaceName, totalValue, productCount]
+    @Transactional(readOnly = true)
+    public List<Object[]> getAccessibleValueBySpaceName(UUID userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        return productRepository.aggregateAccessibleValueBySpaceName(userId);
     }
 
     /**
      * Get a specific product by ID within a specific space.
      */
+    @Transactional(readOnly = true)
     public ProductResponseDto getProductByIdInSpace(UUID productId, UUID spaceId, UUID ownerId) {
         checkReadAccess(spaceId, ownerId);
 
-        Products product = productRepository.findByIdAndUserHasAccess(productId, ownerId) // ← was userId
-                .filter(p -> p.getSpace().getId().equals(spaceId))
+        return productRepository.findResponseDtoByIdAndSpaceId(productId, spaceId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found in this space"));
-
-        return convertToResponseDto(product);
     }
 
     // Update product details in a specific space.
@@ -151,47 +189,31 @@ public class ProductService {
                 .filter(p -> p.getSpace().getId().equals(spaceId))
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found in this space or access denied"));
 
-        Map<String, Object> changes = new HashMap<>();
-        if (name != null && !name.trim().isEmpty() && !name.trim().equals(product.getName())) {
-            changes.put("oldName", product.getName());
-            changes.put("newName", name.trim());
-            product.setName(name.trim());
-        }
-        if (sku != null && !Objects.equals(normalizeOptional(sku), product.getSku())) {
-            changes.put("oldSku", product.getSku());
-            changes.put("newSku", normalizeOptional(sku));
-            product.setSku(normalizeOptional(sku));
-        }
-        if (category != null && !Objects.equals(normalizeOptional(category), product.getCategory())) {
-            changes.put("oldCategory", product.getCategory());
-            changes.put("newCategory", normalizeOptional(category));
-            product.setCategory(normalizeOptional(category));
-        }
-        if (imageUrl != null && !Objects.equals(normalizeOptional(imageUrl), product.getImageUrl())) {
-            changes.put("oldImageUrl", product.getImageUrl());
-            changes.put("newImageUrl", normalizeOptional(imageUrl));
-            product.setImageUrl(normalizeOptional(imageUrl));
-        }
-        if (price != null && price >= 0 && !price.equals(product.getPrice())) {
-            changes.put("oldPrice", product.getPrice());
-            changes.put("newPrice", price);
-            product.setPrice(price);
+        Double oldPrice = product.getPrice();
+        Integer oldMinimumQuantity = product.getMinimumQuantity();
+
+        if (sku != null) {
+            checkSkuAvailable(spaceId, normalizeOptional(sku), productId);
         }
-        if (minimumQuantity != null && minimumQuantity >= 0 && !minimumQuantity.equals(product.getMinimumQuantity())) {
-            changes.put("oldMinimumQuantity", product.getMinimumQuantity());
-            changes.put("newMinimumQuantity", minimumQuantity);
-            product.setMinimumQuantity(minimumQuantity);
+
+        Map<String, Object> changes = applyDetailChanges(product, name, sku, category, imageUrl, price,
+                minimumQuantity, maximumQuantity);
+        if (changes.containsKey("newName")) {
+            searchIndex.onSave(spaceId, productId, product.getName());
         }
-        if (maximumQuantity != null && maximumQuantity >= 0 && !maximumQuantity.equals(product.getMaximumQuantity())) {
-            changes.put("oldMaximumQuantity", product.getMaximumQuantity());
-            changes.put("newMaximumQuantity", maximumQuantity);
-            product.setMaximumQuantity(maximumQuantity);
+        if (changes.containsKey("newName") || changes.containsKey("newSku")) {
+            suggestIndex.onSave(spaceId, productId, product.getName(), product.getSku());
         }
 
         @SuppressWarnings("null")
         Products updatedProduct = productRepository.save(product);
+        statsService.recordChange(spaceId,
+                oldPrice, updatedProduct.getCurrentStock(), oldMinimumQuantity,
+                updatedProduct.getPrice(), updatedProduct.getCurrentStock(), updatedProduct.getMinimumQuantity());
 
         if (!changes.isEmpty()) {
+            fullTextIndex.onChange(productId);
+
             changes.put("productName", product.getName());
             changes.put("spaceName", product.getSpace().getName());
             changes.put("action", "Product details updated");
@@ -216,36 +238,35 @@ public class ProductService {
         Objects.requireNonNull(productId, "Product ID cannot be null");
         Objects.requireNonNull(spaceId, "Space ID cannot be null");
         Objects.requireNonNull(ownerId, "Owner ID cannot be null");
-        checkWriteAccess(spaceId, ownerId);
-
-        Products product = productRepository.findByIdAndUserHasAccess(productId, ownerId)
-                .filter(p -> p.getSpace().getId().equals(spaceId))
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found in this space or access denied"));
 
         if (quantity == null || quantity <= 0) {
             throw new IllegalArgumentException("Quantity to add must be positive");
         }
 
-        Integer oldStock = product.getCurrentStock();
-
-        int rowsUpdated = productRepository.incrementStock(productId, quantity);
+        // Write access, space scope and the maximum-quantity guard are all checked by
+        // the UPDATE itself, so a successful call is this statement plus one read-back.
+        int rowsUpdated = productRepository.incrementStockInSpace(productId, spaceId, ownerId, quantity);
 
         if (rowsUpdated == 0) {
-            // Re-fetch to report the up-to-date state in the error message.
-            Products current = productRepository.findById(productId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+            Products current = resolveStockConflict(productId, spaceId, ownerId);
             throw new IllegalArgumentException(
                     "Cannot exceed maximum quantity. Current: " + current.getCurrentStock() +
                             ", Requested: " + quantity + ", Maximum: " + current.getMaximumQuantity());
         }
 
-        Products updatedProduct = productRepository.findById(productId)
+        Products updatedProduct = productRepository.findByIdWithSpace(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
         Integer newStock = updatedProduct.getCurrentStock();
+        // The row stays locked until commit, so the old value follows from the delta
+        Integer oldStock = newStock - quantity;
+        statsService.recordChange(spaceId,
+                updatedProduct.getPrice(), oldStock, updatedProduct.getMinimumQuantity(),
+                updatedProduct.getPrice(), newStock, updatedProduct.getMinimumQuantity());
+        reindexIfStatusChanged(updatedProduct, oldStock);
 
         Map<String, Object> details = Map.of(
-                "productName", product.getName(),
-                "spaceName", product.getSpace().getName(),
+                "productName", updatedProduct.getName(),
+                "spaceName", updatedProduct.getSpace().getName(),
                 "oldStock", oldStock,
                 "newStock", newStock,
                 "quantityAdded", quantity,
@@ -271,35 +292,32 @@ public class ProductService {
         Objects.requireNonNull(productId, "Product ID cannot be null");
         Objects.requireNonNull(spaceId, "Space ID cannot be null");
         Objects.requireNonNull(ownerId, "Owner ID cannot be null");
-        checkWriteAccess(spaceId, ownerId);
-
-        Products product = productRepository.findByIdAndUserHasAccess(productId, ownerId)
-                .filter(p -> p.getSpace().getId().equals(spaceId))
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found in this space or access denied"));
 
         if (quantity == null || quantity <= 0) {
             throw new IllegalArgumentException("Quantity to remove must be positive");
         }
 
-        Integer oldStock = product.getCurrentStock();
-
-        // Atomic decrement at the DB level
-        int rowsUpdated = productRepository.decrementStock(productId, quantity);
+        // Atomic decrement at the DB level, guarded by write access and space scope
+        int rowsUpdated = productRepository.decrementStockInSpace(productId, spaceId, ownerId, quantity);
 
         if (rowsUpdated == 0) {
-            Products current = productRepository.findById(productId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+            Products current = resolveStockConflict(productId, spaceId, ownerId);
             throw new IllegalArgumentException(
                     "Insufficient stock. Current: " + current.getCurrentStock() + ", Requested: " + quantity);
         }
 
-        Products updatedProduct = productRepository.findById(productId)
+        Products updatedProduct = productRepository.findByIdWithSpace(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
         Integer newStock = updatedProduct.getCurrentStock();
+        Integer oldStock = newStock + quantity;
+        statsService.recordChange(spaceId,
+                updatedProduct.getPrice(), oldStock, updatedProduct.getMinimumQuantity(),
+                updatedProduct.getPrice(), newStock, updatedProduct.getMinimumQuantity());
+        reindexIfStatusChanged(updatedProduct, oldStock);
 
         Map<String, Object> details = Map.of(
-                "productName", product.getName(),
-                "spaceName", product.getSpace().getName(),
+                "productName", updatedProduct.getName(),
+                "spaceName", updatedProduct.getSpace().getName(),
                 "oldStock", oldStock,
                 "newStock", newStock,
                 "quantityRemoved", quantity,
@@ -318,6 +336,267 @@ public class ProductService {
         return convertToResponseDto(updatedProduct);
     }
 
+    /**
+     * Apply a batch of signed stock deltas in a space within one transaction.
+     * Each line is guarded like addStockInSpace/removeStockInSpace; a line that
+     * fails its guard is reported on its own and does not roll back the others.
+     */
+    public BatchStockResultDto applyStockBatch(UUID userId, UUID spaceId, List<StockDelta> operations) {
+        Objects.requireNonNull(userId, "User ID cannot be null");
+        Objects.requireNonNull(spaceId, "Space ID cannot be null");
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("At least one stock operation is required");
+        }
+
+        checkWriteAccess(spaceId, userId);
+        Spaces space = spaceService.getSpaceById(spaceId);
+
+        BatchStockResultDto.LineResult[] results = new BatchStockResultDto.LineResult[operations.size()];
+        List<Integer> batchIndexes = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            StockDelta op = operations.get(i);
+            if (op == null || op.getProductId() == null) {
+                results[i] = new BatchStockResultDto.LineResult(i, null, op != null ? op.getDelta() : null,
+                        false, "Product ID is required", null, null);
+            } else if (op.getDelta() == null || op.getDelta() == 0) {
+                results[i] = new BatchStockResultDto.LineResult(i, op.getProductId(), op.getDelta(),
+                        false, "Delta must be non-zero", null, null);
+            } else {
+                batchIndexes.add(i);
+            }
+        }
+
+        // Apply in product id order, so concurrent batches over the same products lock
+        // their rows in the same order and cannot deadlock. The sort is stable: lines
+        // for one product keep their request order, which their guards depend on.
+        batchIndexes.sort(Comparator.comparing(i -> operations.get(i).getProductId()));
+        List<UUID> batchProductIds = batchIndexes.stream().map(i -> operations.get(i).getProductId()).toList();
+        List<Integer> batchDeltas = batchIndexes.stream().map(i -> operations.get(i).getDelta()).toList();
+
+        int[] counts = batchProductIds.isEmpty()
+                ? new int[0]
+                : productRepository.batchApplyStockDeltas(spaceId, batchProductIds, batchDeltas);
+
+        // Read back the final state once, then walk the batch backwards to recover
+        // the stock before and after every line. The rows stay locked until commit.
+        Map<UUID, Products> products = productRepository
+                .findBySpaceIdAndIdIn(spaceId, new HashSet<>(batchProductIds))
+                .stream()
+                .collect(Collectors.toMap(Products::getId, p -> p));
+        Map<UUID, Integer> runningStock = new HashMap<>();
+        products.values().forEach(p -> runningStock.put(p.getId(), p.getCurrentStock()));
+
+        for (int j = batchIndexes.size() - 1; j >= 0; j--) {
+            int index = batchIndexes.get(j);
+            UUID productId = batchProductIds.get(j);
+            int delta = batchDeltas.get(j);
+            Products product = products.get(productId);
+
+            if (product == null) {
+                results[index] = new BatchStockResultDto.LineResult(index, productId, delta,
+                        false, "Product not found in this space", null, null);
+                continue;
+            }
+
+            int stockAfter = runningStock.get(productId);
+            if (counts[j] > 0) {
+                int stockBefore = stockAfter - delta;
+                runningStock.put(productId, stockBefore);
+                results[index] = new BatchStockResultDto.LineResult(index, productId, delta,
+                        true, delta > 0 ? "Stock added" : "Stock removed", stockBefore, stockAfter);
+            } else {
+                String message = delta > 0
+                        ? "Cannot exceed maximum quantity. Current: " + stockAfter + ", Requested: " + delta
+                                + ", Maximum: " + product.getMaximumQuantity()
+                        : "Insufficient stock. Current: " + stockAfter + ", Requested: " + (-delta);
+                results[index] = new BatchStockResultDto.LineResult(index, productId, delta,
+                        false, message, stockAfter, stockAfter);
+            }
+        }
+
+        // runningStock now holds each product's stock before the batch
+        for (Products product : products.values()) {
+            statsService.recordChange(spaceId,
+                    product.getPrice(), runningStock.get(product.getId()), product.getMinimumQuantity(),
+                    product.getPrice(), product.getCurrentStock(), product.getMinimumQuantity());
+            reindexIfStatusChanged(product, runningStock.get(product.getId()));
+        }
+
+        String ipAddress = RequestUtil.getClientIpAddress();
+        String userAgent = RequestUtil.getUserAgent();
+        List<AuditLog> auditLogs = new ArrayList<>();
+        int succeeded = 0;
+        for (BatchStockResultDto.LineResult result : results) {
+            if (!result.isSuccess()) {
+                continue;
+            }
+            succeeded++;
+            boolean added = result.getDelta() > 0;
+            Map<String, Object> details = Map.of(
+                    "productName", products.get(result.getProductId()).getName(),
+                    "spaceName", space.getName(),
+                    "oldStock", result.getOldStock(),
+                    "newStock", result.getNewStock(),
+                    added ? "quantityAdded" : "quantityRemoved", Math.abs(result.getDelta()),
+                    "action", added ? "Stock added" : "Stock removed");
+            auditLogs.add(auditLogService.createAuditLog(
+                    userId,
+                    "PRODUCT",
+                    result.getProductId(),
+                    added ? "STOCK_ADD" : "STOCK_REMOVE",
+                    details,
+                    ipAddress,
+                    userAgent,
+                    spaceId,
+                    "SPACE"));
+        }
+        auditLogService.logActions(auditLogs);
+
+        return new BatchStockResultDto(results.length, succeeded, results.length - succeeded, List.of(results));
+    }
+
+    /**
+     * Upsert a catalog into a space by SKU. Incoming rows are compared with the
+     * current products in bulk: unchanged rows are not written, changed rows are
+     * flushed as batched UPDATEs and new rows are inserted as one JDBC batch. Only
+     * created and changed products are audited, so repeating a sync writes nothing.
+     * Fields left null keep their current value, as in updateProductInSpace.
+     */
+    public ProductSyncResultDto syncProducts(UUID userId, UUID spaceId, List<SyncItem> items) {
+        Objects.requireNonNull(userId, "User ID cannot be null");
+        Objects.requireNonNull(spaceId, "Space ID cannot be null");
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one product is required");
+        }
+
+        checkWriteAccess(spaceId, userId);
+        Spaces space = spaceService.getSpaceById(spaceId);
+
+        // SKUs are matched by their collation key, so two rows the unique index would
+        // treat as one SKU are reported as duplicates instead of failing the insert
+        Map<String, Integer> rowBySku = new HashMap<>();
+        List<ProductSyncResultDto.LineResult> failures = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            SyncItem item = items.get(i);
+            String sku = item != null ? normalizeOptional(item.getSku()) : null;
+            try {
+                if (sku == null) {
+                    throw new IllegalArgumentException("SKU is required");
+                }
+                validateNewProduct(item.getName(), item.getPrice(),
+                        item.getCurrentStock() != null ? item.getCurrentStock() : 0);
+                if (rowBySku.putIfAbsent(CollationUtil.fold(sku), i) != null) {
+                    throw new IllegalArgumentException("Duplicate SKU in this sync");
+                }
+            } catch (IllegalArgumentException e) {
+                failures.add(new ProductSyncResultDto.LineResult(i, sku, null, "FAILED", e.getMessage()));
+            }
+        }
+
+        List<Integer> rows = new ArrayList<>(rowBySku.values());
+        rows.sort(null);
+
+        Map<String, Products> existing = new HashMap<>();
+        List<String> skus = rows.stream().map(row -> normalizeOptional(items.get(row).getSku())).toList();
+        for (int from = 0; from < skus.size(); from += SYNC_LOOKUP_CHUNK) {
+            List<String> chunk = skus.subList(from, Math.min(from + SYNC_LOOKUP_CHUNK, skus.size()));
+            productRepository.findBySpaceIdAndSkuIn(spaceId, chunk)
+                    .forEach(p -> existing.put(CollationUtil.fold(p.getSku()), p));
+        }
+
+        String ipAddress = RequestUtil.getClientIpAddress();
+        String userAgent = RequestUtil.getUserAgent();
+        Instant now = Instant.now();
+        List<Products> created = new ArrayList<>();
+        List<SpaceInventoryStatsService.ProductState> before = new ArrayList<>();
+        List<SpaceInventoryStatsService.ProductState> after = new ArrayList<>();
+        List<UUID> changedIds = new ArrayList<>();
+        List<AuditLog> auditLogs = new ArrayList<>();
+        List<ProductSyncResultDto.LineResult> results = new ArrayList<>(failures);
+        boolean renamed = false;
+        int unchanged = 0;
+
+        for (int row : rows) {
+            SyncItem item = items.get(row);
+            String sku = normalizeOptional(item.getSku());
+            Products product = existing.get(CollationUtil.fold(sku));
+
+            if (product == null) {
+                product = new Products();
+                product.setId(UUID.randomUUID());
+                product.setName(item.getName().trim());
+                product.setSku(sku);
+                product.setCategory(normalizeOptional(item.getCategory()));
+                product.setImageUrl(normalizeOptional(item.getImageUrl()));
+                product.setPrice(item.getPrice());
+                product.setCurrentStock(item.getCurrentStock() != null ? item.getCurrentStock() : 0);
+                product.setMinimumQuantity(item.getMinimumQuantity());
+                product.setMaximumQuantity(item.getMaximumQuantity());
+                product.setCreatedAt(now);
+                product.setUpdatedAt(now);
+                created.add(product);
+                after.add(SpaceInventoryStatsService.ProductState.of(product));
+                changedIds.add(product.getId());
+                results.add(new ProductSyncResultDto.LineResult(row, sku, product.getId(), "CREATED", null));
+
+                Map<String, Object> details = Map.of(
+                        "productName", product.getName(),
+                        "spaceName", space.getName(),
+                        "price", product.getPrice(),
+                        "initialStock", product.getCurrentStock(),
+                        "minimumQuantity", product.getMinimumQuantity() != null ? product.getMinimumQuantity() : 0,
+                        "maximumQuantity", product.getMaximumQuantity() != null ? product.getMaximumQuantity() : 0,
+                        "action", "Product created by sync");
+                auditLogs.add(auditLogService.createAuditLog(userId, "PRODUCT", product.getId(), "CREATE",
+                        details, ipAddress, userAgent, spaceId, "SPACE"));
+                continue;
+            }
+
+            SpaceInventoryStatsService.ProductState old = SpaceInventoryStatsService.ProductState.of(product);
+            // The SKU is the match key, so it is never changed here
+            Map<String, Object> changes = applyDetailChanges(product, item.getName(), null, item.getCategory(),
+                    item.getImageUrl(), item.getPrice(), item.getMinimumQuantity(), item.getMaximumQuantity());
+            if (changes.isEmpty()) {
+                unchanged++;
+                continue;
+            }
+
+            // Managed entity: the change is written by the batched flush at commit
+            before.add(old);
+            after.add(SpaceInventoryStatsService.ProductState.of(product));
+            changedIds.add(product.getId());
+            renamed |= changes.containsKey("newName");
+            results.add(new ProductSyncResultDto.LineResult(row, sku, product.getId(), "UPDATED", null));
+
+            changes.put("productName", product.getName());
+            changes.put("spaceName", space.getName());
+            changes.put("action", "Product details updated by sync");
+            auditLogs.add(auditLogService.createAuditLog(userId, "PRODUCT", product.getId(), "UPDATE",
+                    changes, ipAddress, userAgent, spaceId, "SPACE"));
+        }
+
+        if (!created.isEmpty()) {
+            try {
+                productRepository.batchInsert(spaceId, created);
+            } catch (DuplicateKeyException e) {
+                // Another request created one of these SKUs after the lookup; rerunning is safe
+                throw new IllegalStateException("Products were created concurrently in this space, retry the sync");
+            }
+        }
+        statsService.recordChanges(spaceId, before, after);
+        if (!created.isEmpty() || renamed) {
+            searchIndex.onBulkChange(spaceId);
+            suggestIndex.onBulkChange(spaceId);
+        }
+        fullTextIndex.onChanges(changedIds);
+        auditLogService.logActions(auditLogs);
+
+        results.sort(Comparator.comparingInt(ProductSyncResultDto.LineResult::getIndex));
+        return new ProductSyncResultDto(items.size(), created.size(), changedIds.size() - created.size(),
+                unchanged, failures.size(), results);
+    }
+
     /**
      * Delete a product from a specific space.
      */
@@ -336,6 +615,10 @@ public class ProductService {
         Double productValue = product.getPrice() * product.getCurrentStock();
 
         productRepository.delete(product);
+        statsService.recordDelete(spaceId, product);
+        searchIndex.onDelete(spaceId, productId);
+        suggestIndex.onDelete(spaceId, productId);
+        fullTextIndex.onChange(productId);
 
         Map<String, Object> details = Map.of(
                 "productName", productName,
@@ -358,36 +641,85 @@ public class ProductService {
     /**
      * Search products by name within a specific space.
      */
+    @Transactional(readOnly = true)
     public List<ProductDto> searchProductsByNameInSpace(UUID ownerId, UUID spaceId, String name) {
         checkReadAccess(spaceId, ownerId);
 
-        List<Products> products;
         if (name == null || name.trim().isEmpty()) {
-            products = productRepository.findBySpaceId(spaceId);
-        } else {
-            products = productRepository.findBySpaceIdAndNameContainingIgnoreCase(spaceId, name.trim());
+            return productRepository.findDtosBySpaceId(spaceId);
+        }
+        Set<UUID> candidates = searchIndex.search(spaceId, name.trim());
+        if (candidates == null) {
+            return productRepository.findDtosBySpaceIdAndNameContaining(spaceId, name.trim());
+        }
+        return candidates.isEmpty() ? List.of() : productRepository.findDtosBySpaceIdAndIdIn(spaceId, candidates);
+    }
+
+    /**
+     * Relevance-ranked search over name, SKU and category with facet counts.
+     * Only available when the embedded full-text index is enabled.
+     */
+    @Transactional(readOnly = true)
+    public ProductSearchResultDto searchProductsFullText(UUID userId, UUID spaceId, String query,
+            String category, StockStatus stockStatus, Double minPrice, Double maxPrice, int page, int size) {
+        checkReadAccess(spaceId, userId);
+
+        if (page < 0 || size <= 0) {
+            throw new IllegalArgumentException("Page must be non-negative and size greater than 0");
         }
 
-        return products.stream()
-                .map(this::convertToDto)
+        ProductFullTextIndex.Result result = fullTextIndex.search(
+                spaceId, query, category, stockStatus, minPrice, maxPrice, page, size);
+
+        // Hydrate the page from the database and keep the index's ranking; ids
+        // deleted since the last refresh simply drop out
+        Map<UUID, ProductDto> byId = new HashMap<>();
+        if (!result.productIds().isEmpty()) {
+            for (ProductDto product : productRepository.findDtosBySpaceIdAndIdIn(spaceId, result.productIds())) {
+                byId.put(product.getId(), product);
+            }
+        }
+        List<ProductDto> data = result.productIds().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+
+        int totalPages = (int) Math.ceil((double) result.totalHits() / size);
+        PaginationDto pagination = new PaginationDto(page, size, result.totalHits(), totalPages,
+                page + 1 < totalPages, page > 0);
+        return new ProductSearchResultDto(data, pagination, result.facets());
+    }
+
+    /**
+     * Autocomplete: products whose name or SKU starts with the prefix.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSuggestionDto> suggestProducts(UUID userId, UUID spaceId, String prefix, int limit) {
+        checkReadAccess(spaceId, userId);
+
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        if (limit <= 0 || limit > 50) {
+            throw new IllegalArgumentException("Limit must be between 1 and 50");
+        }
+        return suggestIndex.suggest(spaceId, prefix.trim(), limit);
     }
 
     /**
      * Get products with low stock in a specific space.
      */
+    @Transactional(readOnly = true)
     public List<ProductDto> getLowStockProductsInSpace(UUID ownerId, UUID spaceId) {
         checkReadAccess(spaceId, ownerId);
 
-        return productRepository.findLowStockProductsBySpaceId(spaceId)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return productRepository.findLowStockDtosBySpaceId(spaceId);
     }
 
     /**
      * Get products by space with pagination.
      */
+    @Transactional(readOnly = true)
     public Page<ProductDto> getProductsBySpace(UUID userId, UUID spaceId, String search,
             int page, int size, String sortBy, String sortDirection) {
 
@@ -404,26 +736,192 @@ public class ProductService {
 
         String searchParam = (search != null && !search.isBlank()) ? search.trim() : null;
 
-        return productRepository
-                .findBySpaceIdAndUserHasAccessAndSearch(spaceId, userId, searchParam, pageable)
-                .map(this::convertToDto);
+        // Resolve the search from the in-memory index when it is selective enough,
+        // so the database only hydrates the requested page
+        Set<UUID> candidates = searchParam != null ? searchIndex.search(spaceId, searchParam) : null;
+        if (candidates != null) {
+            if (candidates.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            return productRepository.findDtosBySpaceIdAndIdIn(spaceId, candidates, pageable);
+        }
+
+        return productRepository.findDtosBySpaceIdAndSearch(spaceId, searchParam, pageable);
+    }
+
+    /**
+     * Get products by space with keyset pagination. The cursor is the token returned
+     * as nextCursor by the previous call, null or blank for the first page.
+     */
+    @Transactional(readOnly = true)
+    public CursorSlice<ProductDto> getProductsBySpaceAfter(UUID userId, UUID spaceId, String search,
+            String cursor, int size, String sortBy, String sortDirection, boolean includeTotal) {
+
+        checkReadAccess(spaceId, userId);
+
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than 0");
+        }
+
+        String sortField = (sortBy != null && !sortBy.isBlank()) ? sortBy : "name";
+        if (!KEYSET_SORT_FIELDS.contains(sortField)) {
+            throw new IllegalArgumentException("Cursor pagination supports sorting by " + KEYSET_SORT_FIELDS);
+        }
+        boolean ascending = sortDirection == null || sortDirection.isBlank()
+                || Sort.Direction.fromString(sortDirection).isAscending();
+        String searchParam = (search != null && !search.isBlank()) ? search.trim() : null;
+
+        Object afterValue = null;
+        UUID afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            // sort field, direction, id, sort value
+            String[] parts = KeysetCursor.decode(cursor, 4);
+            if (!parts[0].equals(sortField) || Boolean.parseBoolean(parts[1]) != ascending) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            try {
+                afterId = UUID.fromString(parts[2]);
+                afterValue = parseSortValue(sortField, parts[3]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        Set<UUID> candidates = searchParam != null ? searchIndex.search(spaceId, searchParam) : null;
+
+        // One extra row tells us whether another page exists without a COUNT
+        List<ProductRepositoryCustom.PageRow> rows = candidates != null && candidates.isEmpty()
+                ? List.of()
+                : productRepository.findSpacePageAfter(
+                        spaceId, searchParam, candidates, sortField, ascending, afterValue, afterId, size + 1);
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            ProductRepositoryCustom.PageRow last = rows.get(rows.size() - 1);
+            nextCursor = KeysetCursor.encode(sortField, String.valueOf(ascending),
+                    last.product().getId().toString(), String.valueOf(last.sortValue()));
+        }
+
+        Long total = null;
+        if (includeTotal) {
+            total = candidates != null && candidates.isEmpty()
+                    ? 0L
+                    : productRepository.countInSpace(spaceId, searchParam, candidates);
+        }
+
+        return new CursorSlice<>(
+                rows.stream().map(ProductRepositoryCustom.PageRow::product).collect(Collectors.toList()),
+                nextCursor,
+                hasNext,
+                total);
     }
 
+    @Transactional(readOnly = true)
     public List<Products> getProductsBySpace(UUID ownerId, UUID spaceId) {
         if (!spaceService.hasAccessToSpace(spaceId, ownerId)) {
             throw new ResourceNotFoundException("Space not found or access denied");
         }
-        return productRepository.findBySpaceId(spaceId);
+        return productRepository.findBySpaceIdWithSpace(spaceId);
     }
 
+    @Transactional(readOnly = true)
     public List<Products> getProductsByOwner(UUID ownerId) {
         return productRepository.findByOwnerId(ownerId);
     }
 
+    @Transactional(readOnly = true)
     public List<Products> getLowStockProducts(UUID ownerId) {
         return productRepository.findLowStockProductsByOwnerId(ownerId);
     }
 
+    @Transactional(readOnly = true)
+    public List<Products> getLowStockProductsBySpace(UUID userId, UUID spaceId) {
+        checkReadAccess(spaceId, userId);
+        return productRepository.findLowStockProductsBySpaceId(spaceId);
+    }
+
+    private Object parseSortValue(String sortField, String value) {
+        return switch (sortField) {
+            case "price" -> Double.valueOf(value);
+            case "currentStock" -> Integer.valueOf(value);
+            case "updatedAt" -> Instant.parse(value);
+            default -> value;
+        };
+    }
+
+    // Apply every given detail that differs from the product and return the
+    // old/new pairs for the audit trail; null arguments leave a field unchanged
+    private static Map<String, Object> applyDetailChanges(Products product, String name, String sku,
+            String category, String imageUrl, Double price, Integer minimumQuantity, Integer maximumQuantity) {
+        Map<String, Object> changes = new HashMap<>();
+        if (name != null && !name.trim().isEmpty() && !name.trim().equals(product.getName())) {
+            changes.put("oldName", product.getName());
+            changes.put("newName", name.trim());
+            product.setName(name.trim());
+        }
+        if (sku != null && !Objects.equals(normalizeOptional(sku), product.getSku())) {
+            changes.put("oldSku", product.getSku());
+            changes.put("newSku", normalizeOptional(sku));
+            product.setSku(normalizeOptional(sku));
+        }
+        if (category != null && !Objects.equals(normalizeOptional(category), product.getCategory())) {
+            changes.put("oldCategory", product.getCategory());
+            changes.put("newCategory", normalizeOptional(category));
+            product.setCategory(normalizeOptional(category));
+        }
+        if (imageUrl != null && !Objects.equals(normalizeOptional(imageUrl), product.getImageUrl())) {
+            changes.put("oldImageUrl", product.getImageUrl());
+            changes.put("newImageUrl", normalizeOptional(imageUrl));
+            product.setImageUrl(normalizeOptional(imageUrl));
+        }
+        if (price != null && price >= 0 && !price.equals(product.getPrice())) {
+            changes.put("oldPrice", product.getPrice());
+            changes.put("newPrice", price);
+            product.setPrice(price);
+        }
+        if (minimumQuantity != null && minimumQuantity >= 0 && !minimumQuantity.equals(product.getMinimumQuantity())) {
+            changes.put("oldMinimumQuantity", product.getMinimumQuantity());
+            changes.put("newMinimumQuantity", minimumQuantity);
+            product.setMinimumQuantity(minimumQuantity);
+        }
+        if (maximumQuantity != null && maximumQuantity >= 0 && !maximumQuantity.equals(product.getMaximumQuantity())) {
+            changes.put("oldMaximumQuantity", product.getMaximumQuantity());
+            changes.put("newMaximumQuantity", maximumQuantity);
+            product.setMaximumQuantity(maximumQuantity);
+        }
+        return changes;
+    }
+
+    // Rules every new product must pass, shared with the bulk import
+    static void validateNewProduct(String name, Double price, Integer currentStock) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Product name is required");
+        }
+        if (price == null || price < 0) {
+            throw new IllegalArgumentException("Product price must be non-negative");
+        }
+        if (currentStock == null || currentStock < 0) {
+            throw new IllegalArgumentException("Current stock must be non-negative");
+        }
+    }
+
+    // SKUs are unique per space; excludeId is the product being updated, if any
+    private void checkSkuAvailable(UUID spaceId, String sku, UUID excludeId) {
+        if (sku == null) {
+            return;
+        }
+        boolean taken = excludeId == null
+                ? productRepository.existsBySpaceIdAndSku(spaceId, sku)
+                : productRepository.existsBySpaceIdAndSkuAndIdNot(spaceId, sku, excludeId);
+        if (taken) {
+            throw new DuplicateResourceException("A product with SKU '" + sku + "' already exists in this space");
+        }
+    }
+
     private void checkWriteAccess(UUID spaceId, UUID userId) {
         SpaceRole role = spaceService.getUserRoleInSpace(spaceId, userId);
         // VIEWER can't write, PENDING can't do anything
@@ -432,39 +930,40 @@ public class ProductService {
         }
     }
 
+    // Only runs after a guarded stock update matched no rows: access problems and
+    // missing products surface as their usual errors, otherwise the current product
+    // is returned so the caller can report the stock conflict.
+    private Products resolveStockConflict(UUID productId, UUID spaceId, UUID userId) {
+        checkWriteAccess(spaceId, userId);
+        return productRepository.findByIdWithSpace(productId)
+                .filter(p -> p.getSpace().getId().equals(spaceId))
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found in this space or access denied"));
+    }
+
     private void checkReadAccess(UUID spaceId, UUID userId) {
         if (!spaceService.hasAccessToSpace(spaceId, userId)) {
             throw new ResourceNotFoundException("Space not found or access denied");
         }
     }
 
+    // Stock moves only matter to the full-text index when they change the stock status facet
+    private void reindexIfStatusChanged(Products product, Integer oldStock) {
+        if (StockStatus.of(oldStock, product.getMinimumQuantity())
+                != StockStatus.of(product.getCurrentStock(), product.getMinimumQuantity())) {
+            fullTextIndex.onChange(product.getId());
+        }
+    }
+
     public boolean isLowStock(Products product) {
         return product.getMinimumQuantity() != null &&
                 product.getCurrentStock() != null &&
                 product.getCurrentStock() <= product.getMinimumQuantity();
     }
 
-    private String normalizeOptional(String value) {
+    static String normalizeOptional(String value) {
         return value == null || value.trim().isEmpty() ? null : value.trim();
     }
 
-    /**
-     * Convert Product entity to simple DTO (for lists)
-     */
-    private ProductDto convertToDto(Products product) {
-        return new ProductDto(
-                product.getId(),
-                product.getSpace().getId(),
-                product.getName(),
-                product.getSku(),
-                product.getCategory(),
-                product.getImageUrl(),
-                product.getPrice(),
-                product.getCurrentStock(),
-                product.getMinimumQuantity(),
-                product.getMaximumQuantity());
-    }
-
     /**
      * Convert Product entity to full Response DTO (for single items)
      */
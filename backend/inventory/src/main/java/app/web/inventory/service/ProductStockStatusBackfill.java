@@ -0,0 +1,74 @@
+package app.web.inventory.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import app.web.inventory.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fills in stock_status on products written before the column existed. Every
+ * write path sets it from then on, so this is a one-time migration: it runs
+ * once after startup on a background thread, in small auto-committed chunks so
+ * it never holds row locks for long. Until it finishes, low stock queries do
+ * not see those older products.
+ */
+@Component
+@Slf4j
+public class ProductStockStatusBackfill {
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final int batchSize;
+
+    private volatile boolean running;
+
+    public ProductStockStatusBackfill(ProductRepository productRepository,
+            @Value("${app.products.stock-status.backfill.enabled:true}") boolean enabled,
+            @Value("${app.products.stock-status.backfill.batch-size:5000}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Stock status backfill batch size must be positive");
+        }
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::run, "stock-status-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+
+    private void run() {
+        long started = System.currentTimeMillis();
+        long total = 0;
+        try {
+            int updated;
+            do {
+                updated = productRepository.backfillStockStatus(batchSize);
+                total += updated;
+            } while (running && updated == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Stock status backfill stopped after {} rows, it resumes on the next startup", total, e);
+            return;
+        }
+        if (total > 0) {
+            log.info("Stock status backfill set stock_status on {} products in {} ms", total,
+                    System.currentTimeMillis() - started);
+        }
+    }
+}
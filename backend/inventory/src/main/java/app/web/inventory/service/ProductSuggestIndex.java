@@ -0,0 +1,250 @@
+package app.web.inventory.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import app.web.inventory.dto.product.ProductSuggestionDto;
+import app.web.inventory.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-space prefix lookup over product names and SKUs for autocomplete.
+ *
+ * Each space keeps its entries in a concurrent skip list sorted
+ * case-insensitively by text, so a lookup is a seek plus a short forward scan
+ * that takes no lock. A product change removes and re-adds only that
+ * product's entries, O(log n) under the space's own lock; the index-wide lock
+ * only guards the map of spaces. Loads follow the same generation rule as
+ * ProductSearchIndex.
+ *
+ * Memory budget: one entry per name and one per SKU, measured at about 110
+ * bytes per entry on a 64-bit JVM with compressed references (skip list
+ * nodes, the entry, the product's slot and its share of the id), plus the
+ * text itself. The total number of entries across spaces is capped by
+ * app.suggest.max-entries and the least recently used spaces are evicted
+ * beyond it.
+ */
+@Component
+public class ProductSuggestIndex {
+
+    private static final byte NAME = 0;
+    private static final byte SKU = 1;
+    private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate loadTransaction;
+    private final SpaceGenerations generations = new SpaceGenerations();
+    private final int maxEntries;
+
+    // guarded by this; access order gives LRU eviction
+    private final LinkedHashMap<UUID, SpaceEntries> spaces = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong indexedEntries = new AtomicLong();
+
+    public ProductSuggestIndex(ProductRepository productRepository, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry, @Value("${app.suggest.max-entries:400000}") int maxEntries) {
+        this.productRepository = productRepository;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+        this.maxEntries = maxEntries;
+        Gauge.builder("product.suggest.index.entries", this, ProductSuggestIndex::indexedEntries)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Up to limit products whose name or SKU starts with the prefix, ignoring
+     * case, in text order. A product matching on both fields is listed once.
+     */
+    public List<ProductSuggestionDto> suggest(UUID spaceId, String prefix, int limit) {
+        return getOrLoad(spaceId).suggest(prefix, limit);
+    }
+
+    public void onSave(UUID spaceId, UUID productId, String name, String sku) {
+        afterCommit(() -> apply(spaceId, productId, name, sku));
+    }
+
+    public void onDelete(UUID spaceId, UUID productId) {
+        afterCommit(() -> apply(spaceId, productId, null, null));
+    }
+
+    // Many products changed at once (bulk import or sync): drop the space and let
+    // the next lookup reload it, rather than patching it product by product
+    public void onBulkChange(UUID spaceId) {
+        afterCommit(() -> evict(spaceId));
+    }
+
+    public synchronized void evict(UUID spaceId) {
+        generations.bump(spaceId);
+        SpaceEntries removed = spaces.remove(spaceId);
+        if (removed != null) {
+            indexedEntries.addAndGet(-removed.retire());
+        }
+    }
+
+    public long indexedEntries() {
+        return indexedEntries.get();
+    }
+
+    private SpaceEntries getOrLoad(UUID spaceId) {
+        long generation;
+        synchronized (this) {
+            SpaceEntries existing = spaces.get(spaceId);
+            if (existing != null) {
+                return existing;
+            }
+            generation = generations.current(spaceId);
+        }
+
+        List<Object[]> rows = loadTransaction.execute(status -> productRepository.findIdNameAndSkuBySpaceId(spaceId));
+        SpaceEntries loaded = new SpaceEntries();
+        for (Object[] row : rows) {
+            loaded.replace((UUID) row[0], (String) row[1], (String) row[2]);
+        }
+
+        synchronized (this) {
+            // Same rules as ProductSearchIndex: first clean load wins
+            SpaceEntries existing = spaces.get(spaceId);
+            if (existing != null) {
+                return existing;
+            }
+            if (generations.current(spaceId) == generation) {
+                spaces.put(spaceId, loaded);
+                indexedEntries.addAndGet(loaded.size());
+                evictColdSpaces(spaceId);
+            }
+        }
+        return loaded;
+    }
+
+    private void apply(UUID spaceId, UUID productId, String name, String sku) {
+        SpaceEntries entries;
+        synchronized (this) {
+            generations.bump(spaceId);
+            entries = spaces.get(spaceId);
+        }
+        if (entries == null) {
+            return;
+        }
+        int delta = entries.replace(productId, name, sku);
+        if (delta != 0 && indexedEntries.addAndGet(delta) > maxEntries) {
+            synchronized (this) {
+                evictColdSpaces(spaceId);
+            }
+        }
+    }
+
+    // Caller holds this; never evicts the space that was just touched
+    private void evictColdSpaces(UUID keep) {
+        Iterator<Map.Entry<UUID, SpaceEntries>> it = spaces.entrySet().iterator();
+        while (indexedEntries.get() > maxEntries && it.hasNext()) {
+            Map.Entry<UUID, SpaceEntries> eldest = it.next();
+            if (!eldest.getKey().equals(keep)) {
+                indexedEntries.addAndGet(-eldest.getValue().retire());
+                it.remove();
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Entry(String text, UUID productId, byte kind) {
+        // Ties on text are broken by product and kind so every entry is distinct
+        static final Comparator<Entry> ORDER = Comparator.comparing(Entry::text, String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(Entry::productId)
+                .thenComparingInt(Entry::kind);
+    }
+
+    /**
+     * One space's entries. Lookups read the skip list without locking; changes
+     * lock the instance so a product's entries are swapped as a unit.
+     */
+    private static final class SpaceEntries {
+        private final ConcurrentSkipListSet<Entry> sorted = new ConcurrentSkipListSet<>(Entry.ORDER);
+        private final Map<UUID, Entry[]> byProduct = new HashMap<>(); // guarded by this
+        private int size; // guarded by this
+        private boolean retired; // guarded by this
+
+        synchronized int size() {
+            return size;
+        }
+
+        // Replace the product's entries; null name and SKU remove it. Returns the change in entries.
+        synchronized int replace(UUID productId, String name, String sku) {
+            if (retired) {
+                return 0;
+            }
+            Entry[] old = byProduct.remove(productId);
+            int before = size;
+            if (old != null) {
+                for (Entry entry : old) {
+                    sorted.remove(entry);
+                }
+                size -= old.length;
+            }
+            List<Entry> added = new ArrayList<>(2);
+            if (name != null && !name.isEmpty()) {
+                added.add(new Entry(name, productId, NAME));
+            }
+            if (sku != null && !sku.isEmpty()) {
+                added.add(new Entry(sku, productId, SKU));
+            }
+            if (!added.isEmpty()) {
+                byProduct.put(productId, added.toArray(new Entry[0]));
+                sorted.addAll(added);
+                size += added.size();
+            }
+            return size - before;
+        }
+
+        // Evicted from the index: later changes are ignored so the entry count stays exact
+        synchronized int retire() {
+            retired = true;
+            return size;
+        }
+
+        List<ProductSuggestionDto> suggest(String prefix, int limit) {
+            List<ProductSuggestionDto> result = new ArrayList<>(limit);
+            Set<UUID> seen = new HashSet<>();
+            for (Entry entry : sorted.tailSet(new Entry(prefix, MIN_ID, NAME))) {
+                if (result.size() >= limit || !entry.text().regionMatches(true, 0, prefix, 0, prefix.length())) {
+                    break;
+                }
+                if (seen.add(entry.productId())) {
+                    result.add(new ProductSuggestionDto(entry.productId(), entry.text(),
+                            entry.kind() == NAME ? "NAME" : "SKU"));
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package app.web.inventory.service;
+
+import java.lang.ref.SoftReference;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import app.web.inventory.dto.audit.AuditLogDto;
+import app.web.inventory.model.AuditLog;
+import app.web.inventory.repository.AuditLogRepository;
+import app.web.inventory.util.ConcurrentRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Recent-activity feeds served from memory on this node. Each user and space
+ * gets a ring buffer of its newest audit entries, loaded with one indexed
+ * query on first access and appended to as the audit writer commits entries.
+ * Buffers are softly referenced so the GC reclaims them when memory gets
+ * tight, idle ones are swept, and the TTL bounds how long entries written on
+ * another node can be missing.
+ */
+@Component
+public class RecentActivityCache {
+
+    /** Most entries a feed request can return; buffers hold at least this many. */
+    public static final int FEED_LIMIT = 50;
+
+    private static final Comparator<AuditLogDto> NEWEST_FIRST = Comparator
+            .comparing(AuditLogDto::getTimestamp, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final AuditLogRepository auditLogRepository;
+    private final boolean enabled;
+    private final int capacity;
+    private final int maxFeeds;
+    private final long ttlNanos;
+    private final long idleNanos;
+    private final Map<Key, SoftReference<Feed>> feeds = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public RecentActivityCache(AuditLogRepository auditLogRepository, MeterRegistry meterRegistry,
+            @Value("${app.activity-feed.enabled:true}") boolean enabled,
+            @Value("${app.activity-feed.capacity:50}") int capacity,
+            @Value("${app.activity-feed.max-feeds:2000}") int maxFeeds,
+            @Value("${app.activity-feed.ttl-seconds:60}") long ttlSeconds,
+            @Value("${app.activity-feed.idle-seconds:600}") long idleSeconds) {
+        if (capacity < FEED_LIMIT) {
+            throw new IllegalArgumentException("Activity feed capacity must be at least " + FEED_LIMIT);
+        }
+        if (maxFeeds <= 0 || ttlSeconds <= 0 || idleSeconds <= 0) {
+            throw new IllegalArgumentException("Activity feed size, TTL and idle time must be positive");
+        }
+        this.auditLogRepository = auditLogRepository;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.maxFeeds = maxFeeds;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.idleNanos = idleSeconds * 1_000_000_000L;
+        this.hits = meterRegistry.counter("activity.feed.hits");
+        this.misses = meterRegistry.counter("activity.feed.misses");
+        Gauge.builder("activity.feed.buffers", feeds, Map::size)
+                .description("Recent-activity ring buffers held on this node")
+                .register(meterRegistry);
+    }
+
+    public List<AuditLogDto> recentForUser(UUID userId, LocalDateTime since) {
+        return recent(new Key(Scope.USER, userId), since);
+    }
+
+    public List<AuditLogDto> recentForSpace(UUID spaceId, LocalDateTime since) {
+        return recent(new Key(Scope.SPACE, spaceId), since);
+    }
+
+    /**
+     * Append committed entries to the buffers already held for their user and
+     * space. Entries must only be handed over once their insert has committed.
+     */
+    public void onCommitted(List<AuditLog> auditLogs) {
+        if (!enabled || feeds.isEmpty()) {
+            return;
+        }
+        for (AuditLog auditLog : auditLogs) {
+            Feed userFeed = existing(new Key(Scope.USER, auditLog.getUserId()));
+            Feed spaceFeed = auditLog.getSpaceId() != null ? existing(new Key(Scope.SPACE, auditLog.getSpaceId())) : null;
+            if (userFeed == null && spaceFeed == null) {
+                continue;
+            }
+            AuditLogDto entry = AuditLogDto.from(auditLog);
+            if (userFeed != null) {
+                userFeed.append(entry);
+            }
+            if (spaceFeed != null) {
+                spaceFeed.append(entry);
+            }
+        }
+    }
+
+    private List<AuditLogDto> recent(Key key, LocalDateTime since) {
+        if (!enabled) {
+            return filter(load(key), since);
+        }
+        Feed feed = existing(key);
+        if (feed != null && System.nanoTime() - feed.warmedAtNanos > ttlNanos) {
+            feeds.remove(key);
+            feed = null;
+        }
+        if (feed == null) {
+            misses.increment();
+            Feed created = new Feed();
+            SoftReference<Feed> ref = new SoftReference<>(created);
+            if (feeds.putIfAbsent(key, ref) == null) {
+                try {
+                    created.seed(load(key));
+                } catch (RuntimeException e) {
+                    feeds.remove(key, ref);
+                    throw e;
+                }
+                feed = created;
+            } else {
+                // Another request is loading this feed right now
+                return filter(load(key), since);
+            }
+        } else {
+            hits.increment();
+        }
+
+        if (!feed.ready) {
+            return filter(load(key), since);
+        }
+        feed.lastReadNanos = System.nanoTime();
+        return filter(feed.ring.snapshot(), since);
+    }
+
+    private List<AuditLogDto> load(Key key) {
+        PageRequest limit = PageRequest.of(0, enabled ? capacity : FEED_LIMIT);
+        List<AuditLog> rows = key.scope == Scope.USER
+                ? auditLogRepository.findLatestByUserId(key.id, limit)
+                : auditLogRepository.findLatestBySpaceId(key.id, limit);
+        return rows.stream().map(AuditLogDto::from).collect(Collectors.toList());
+    }
+
+    // Writers may append slightly out of timestamp order, so sort before cutting
+    private static List<AuditLogDto> filter(List<AuditLogDto> entries, LocalDateTime since) {
+        return entries.stream()
+                .filter(entry -> entry.getTimestamp() != null && !entry.getTimestamp().isBefore(since))
+                .sorted(NEWEST_FIRST)
+                .limit(FEED_LIMIT)
+                .collect(Collectors.toList());
+    }
+
+    private Feed existing(Key key) {
+        SoftReference<Feed> ref = feeds.get(key);
+        if (ref == null) {
+            return null;
+        }
+        Feed feed = ref.get();
+        if (feed == null) {
+            // Reclaimed by the GC under memory pressure
+            feeds.remove(key, ref);
+        }
+        return feed;
+    }
+
+    /**
+     * Drop reclaimed, expired and idle buffers, then the least recently read
+     * ones while more than max-feeds remain.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictStale() {
+        long now = System.nanoTime();
+        feeds.entrySet().removeIf(entry -> {
+            Feed feed = entry.getValue().get();
+            return feed == null || now - feed.warmedAtNanos > ttlNanos || now - feed.lastReadNanos > idleNanos;
+        });
+
+        int excess = feeds.size() - maxFeeds;
+        if (excess > 0) {
+            feeds.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> {
+                        Feed feed = entry.getValue().get();
+                        return feed != null ? feed.lastReadNanos - now : Long.MIN_VALUE;
+                    }))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList())
+                    .forEach(feeds::remove);
+        }
+    }
+
+    private enum Scope {
+        USER, SPACE
+    }
+
+    private record Key(Scope scope, UUID id) {
+    }
+
+    /*
+     * Entries committed while a feed is loading are queued, then merged once
+     * the loaded rows are in; ids already loaded are skipped so nothing shows twice.
+     */
+    private final class Feed {
+        private final ConcurrentRingBuffer<AuditLogDto> ring = new ConcurrentRingBuffer<>(capacity);
+        private final Queue<AuditLogDto> pending = new ConcurrentLinkedQueue<>();
+        private final long warmedAtNanos = System.nanoTime();
+        private volatile long lastReadNanos = warmedAtNanos;
+        private volatile Set<UUID> seededIds = Set.of();
+        private volatile boolean ready;
+
+        void append(AuditLogDto entry) {
+            if (ready) {
+                ring.append(entry);
+                return;
+            }
+            pending.add(entry);
+            if (ready) {
+                // Loading finished while this entry was being queued
+                drainPending();
+            }
+        }
+
+        // rows arrive newest first and go into the ring oldest first
+        void seed(List<AuditLogDto> rows) {
+            seededIds = rows.stream().map(AuditLogDto::getId).collect(Collectors.toUnmodifiableSet());
+            for (int i = rows.size() - 1; i >= 0; i--) {
+                ring.append(rows.get(i));
+            }
+            ready = true;
+            drainPending();
+        }
+
+        private void drainPending() {
+            AuditLogDto entry;
+            while ((entry = pending.poll()) != null) {
+                if (!seededIds.contains(entry.getId())) {
+                    ring.append(entry);
+                }
+            }
+        }
+    }
+}
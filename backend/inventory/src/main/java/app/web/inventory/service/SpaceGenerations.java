@@ -0,0 +1,30 @@
+package app.web.inventory.service;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-space change counters for the in-memory product indexes. Every mutation
+ * or eviction bumps the space's counter; a load captures it before reading
+ * and installs its result only if the counter is still the same, so a change
+ * that committed after the load's snapshot can never be lost. Spaces hash onto
+ * a fixed number of slots; a collision only makes a load skip its install.
+ */
+final class SpaceGenerations {
+
+    private static final int SLOTS = 4096;
+
+    private final AtomicLongArray slots = new AtomicLongArray(SLOTS);
+
+    long current(UUID spaceId) {
+        return slots.get(slot(spaceId));
+    }
+
+    void bump(UUID spaceId) {
+        slots.incrementAndGet(slot(spaceId));
+    }
+
+    private static int slot(UUID spaceId) {
+        return (spaceId.hashCode() & 0x7fffffff) % SLOTS;
+    }
+}
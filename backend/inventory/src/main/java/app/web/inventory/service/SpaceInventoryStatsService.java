@@ -0,0 +1,300 @@
+package app.web.inventory.service;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import app.web.inventory.model.Products;
+import app.web.inventory.model.SpaceInventoryStats;
+import app.web.inventory.repository.SpaceInventoryStatsRepository;
+import app.web.inventory.repository.SpaceRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the space_inventory_stats read model. Product mutations report the
+ * before/after state of the product and the difference is applied to the
+ * space's counters in the same transaction.
+ */
+@Service
+@Transactional
+@Slf4j
+public class SpaceInventoryStatsService {
+
+    private final SpaceInventoryStatsRepository statsRepository;
+    private final SpaceRepository spaceRepository;
+    private final TransactionTemplate repairTransaction;
+
+    public SpaceInventoryStatsService(SpaceInventoryStatsRepository statsRepository,
+            SpaceRepository spaceRepository, PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.spaceRepository = spaceRepository;
+        this.repairTransaction = new TransactionTemplate(transactionManager);
+        this.repairTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Start a space with zeroed counters
+     */
+    public void initialize(UUID spaceId) {
+        statsRepository.save(SpaceInventoryStats.empty(spaceId));
+    }
+
+    public void remove(UUID spaceId) {
+        statsRepository.deleteById(spaceId);
+    }
+
+    public void recordCreate(UUID spaceId, Products product) {
+        recordChange(spaceId, null, null, null,
+                product.getPrice(), product.getCurrentStock(), product.getMinimumQuantity());
+    }
+
+    /**
+     * Add many newly created products to a space's counters with one update
+     */
+    public void recordCreates(UUID spaceId, Collection<Products> products) {
+        recordChanges(spaceId, List.of(), products.stream().map(ProductState::of).toList());
+    }
+
+    /**
+     * Apply the net effect of many product changes with one update. before holds
+     * the old state of updated or deleted products, after the new state of
+     * created or updated ones.
+     */
+    public void recordChanges(UUID spaceId, Collection<ProductState> before, Collection<ProductState> after) {
+        long[] counts = new long[4];
+        double value = 0.0;
+        for (ProductState state : after) {
+            long[] contribution = contribution(state.price(), state.stock(), state.minimum());
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += contribution[i];
+            }
+            value += state.value();
+        }
+        for (ProductState state : before) {
+            long[] contribution = contribution(state.price(), state.stock(), state.minimum());
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] -= contribution[i];
+            }
+            value -= state.value();
+        }
+        if (Arrays.stream(counts).allMatch(c -> c == 0) && value == 0.0) {
+            return;
+        }
+
+        double valueDelta = value;
+        applyOrCreate(spaceId, () -> statsRepository.applyDelta(spaceId, counts[0], valueDelta, counts[1], counts[2],
+                counts[3], Instant.now()));
+    }
+
+    public void recordDelete(UUID spaceId, Products product) {
+        recordChange(spaceId, product.getPrice(), product.getCurrentStock(), product.getMinimumQuantity(),
+                null, null, null);
+    }
+
+    /**
+     * Apply the difference between a product's old and new state to its space's
+     * counters. A null old price means the product was created, a null new price
+     * means it was deleted.
+     */
+    public void recordChange(UUID spaceId,
+            Double oldPrice, Integer oldStock, Integer oldMinimum,
+            Double newPrice, Integer newStock, Integer newMinimum) {
+        long[] oldCounts = contribution(oldPrice, oldStock, oldMinimum);
+        long[] newCounts = contribution(newPrice, newStock, newMinimum);
+        double oldValue = oldPrice != null ? oldPrice * oldStock : 0.0;
+        double newValue = newPrice != null ? newPrice * newStock : 0.0;
+
+        if (Arrays.equals(oldCounts, newCounts) && oldValue == newValue) {
+            return;
+        }
+
+        applyOrCreate(spaceId, () -> statsRepository.applyDelta(
+                spaceId,
+                newCounts[0] - oldCounts[0],
+                newValue - oldValue,
+                newCounts[1] - oldCounts[1],
+                newCounts[2] - oldCounts[2],
+                newCounts[3] - oldCounts[3],
+                Instant.now()));
+    }
+
+    /*
+     * No row yet means the space predates the read model. The products table
+     * already reflects this change, so the row is built from it. When another
+     * transaction inserts the row first, its count cannot include this
+     * uncommitted change, so the delta is applied on top of it instead.
+     */
+    private void applyOrCreate(UUID spaceId, IntSupplier applyDelta) {
+        if (applyDelta.getAsInt() == 0 && statsRepository.insertIfAbsent(compute(spaceId)) == 0) {
+            applyDelta.getAsInt();
+        }
+    }
+
+    /**
+     * Get stats for a space, building the row from products if it doesn't exist yet
+     */
+    public SpaceInventoryStats getStats(UUID spaceId) {
+        return statsRepository.findById(spaceId).orElseGet(() -> rebuild(spaceId));
+    }
+
+    /**
+     * Get stats for several spaces with one lookup, keyed by space ID
+     */
+    public Map<UUID, SpaceInventoryStats> getStats(Collection<UUID> spaceIds) {
+        Map<UUID, SpaceInventoryStats> stats = statsRepository.findAllById(spaceIds).stream()
+                .collect(Collectors.toMap(SpaceInventoryStats::getSpaceId, Function.identity()));
+        for (UUID spaceId : spaceIds) {
+            if (!stats.containsKey(spaceId)) {
+                stats.put(spaceId, rebuild(spaceId));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Build the missing row of a space that predates the read model from the
+     * products table. A row inserted concurrently by another transaction is kept.
+     * Read-only transactions only compute the counters; the row is then created
+     * by the next write or the nightly repair.
+     */
+    public SpaceInventoryStats rebuild(UUID spaceId) {
+        SpaceInventoryStats stats = compute(spaceId);
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            statsRepository.insertIfAbsent(stats);
+        }
+        return stats;
+    }
+
+    private SpaceInventoryStats compute(UUID spaceId) {
+        List<Object[]> rows = statsRepository.computeFromProducts(spaceId);
+        SpaceInventoryStats stats = SpaceInventoryStats.empty(spaceId);
+        if (!rows.isEmpty()) {
+            applyCounts(stats, rows.get(0), 0);
+        }
+        return stats;
+    }
+
+    /**
+     * Verify every space's counters against the products table and repair any
+     * that drifted. Returns the number of repaired spaces. The scan takes no
+     * locks; each space it flags is recounted in its own transaction while
+     * holding its stats row, so deltas committed during the scan are not lost.
+     */
+    @Scheduled(cron = "${app.stats.repair-cron:0 0 3 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int verifyAndRepair() {
+        Map<UUID, Object[]> actual = new HashMap<>();
+        for (Object[] row : statsRepository.computeAllFromProducts()) {
+            actual.put((UUID) row[0], row);
+        }
+        Map<UUID, SpaceInventoryStats> stored = statsRepository.findAll().stream()
+                .collect(Collectors.toMap(SpaceInventoryStats::getSpaceId, Function.identity()));
+
+        int repaired = 0;
+        for (UUID spaceId : spaceRepository.findAllIds()) {
+            SpaceInventoryStats expected = SpaceInventoryStats.empty(spaceId);
+            Object[] row = actual.get(spaceId);
+            if (row != null) {
+                applyCounts(expected, row, 1);
+            }
+
+            SpaceInventoryStats current = stored.remove(spaceId);
+            if ((current == null || !matches(current, expected)) && repair(spaceId)) {
+                repaired++;
+            }
+        }
+        // Rows left over belong to spaces that no longer exist
+        statsRepository.deleteAll(stored.values());
+
+        if (repaired > 0 || !stored.isEmpty()) {
+            log.warn("Space inventory stats repaired for {} spaces, {} orphaned rows removed",
+                    repaired, stored.size());
+        }
+        return repaired;
+    }
+
+    /*
+     * The row lock comes first and opens the transaction, so the recount reads
+     * a snapshot taken after it: every delta committed before is included, and
+     * every later applyDelta waits for this transaction and lands on top.
+     */
+    private boolean repair(UUID spaceId) {
+        return Boolean.TRUE.equals(repairTransaction.execute(status -> {
+            SpaceInventoryStats current = statsRepository.findForUpdate(spaceId).orElse(null);
+            SpaceInventoryStats expected = compute(spaceId);
+            if (current == null) {
+                return statsRepository.insertIfAbsent(expected) > 0;
+            }
+            if (matches(current, expected)) {
+                return false;
+            }
+            current.setProductCount(expected.getProductCount());
+            current.setTotalValue(expected.getTotalValue());
+            current.setInStockCount(expected.getInStockCount());
+            current.setLowStockCount(expected.getLowStockCount());
+            current.setOutOfStockCount(expected.getOutOfStockCount());
+            current.setUpdatedAt(Instant.now());
+            return true;
+        }));
+    }
+
+    // [productCount, inStockCount, lowStockCount, outOfStockCount] of one product
+    private long[] contribution(Double price, Integer stock, Integer minimum) {
+        if (price == null || stock == null) {
+            return new long[] { 0, 0, 0, 0 };
+        }
+        boolean lowStock = minimum != null && stock <= minimum;
+        boolean outOfStock = stock == 0;
+        return new long[] {
+                1,
+                !lowStock && !outOfStock ? 1 : 0,
+                lowStock ? 1 : 0,
+                outOfStock ? 1 : 0 };
+    }
+
+    private void applyCounts(SpaceInventoryStats stats, Object[] row, int offset) {
+        stats.setProductCount(((Number) row[offset]).longValue());
+        stats.setTotalValue(((Number) row[offset + 1]).doubleValue());
+        stats.setInStockCount(((Number) row[offset + 2]).longValue());
+        stats.setLowStockCount(((Number) row[offset + 3]).longValue());
+        stats.setOutOfStockCount(((Number) row[offset + 4]).longValue());
+    }
+
+    private boolean matches(SpaceInventoryStats current, SpaceInventoryStats expected) {
+        // Value is accumulated in floating point, so allow for rounding drift
+        return current.getProductCount() == expected.getProductCount()
+                && current.getInStockCount() == expected.getInStockCount()
+                && current.getLowStockCount() == expected.getLowStockCount()
+                && current.getOutOfStockCount() == expected.getOutOfStockCount()
+                && Math.abs(current.getTotalValue() - expected.getTotalValue()) < 0.01;
+    }
+
+    /**
+     * The fields of a product that feed the space counters
+     */
+    public record ProductState(Double price, Integer stock, Integer minimum) {
+        public static ProductState of(Products product) {
+            return new ProductState(product.getPrice(), product.getCurrentStock(), product.getMinimumQuantity());
+        }
+
+        double value() {
+            return price != null && stock != null ? price * stock : 0.0;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package app.web.inventory.service;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import app.web.inventory.model.enums.SpaceRole;
+import app.web.inventory.util.BoundedTtlCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caches (spaceId, userId) -> SpaceRole decisions on this node. Membership
+ * changes invalidate entries explicitly; the TTL bounds how long a change made
+ * on another node can go unnoticed.
+ *
+ * A lookup may read the membership before an invalidating change commits, or
+ * run in a transaction whose snapshot predates it, and only try to cache the
+ * result afterwards. Each space therefore has a version, the time it was last
+ * invalidated. A lookup captures it before reading and its result is cached
+ * only when the version is unchanged and no invalidation happened within the
+ * last TTL. This covers transactions shorter than the TTL.
+ */
+@Component
+public class SpaceRoleCache {
+
+    // Spaces hash onto a fixed number of version slots; a collision only skips a put
+    private static final int VERSION_SLOTS = 4096;
+
+    private final BoundedTtlCache<Key, SpaceRole> cache;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_SLOTS);
+    private final long holdOffNanos;
+    private final Counter hits;
+    private final Counter misses;
+
+    public SpaceRoleCache(MeterRegistry meterRegistry,
+            @Value("${app.access-cache.max-size:10000}") int maxSize,
+            @Value("${app.access-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = new BoundedTtlCache<>(maxSize, ttlSeconds * 1000);
+        this.holdOffNanos = ttlSeconds * 1_000_000_000L;
+        long start = System.nanoTime() - holdOffNanos;
+        for (int i = 0; i < VERSION_SLOTS; i++) {
+            versions.set(i, start);
+        }
+        this.hits = meterRegistry.counter("space.role.cache.hits");
+        this.misses = meterRegistry.counter("space.role.cache.misses");
+        Gauge.builder("space.role.cache.size", cache, BoundedTtlCache::size).register(meterRegistry);
+        Gauge.builder("space.role.cache.hit.ratio", this, SpaceRoleCache::hitRatio).register(meterRegistry);
+    }
+
+    // Returns null on a miss
+    public SpaceRole get(UUID spaceId, UUID userId) {
+        SpaceRole role = cache.get(new Key(spaceId, userId));
+        if (role != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return role;
+    }
+
+    // Capture before reading the membership and pass to put
+    public long version(UUID spaceId) {
+        return versions.get(slot(spaceId));
+    }
+
+    /**
+     * Cache a role read after {@link #version} returned the given value. Skipped
+     * when the space was invalidated since then, or within the last TTL.
+     */
+    public void put(UUID spaceId, UUID userId, SpaceRole role, long version) {
+        if (!cacheable(spaceId, version)) {
+            return;
+        }
+        Key key = new Key(spaceId, userId);
+        cache.put(key, role);
+        // An invalidation between the check and the put bumped the version first
+        if (!cacheable(spaceId, version)) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Drop a user's cached role in a space, now and again after the current
+     * transaction completes, when the change becomes visible to other lookups.
+     */
+    public void invalidate(UUID spaceId, UUID userId) {
+        Key key = new Key(spaceId, userId);
+        Runnable action = () -> {
+            bump(spaceId);
+            cache.invalidate(key);
+        };
+        action.run();
+        afterCompletion(action);
+    }
+
+    // Drop every cached role in a space
+    public void invalidateSpace(UUID spaceId) {
+        Runnable action = () -> {
+            bump(spaceId);
+            cache.invalidateIf(key -> key.spaceId.equals(spaceId));
+        };
+        action.run();
+        afterCompletion(action);
+    }
+
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+
+    private boolean cacheable(UUID spaceId, long version) {
+        long current = versions.get(slot(spaceId));
+        return current == version && System.nanoTime() - current >= holdOffNanos;
+    }
+
+    // Versions are invalidation times, kept strictly increasing so each one is distinct
+    private void bump(UUID spaceId) {
+        versions.accumulateAndGet(slot(spaceId), System.nanoTime(), (prev, now) -> Math.max(prev + 1, now));
+    }
+
+    private static int slot(UUID spaceId) {
+        return (spaceId.hashCode() & 0x7fffffff) % VERSION_SLOTS;
+    }
+
+    private void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private record Key(UUID spaceId, UUID userId) {
+    }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
@@ -42,16 +43,28 @@ public class SpaceService {
     private final SpaceMemberRepository spaceMemberRepository;
     private final ProductRepository productRepository;
     private final EmailService emailService;
+    private final SpaceInventoryStatsService statsService;
+    private final SpaceRoleCache roleCache;
+    private final ProductSearchIndex searchIndex;
+    private final ProductSuggestIndex suggestIndex;
+    private final ProductFullTextIndex fullTextIndex;
 
     public SpaceService(SpaceRepository spaceRepository, UserService userService, AuditLogService auditLogService,
             app.web.inventory.repository.SpaceMemberRepository spaceMemberRepository,
-            ProductRepository productRepository, EmailService emailService) {
+            ProductRepository productRepository, EmailService emailService,
+            SpaceInventoryStatsService statsService, SpaceRoleCache roleCache, ProductSearchIndex searchIndex,
+            ProductSuggestIndex suggestIndex, ProductFullTextIndex fullTextIndex) {
         this.spaceRepository = spaceRepository;
         this.userService = userService;
         this.auditLogService = auditLogService;
         this.spaceMemberRepository = spaceMemberRepository;
         this.productRepository = productRepository;
         this.emailService = emailService;
+        this.statsService = statsService;
+        this.roleCache = roleCache;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.fullTextIndex = fullTextIndex;
     }
 
     /**
@@ -76,6 +89,7 @@ public class SpaceService {
         space.setOwner(owner);
 
         Spaces savedSpace = spaceRepository.save(space);
+        statsService.initialize(savedSpace.getId());
 
         // Add creator as OWNER member
         addOwnerToSpace(savedSpace, owner);
@@ -190,16 +204,21 @@ public class SpaceService {
                 .filter(m -> m.getRole() != SpaceRole.OWNER)
                 .collect(Collectors.toList());
 
-        long productCount = spaceRepository.countProductsInSpace(spaceId);
+        long productCount = statsService.getStats(spaceId).getProductCount();
 
         // Delete products first
         productRepository.deleteBySpaceId(spaceId);
+        statsService.remove(spaceId);
+        searchIndex.evict(spaceId);
+        suggestIndex.evict(spaceId);
+        fullTextIndex.onSpaceDeleted(spaceId);
 
         // Delete members
         spaceMemberRepository.deleteBySpaceId(spaceId);
 
         // Delete space
         spaceRepository.delete(space);
+        roleCache.invalidateSpace(spaceId);
 
         // Notify members after deletion
         for (SpaceMember member : members) {
@@ -284,6 +303,7 @@ public class SpaceService {
         }
 
         addMemberToSpace(space, userToInvite, intendedRole, initiatorId);
+        roleCache.invalidate(spaceId, userToInvite.getId());
 
         // 5. Audit log
         Map<String, Object> details = Map.of(
@@ -341,6 +361,7 @@ public class SpaceService {
         }
 
         spaceMemberRepository.delete(memberToRemove);
+        roleCache.invalidate(spaceId, memberId);
 
         Map<String, Object> details = Map.of(
                 "spaceName", space.getName(),
@@ -413,6 +434,7 @@ public class SpaceService {
         member.setRole(roleToAssign);
         member.setIntendedRole(null);
         spaceMemberRepository.save(member);
+        roleCache.invalidate(spaceId, userId);
     }
 
     /**
@@ -427,6 +449,7 @@ public class SpaceService {
         }
 
         spaceMemberRepository.delete(member);
+        roleCache.invalidate(spaceId, userId);
     }
 
     /**
@@ -450,13 +473,14 @@ public class SpaceService {
         }
 
         List<Object[]> results = spaceRepository.findSpacesWithProductCount(userId);
+        Map<UUID, Long> fallbackCounts = countProductsWithoutStats(results, row -> ((Spaces) row[0]).getId());
 
         return results.stream()
                 .map(result -> {
                     Spaces space = (Spaces) result[0];
                     long productCount = result[1] instanceof Number
                             ? ((Number) result[1]).longValue()
-                            : 0L;
+                            : fallbackCounts.getOrDefault(space.getId(), 0L);
 
                     return new SpaceDto(
                             space.getId(),
@@ -477,11 +501,17 @@ public class SpaceService {
             throw new IllegalArgumentException("User ID cannot be null");
         }
 
-        return spaceMemberRepository.findActiveSpacesByUserId(userId)
-                .stream()
-                .filter(sm -> !sm.getSpace().getOwner().getId().equals(userId)) // exclude owned
-                .map(sm -> {
-                    long productCount = spaceRepository.countProductsInSpace(sm.getSpace().getId());
+        // One query for memberships, spaces, owners and counts
+        List<Object[]> results = spaceMemberRepository.findSharedSpacesWithProductCount(userId);
+        Map<UUID, Long> fallbackCounts = countProductsWithoutStats(results,
+                row -> ((SpaceMember) row[0]).getSpace().getId());
+
+        return results.stream()
+                .map(result -> {
+                    SpaceMember sm = (SpaceMember) result[0];
+                    long productCount = result[1] instanceof Number
+                            ? ((Number) result[1]).longValue()
+                            : fallbackCounts.getOrDefault(sm.getSpace().getId(), 0L);
 
                     return new SpaceDto(
                             sm.getSpace().getId(),
@@ -494,6 +524,19 @@ public class SpaceService {
                 .collect(Collectors.toList());
     }
 
+    // Spaces without a stats row yet are counted with one batched GROUP BY query
+    private Map<UUID, Long> countProductsWithoutStats(List<Object[]> rows, Function<Object[], UUID> spaceId) {
+        List<UUID> missing = rows.stream()
+                .filter(row -> row[1] == null)
+                .map(spaceId)
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return Map.of();
+        }
+        return spaceRepository.countProductsBySpaceIds(missing).stream()
+                .collect(Collectors.toMap(row -> (UUID) row[0], row -> ((Number) row[1]).longValue()));
+    }
+
     // =============================================================================
     // Internal/Utility Methods
     // =============================================================================
@@ -557,13 +600,17 @@ public class SpaceService {
 
     // Check if user has access to space (owner or member)
     public boolean hasAccessToSpace(UUID spaceId, UUID userId) {
-        if (spaceRepository.findByIdAndOwnerId(spaceId, userId).isPresent()) {
-            return true;
+        if (spaceId == null || userId == null) {
+            return false;
+        }
+        SpaceRole role;
+        try {
+            role = findRole(spaceId, userId);
+        } catch (ResourceNotFoundException e) {
+            return false;
         }
         // Only active members (not PENDING) have access
-        return spaceMemberRepository.findBySpaceIdAndUserId(spaceId, userId)
-                .map(member -> member.getRole() != SpaceRole.PENDING)
-                .orElse(false);
+        return role != null && role != SpaceRole.PENDING;
     }
 
     // Get the user's role in a space (useful for write permission checks)
@@ -572,16 +619,35 @@ public class SpaceService {
             throw new IllegalArgumentException("Space ID and User ID cannot be null");
         }
 
+        SpaceRole role = findRole(spaceId, userId);
+        if (role == null) {
+            throw new SecurityException("Access denied");
+        }
+        return role;
+    }
+
+    // Role lookup behind the access cache. Returns null when the user has no
+    // membership; throws ResourceNotFoundException when the space doesn't exist.
+    private SpaceRole findRole(UUID spaceId, UUID userId) {
+        SpaceRole cached = roleCache.get(spaceId, userId);
+        if (cached != null) {
+            return cached;
+        }
+        long version = roleCache.version(spaceId);
+
         Spaces space = spaceRepository.findById(spaceId)
                 .orElseThrow(() -> new ResourceNotFoundException("Space not found"));
 
-        if (space.getOwner().getId().equals(userId)) {
-            return SpaceRole.OWNER;
-        }
+        SpaceRole role = space.getOwner().getId().equals(userId)
+                ? SpaceRole.OWNER
+                : spaceMemberRepository.findBySpaceIdAndUserId(spaceId, userId)
+                        .map(SpaceMember::getRole)
+                        .orElse(null);
 
-        return spaceMemberRepository.findBySpaceIdAndUserId(spaceId, userId)
-                .map(SpaceMember::getRole)
-                .orElseThrow(() -> new SecurityException("Access denied"));
+        if (role != null) {
+            roleCache.put(spaceId, userId, role, version);
+        }
+        return role;
     }
 
     public int getRemainingSpaceSlots(UUID ownerId) {
@@ -597,7 +663,7 @@ public class SpaceService {
      * Convert Space entity to Response DTO
      */
     private SpaceResponseDto convertToResponseDto(Spaces space) {
-        long productCount = spaceRepository.countProductsInSpace(space.getId());
+        long productCount = statsService.getStats(space.getId()).getProductCount();
 
         return new SpaceResponseDto(
                 space.getId(),
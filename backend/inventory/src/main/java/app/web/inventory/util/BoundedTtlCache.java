@@ -0,0 +1,127 @@
+package app.web.inventory.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Small in-process cache with a per-entry expiry and a size bound. Reads and
+ * writes go straight to a ConcurrentHashMap, so lookups on the request path
+ * never wait for each other. Eviction is approximately LRU: once the map grows
+ * past its bound, one writer drops the expired entries and then the least
+ * recently read ones until the map is back below the bound.
+ */
+public class BoundedTtlCache<K, V> {
+
+    // Evict down to this share of maxSize so the sort runs once per many puts
+    private static final double EVICT_TO = 0.9;
+
+    // Reads refresh an entry's access time at most this often, to avoid a write per hit
+    private static final long ACCESS_GRANULARITY_NANOS = 10_000_000L;
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public BoundedTtlCache(int maxSize, long ttlMillis) {
+        if (maxSize <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("Cache size and TTL must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    // Returns null when the key is absent or expired
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - entry.expiresAtNanos > 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+        if (now - entry.accessedAtNanos > ACCESS_GRANULARITY_NANOS) {
+            entry.accessedAtNanos = now;
+        }
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        putUntil(key, value, System.nanoTime() + ttlNanos);
+    }
+
+    // Store with an expiry no later than the given System.nanoTime() deadline
+    public void putUntil(K key, V value, long expiresAtNanos) {
+        long now = System.nanoTime();
+        long ttlDeadline = now + ttlNanos;
+        entries.put(key, new Entry<>(value, expiresAtNanos - ttlDeadline < 0 ? expiresAtNanos : ttlDeadline, now));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateIf(Predicate<K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Writers that find eviction already running skip it; the map may briefly exceed maxSize
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            entries.entrySet().removeIf(e -> now - e.getValue().expiresAtNanos > 0);
+            int excess = entries.size() - Math.max(1, (int) (maxSize * EVICT_TO));
+            if (excess <= 0) {
+                return;
+            }
+            // Access times keep changing under concurrent reads, so pick the cut-off
+            // from a copy: entries read no later than it are dropped
+            long[] lastRead = new long[entries.size()];
+            int count = 0;
+            for (Entry<V> entry : entries.values()) {
+                if (count == lastRead.length) {
+                    break;
+                }
+                lastRead[count++] = entry.accessedAtNanos - now;
+            }
+            if (count == 0) {
+                return;
+            }
+            Arrays.sort(lastRead, 0, count);
+            long cutoff = lastRead[Math.min(excess, count) - 1];
+            entries.values().removeIf(entry -> entry.accessedAtNanos - now <= cutoff);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtNanos;
+        private volatile long accessedAtNanos;
+
+        private Entry(V value, long expiresAtNanos, long accessedAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+            this.accessedAtNanos = accessedAtNanos;
+        }
+    }
+}
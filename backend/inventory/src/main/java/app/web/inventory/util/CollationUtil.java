@@ -0,0 +1,34 @@
+package app.web.inventory.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Comparison keys that treat strings as equal when the default
+ * utf8mb4_0900_ai_ci collation does: ignoring case and accents, with
+ * compatibility forms such as ligatures spelled out. Used where Java code
+ * has to agree with a LIKE or a unique index on a text column. This covers
+ * the common cases rather than every UCA equivalence.
+ */
+public class CollationUtil {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private CollationUtil() {
+    }
+
+    public static String fold(String value) {
+        if (value == null) {
+            return "";
+        }
+        String lower = value.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) > 0x7f) {
+                String decomposed = Normalizer.normalize(lower, Normalizer.Form.NFKD);
+                return COMBINING_MARKS.matcher(decomposed).replaceAll("").replace("ß", "ss");
+            }
+        }
+        return lower;
+    }
+}
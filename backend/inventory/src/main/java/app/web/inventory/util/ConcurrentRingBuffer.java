@@ -0,0 +1,53 @@
+package app.web.inventory.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size lock-free ring buffer keeping the last capacity items appended.
+ * Writers claim a sequence number and store into its slot; every slot is
+ * tagged with the sequence it was written for, so a reader skips slots that
+ * were claimed but not yet written or were overwritten while it was reading.
+ */
+public class ConcurrentRingBuffer<T> {
+
+    private final int capacity;
+    private final AtomicReferenceArray<Slot<T>> slots;
+    private final AtomicLong next = new AtomicLong();
+
+    public ConcurrentRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ring buffer capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void append(T item) {
+        long seq = next.getAndIncrement();
+        slots.set((int) (seq % capacity), new Slot<>(seq, item));
+    }
+
+    // The items currently held, most recently appended first
+    public List<T> snapshot() {
+        long end = next.get();
+        long start = Math.max(0, end - capacity);
+        List<T> items = new ArrayList<>((int) (end - start));
+        for (long seq = end - 1; seq >= start; seq--) {
+            Slot<T> slot = slots.get((int) (seq % capacity));
+            if (slot != null && slot.seq == seq) {
+                items.add(slot.item);
+            }
+        }
+        return items;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private record Slot<T>(long seq, T item) {
+    }
+}
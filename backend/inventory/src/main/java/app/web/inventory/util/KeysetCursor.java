@@ -0,0 +1,44 @@
+package app.web.inventory.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes keyset pagination positions as opaque, URL-safe tokens. A token is
+ * just the ordered key values of the last row returned, so clients must treat
+ * it as opaque and send it back unchanged.
+ */
+public class KeysetCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(String... parts) {
+        StringBuilder token = new StringBuilder();
+        for (String part : parts) {
+            if (token.length() > 0) {
+                token.append('.');
+            }
+            token.append(ENCODER.encodeToString(part.getBytes(StandardCharsets.UTF_8)));
+        }
+        return token.toString();
+    }
+
+    public static String[] decode(String token, int expectedParts) {
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != expectedParts) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = new String(DECODER.decode(parts[i]), StandardCharsets.UTF_8);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return parts;
+    }
+}
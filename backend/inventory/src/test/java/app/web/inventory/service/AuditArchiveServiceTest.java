@@ -0,0 +1,155 @@
+package app.web.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import app.web.inventory.model.AuditLog;
+import app.web.inventory.repository.AuditLogRepository;
+import app.web.inventory.service.AuditArchiveStore.ArchiveFilter;
+
+class AuditArchiveServiceTest {
+
+    private static final YearMonth NOW = YearMonth.now();
+
+    private final AuditLogRepository auditLogRepository = mock(AuditLogRepository.class);
+    // Rows still in audit_logs, oldest first
+    private final List<AuditLog> table = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    private AuditArchiveStore store;
+    private AuditArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new AuditArchiveStore(Jackson2ObjectMapperBuilder.json().build(), directory.toString(), 100);
+        store.load();
+        archiveService = new AuditArchiveService(auditLogRepository, store, true, 2, false, 3, 2);
+
+        when(auditLogRepository.runExclusively(anyString(), any())).thenAnswer(call -> {
+            call.<Runnable>getArgument(1).run();
+            return true;
+        });
+        when(auditLogRepository.findOldestTimestamp()).thenAnswer(call -> table.isEmpty()
+                ? null
+                : table.get(0).getTimestamp());
+        doAnswer(call -> {
+            LocalDateTime from = call.getArgument(0);
+            LocalDateTime to = call.getArgument(1);
+            Consumer<AuditLog> sink = call.getArgument(2);
+            table.stream().filter(entry -> inRange(entry, from, to)).forEach(sink);
+            return null;
+        }).when(auditLogRepository).streamBetween(any(), any(), any());
+        when(auditLogRepository.deleteBetween(any(), any(), anyInt())).thenAnswer(call -> {
+            LocalDateTime from = call.getArgument(0);
+            LocalDateTime to = call.getArgument(1);
+            int limit = call.getArgument(2);
+            List<AuditLog> chunk = table.stream().filter(entry -> inRange(entry, from, to)).limit(limit).toList();
+            table.removeAll(chunk);
+            return chunk.size();
+        });
+    }
+
+    @Test
+    void hotCutoffKeepsTheCurrentMonthAndTheHotWindow() {
+        assertEquals(NOW.minusMonths(2).atDay(1).atStartOfDay(), archiveService.hotCutoff());
+    }
+
+    @Test
+    void archivesAndRemovesOnlyMonthsBeforeTheHotCutoff() {
+        add(NOW.minusMonths(4), 3);
+        add(NOW.minusMonths(3), 1);
+        add(NOW.minusMonths(2), 2);
+        add(NOW, 1);
+
+        archiveService.run();
+
+        assertTrue(store.contains(NOW.minusMonths(4)));
+        assertTrue(store.contains(NOW.minusMonths(3)));
+        assertFalse(store.contains(NOW.minusMonths(2)));
+        assertEquals(archiveService.hotCutoff(), store.archivedBefore());
+        assertEquals(4, store.count(new ArchiveFilter(null, null, null, null, null, null, null)));
+        // Hot rows stay in the table, archived ones are deleted in chunks of two
+        assertEquals(3, table.size());
+        assertTrue(table.stream().noneMatch(entry -> entry.getTimestamp().isBefore(archiveService.hotCutoff())));
+        verify(auditLogRepository, times(2)).deleteBetween(eq(NOW.minusMonths(4).atDay(1).atStartOfDay()),
+                any(), eq(2));
+    }
+
+    @Test
+    void archivedMonthIsNotRewrittenWhenItsRemovalResumes() {
+        add(NOW.minusMonths(3), 2);
+        // The first run archives the month but stops before removing its rows
+        doThrow(new IllegalStateException("Lock wait timeout exceeded"))
+                .doAnswer(call -> {
+                    int removed = table.size();
+                    table.clear();
+                    return removed;
+                })
+                .when(auditLogRepository).deleteBetween(any(), any(), anyInt());
+
+        archiveService.run();
+        assertTrue(store.contains(NOW.minusMonths(3)));
+        assertEquals(2, table.size());
+
+        archiveService.run();
+
+        assertEquals(0, table.size());
+        verify(auditLogRepository, times(1)).streamBetween(any(), any(), any());
+    }
+
+    @Test
+    void skipsWhenAnotherNodeHoldsTheLock() {
+        add(NOW.minusMonths(3), 1);
+        doReturn(false).when(auditLogRepository).runExclusively(anyString(), any());
+
+        archiveService.run();
+
+        assertFalse(store.contains(NOW.minusMonths(3)));
+        verify(auditLogRepository, never()).deleteBetween(any(), any(), anyInt());
+    }
+
+    private void add(YearMonth month, int count) {
+        for (int i = 0; i < count; i++) {
+            AuditLog entry = new AuditLog();
+            entry.setId(UUID.randomUUID());
+            entry.setUserId(new UUID(0, 1));
+            entry.setEntityType("SPACE");
+            entry.setOperation("UPDATE");
+            entry.setTimestamp(month.atDay(1).atTime(12, i));
+            table.add(entry);
+        }
+    }
+
+    private static boolean inRange(AuditLog entry, LocalDateTime from, LocalDateTime to) {
+        return !entry.getTimestamp().isBefore(from) && entry.getTimestamp().isBefore(to);
+    }
+}
@@ -0,0 +1,162 @@
+package app.web.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.web.inventory.model.AuditLog;
+import app.web.inventory.service.AuditArchiveStore.ArchiveFilter;
+import app.web.inventory.service.AuditArchiveStore.Block;
+import app.web.inventory.service.AuditArchiveStore.Manifest;
+
+class AuditArchiveStoreTest {
+
+    private static final UUID ALICE = new UUID(0, 1);
+    private static final UUID BOB = new UUID(0, 2);
+    private static final UUID SPACE = new UUID(1, 1);
+    private static final YearMonth MONTH = YearMonth.of(2026, 1);
+    private static final ArchiveFilter ALL = new ArchiveFilter(null, null, null, null, null, null, null);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @TempDir
+    Path directory;
+
+    private AuditArchiveStore store;
+
+    // (timestamp, id) order, two rows share a timestamp
+    private final List<AuditLog> rows = List.of(
+            entry(1, ALICE, "STOCK_ADD", MONTH.atDay(1).atStartOfDay()),
+            entry(2, BOB, "UPDATE", MONTH.atDay(5).atTime(9, 0)),
+            entry(3, ALICE, "STOCK_REMOVE", MONTH.atDay(12).atTime(9, 0)),
+            entry(4, BOB, "STOCK_ADD", MONTH.atDay(12).atTime(9, 0)),
+            entry(5, ALICE, "STOCK_ADD", MONTH.atEndOfMonth().atTime(23, 59, 59)));
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new AuditArchiveStore(objectMapper, directory.toString(), 2);
+        store.load();
+    }
+
+    @Test
+    void writesOneBlockPerBlockRows() throws IOException {
+        Manifest manifest = store.write(MONTH, rows::forEach);
+
+        assertEquals(5, manifest.rows());
+        assertEquals(List.of(2, 2, 1), manifest.blocks().stream().map(Block::rows).toList());
+        Block second = manifest.blocks().get(1);
+        assertEquals(rows.get(2).getTimestamp(), second.first());
+        assertEquals(rows.get(3).getTimestamp(), second.last());
+        assertTrue(Files.exists(directory.resolve("audit-2026-01.ndjson.gz")));
+        assertTrue(Files.exists(directory.resolve("audit-2026-01.json")));
+        try (var files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void readsBackEveryFieldNewestFirst() throws IOException {
+        store.write(MONTH, rows::forEach);
+
+        List<AuditLog> page = store.findPage(ALL, 0, 10);
+
+        assertEquals(List.of(5, 4, 3, 2, 1), ids(page));
+        assertEquals(rows.get(4), page.get(0));
+        assertEquals(List.of(3, 2), ids(store.findPage(ALL, 2, 2)));
+        assertEquals(5, store.count(ALL));
+    }
+
+    @Test
+    void reloadedStoreServesArchivedMonths() throws IOException {
+        store.write(MONTH, rows::forEach);
+        // Leftover of a write that never completed
+        Files.writeString(directory.resolve("audit-2026-02.ndjson.gz.tmp"), "partial");
+
+        AuditArchiveStore reloaded = new AuditArchiveStore(objectMapper, directory.toString(), 2);
+        reloaded.load();
+
+        assertTrue(reloaded.contains(MONTH));
+        assertFalse(reloaded.contains(MONTH.plusMonths(1)));
+        assertEquals(LocalDateTime.of(2026, 2, 1, 0, 0), reloaded.archivedBefore());
+        assertEquals(List.of(5, 4, 3, 2, 1), ids(reloaded.findPage(ALL, 0, 10)));
+        assertFalse(Files.exists(directory.resolve("audit-2026-02.ndjson.gz.tmp")));
+    }
+
+    @Test
+    void ignoresManifestsInAnotherFormat() throws IOException {
+        Files.writeString(directory.resolve("audit-2025-12.json"), """
+                {"format":"something-else","version":1,"month":"2025-12","rows":0,"blocks":[]}
+                """);
+
+        store.load();
+
+        assertFalse(store.contains(YearMonth.of(2025, 12)));
+        assertNull(store.archivedBefore());
+    }
+
+    @Test
+    void continuesAfterCursorIncludingTiedTimestamps() throws IOException {
+        store.write(MONTH, rows::forEach);
+        AuditLog cursor = rows.get(3);
+
+        List<AuditLog> page = store.findBefore(ALL, cursor.getTimestamp(), cursor.getId(), 2);
+
+        assertEquals(List.of(3, 2), ids(page));
+        assertEquals(List.of(5, 4, 3), ids(store.findBefore(ALL, null, null, 3)));
+    }
+
+    @Test
+    void appliesFiltersAndDateRange() throws IOException {
+        store.write(MONTH, rows::forEach);
+
+        assertEquals(List.of(5, 3, 1), ids(store.findPage(
+                new ArchiveFilter(ALICE, null, null, null, null, null, null), 0, 10)));
+        assertEquals(List.of(5, 4, 1), ids(store.findPage(
+                new ArchiveFilter(null, SPACE, null, "PRODUCT", "STOCK_ADD", null, null), 0, 10)));
+        assertEquals(List.of(4, 3, 2), ids(store.findPage(new ArchiveFilter(null, null, null, null, null,
+                MONTH.atDay(2).atStartOfDay(), MONTH.atDay(12).atTime(9, 0)), 0, 10)));
+        assertEquals(0, store.count(new ArchiveFilter(null, null, null, null, null,
+                MONTH.plusMonths(1).atDay(1).atStartOfDay(), null)));
+    }
+
+    private static AuditLog entry(int id, UUID userId, String operation, LocalDateTime timestamp) {
+        AuditLog entry = new AuditLog();
+        entry.setId(new UUID(9, id));
+        entry.setUserId(userId);
+        entry.setEntityType("PRODUCT");
+        entry.setEntityId(new UUID(2, id));
+        entry.setOperation(operation);
+        entry.setTimestamp(timestamp);
+        entry.setRelatedEntityId(SPACE);
+        entry.setRelatedEntityType("SPACE");
+        entry.setSpaceId(SPACE);
+        entry.setProductName("Product " + id);
+        entry.setSpaceName("Warehouse");
+        entry.setQuantityDelta(id);
+        entry.setOldStock(10);
+        entry.setNewStock(10 + id);
+        entry.setDescription("Added " + id + " units");
+        entry.setDetails("{\"quantityAdded\":" + id + "}");
+        return entry;
+    }
+
+    private static List<Integer> ids(List<AuditLog> entries) {
+        return entries.stream().map(entry -> (int) entry.getId().getLeastSignificantBits()).toList();
+    }
+}
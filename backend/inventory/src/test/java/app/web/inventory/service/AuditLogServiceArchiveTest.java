@@ -0,0 +1,174 @@
+package app.web.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.web.inventory.dto.audit.AuditLogDto;
+import app.web.inventory.dto.audit.AuditLogFilterRequest;
+import app.web.inventory.dto.pagination.CursorSlice;
+import app.web.inventory.model.AuditLog;
+import app.web.inventory.repository.AuditDailyRollupRepository;
+import app.web.inventory.repository.AuditLogRepository;
+
+class AuditLogServiceArchiveTest {
+
+    private static final UUID USER = new UUID(0, 1);
+    private static final UUID SPACE = new UUID(1, 1);
+    private static final YearMonth ARCHIVED = YearMonth.of(2026, 1);
+    private static final LocalDateTime HOT_START = LocalDateTime.of(2026, 2, 1, 0, 0);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final AuditLogRepository auditLogRepository = mock(AuditLogRepository.class);
+    // Rows in audit_logs, including one of the archived month whose removal is still running
+    private final List<AuditLog> table = new ArrayList<>();
+    // Start date the hot queries were limited to, per call
+    private final List<LocalDateTime> hotStarts = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    private AuditLogService auditLogService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        AuditArchiveStore store = new AuditArchiveStore(objectMapper, directory.toString(), 2);
+        store.load();
+        List<AuditLog> archived = List.of(
+                entry(1, ARCHIVED.atDay(5).atTime(9, 0)),
+                entry(2, ARCHIVED.atDay(10).atTime(9, 0)),
+                entry(3, ARCHIVED.atDay(20).atTime(9, 0)));
+        store.write(ARCHIVED, archived::forEach);
+
+        table.add(archived.get(2));
+        table.add(entry(4, LocalDateTime.of(2026, 2, 3, 9, 0)));
+        table.add(entry(5, LocalDateTime.of(2026, 2, 8, 9, 0)));
+
+        auditLogService = new AuditLogService(auditLogRepository, mock(AuditDailyRollupRepository.class),
+                objectMapper, mock(AuditLogWriter.class), store, mock(RecentActivityCache.class));
+
+        when(auditLogRepository.findBySpaceIdBefore(eq(SPACE), isNull(), isNull(), any(), any(), any(), any(),
+                any())).thenAnswer(call -> {
+                    LocalDateTime start = call.getArgument(3);
+                    LocalDateTime after = call.getArgument(5);
+                    Pageable limit = call.getArgument(7);
+                    hotStarts.add(start);
+                    return newestFirst().stream()
+                            .filter(entry -> start == null || !entry.getTimestamp().isBefore(start))
+                            .filter(entry -> after == null || entry.getTimestamp().isBefore(after))
+                            .limit(limit.getPageSize())
+                            .toList();
+                });
+        when(auditLogRepository.findByUserIdAndTimestampBetweenOrderByTimestampDesc(eq(USER), any(), any(),
+                any())).thenAnswer(call -> {
+                    LocalDateTime start = call.getArgument(1);
+                    Pageable pageable = call.getArgument(3);
+                    hotStarts.add(start);
+                    List<AuditLog> hot = newestFirst().stream()
+                            .filter(entry -> !entry.getTimestamp().isBefore(start))
+                            .toList();
+                    List<AuditLog> content = hot.stream()
+                            .skip(pageable.getOffset())
+                            .limit(pageable.getPageSize())
+                            .toList();
+                    return new PageImpl<>(content, pageable, hot.size());
+                });
+    }
+
+    @Test
+    void keysetPagesContinueFromHotRowsIntoTheArchive() {
+        AuditLogFilterRequest request = request(LocalDateTime.of(2025, 12, 1, 0, 0), 3);
+
+        CursorSlice<AuditLogDto> first = auditLogService.getSpaceAuditLogsAfter(SPACE, request, null);
+        CursorSlice<AuditLogDto> second = auditLogService.getSpaceAuditLogsAfter(SPACE, request,
+                first.getNextCursor());
+
+        assertEquals(List.of(5, 4, 3), ids(first.getContent()));
+        assertTrue(first.isHasNext());
+        assertEquals(List.of(2, 1), ids(second.getContent()));
+        assertFalse(second.isHasNext());
+        // The row left in the table is only ever read from the archive
+        assertEquals(List.of(HOT_START, HOT_START), hotStarts);
+    }
+
+    @Test
+    void rangeInsideTheHotTableDoesNotReadTheArchive() {
+        LocalDateTime start = LocalDateTime.of(2026, 2, 5, 0, 0);
+
+        CursorSlice<AuditLogDto> page = auditLogService.getSpaceAuditLogsAfter(SPACE, request(start, 3), null);
+
+        assertEquals(List.of(5), ids(page.getContent()));
+        assertEquals(List.of(start), hotStarts);
+    }
+
+    @Test
+    void offsetPagesAppendArchivedRowsAfterHotOnes() {
+        AuditLogFilterRequest request = request(LocalDateTime.of(2025, 12, 1, 0, 0), 3);
+        request.setEndDate(LocalDateTime.of(2026, 3, 1, 0, 0));
+
+        Page<AuditLogDto> first = auditLogService.getAuditLogs(USER, request);
+        request.setPage(1);
+        Page<AuditLogDto> second = auditLogService.getAuditLogs(USER, request);
+
+        assertEquals(List.of(5, 4, 3), ids(first.getContent()));
+        assertEquals(List.of(2, 1), ids(second.getContent()));
+        assertEquals(5, first.getTotalElements());
+        assertEquals(5, second.getTotalElements());
+        assertEquals(List.of(HOT_START, HOT_START), hotStarts);
+    }
+
+    private List<AuditLog> newestFirst() {
+        return table.stream()
+                .sorted(Comparator.comparing(AuditLog::getTimestamp).reversed())
+                .toList();
+    }
+
+    private static AuditLogFilterRequest request(LocalDateTime startDate, int size) {
+        AuditLogFilterRequest request = new AuditLogFilterRequest();
+        request.setStartDate(startDate);
+        request.setSize(size);
+        return request;
+    }
+
+    private static AuditLog entry(int id, LocalDateTime timestamp) {
+        AuditLog entry = new AuditLog();
+        entry.setId(new UUID(9, id));
+        entry.setUserId(USER);
+        entry.setEntityType("PRODUCT");
+        entry.setEntityId(new UUID(2, id));
+        entry.setOperation("STOCK_ADD");
+        entry.setTimestamp(timestamp);
+        entry.setRelatedEntityId(SPACE);
+        entry.setRelatedEntityType("SPACE");
+        entry.setSpaceId(SPACE);
+        return entry;
+    }
+
+    private static List<Integer> ids(List<AuditLogDto> entries) {
+        return entries.stream().map(entry -> (int) entry.getId().getLeastSignificantBits()).toList();
+    }
+}
@@ -0,0 +1,80 @@
+package app.web.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import app.web.inventory.repository.AuditLogRepository;
+
+class AuditLogSpaceBackfillTest {
+
+    private final AuditLogRepository auditLogRepository = mock(AuditLogRepository.class);
+
+    @Test
+    void updatesChunksUntilOneComesBackShort() throws Exception {
+        CountDownLatch lastChunk = new CountDownLatch(1);
+        when(auditLogRepository.backfillSpaceIds(3)).thenReturn(3, 3).thenAnswer(call -> {
+            lastChunk.countDown();
+            return 1;
+        });
+
+        new AuditLogSpaceBackfill(auditLogRepository, true, 3).start();
+
+        assertTrue(lastChunk.await(5, TimeUnit.SECONDS));
+        verify(auditLogRepository, after(200).times(3)).backfillSpaceIds(3);
+    }
+
+    @Test
+    void nothingLeftCostsOneStatement() {
+        when(auditLogRepository.backfillSpaceIds(3)).thenReturn(0);
+
+        new AuditLogSpaceBackfill(auditLogRepository, true, 3).start();
+
+        verify(auditLogRepository, after(200).times(1)).backfillSpaceIds(3);
+    }
+
+    @Test
+    void stopsAfterAFailedChunk() {
+        when(auditLogRepository.backfillSpaceIds(3)).thenReturn(3)
+                .thenThrow(new IllegalStateException("Lock wait timeout exceeded"));
+
+        new AuditLogSpaceBackfill(auditLogRepository, true, 3).start();
+
+        verify(auditLogRepository, after(200).times(2)).backfillSpaceIds(3);
+    }
+
+    @Test
+    void stopsBetweenChunksOnShutdown() {
+        AuditLogSpaceBackfill backfill = new AuditLogSpaceBackfill(auditLogRepository, true, 3);
+        when(auditLogRepository.backfillSpaceIds(3)).thenAnswer(call -> {
+            backfill.stop();
+            return 3;
+        });
+
+        backfill.start();
+
+        verify(auditLogRepository, after(200).times(1)).backfillSpaceIds(3);
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        new AuditLogSpaceBackfill(auditLogRepository, false, 3).start();
+
+        verifyNoInteractions(auditLogRepository);
+    }
+
+    @Test
+    void rejectsNonPositiveBatchSize() {
+        assertThrows(IllegalArgumentException.class, () -> new AuditLogSpaceBackfill(auditLogRepository, true, 0));
+    }
+}
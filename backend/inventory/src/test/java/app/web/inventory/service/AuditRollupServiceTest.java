@@ -0,0 +1,166 @@
+package app.web.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import app.web.inventory.repository.AuditDailyRollupRepository;
+import app.web.inventory.repository.AuditDailyRollupRepositoryImpl;
+import app.web.inventory.service.AuditRollupService.RebuildResult;
+
+class AuditRollupServiceTest {
+
+    private static final UUID ALICE = new UUID(0, 1);
+    private static final UUID BOB = new UUID(0, 2);
+    private static final UUID SPACE = new UUID(1, 1);
+    private static final UUID PRODUCT = new UUID(2, 1);
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:rollup-" + UUID.randomUUID()
+                    + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=TIMESTAMP;DB_CLOSE_DELAY=-1");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final AuditDailyRollupRepository rollupRepository = mock(AuditDailyRollupRepository.class);
+    private final AuditRollupService rollupService = new AuditRollupService(rollupRepository,
+            new DataSourceTransactionManager(dataSource), 2);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("""
+                CREATE TABLE audit_logs (
+                    id UUID PRIMARY KEY,
+                    user_id UUID NOT NULL,
+                    entity_type VARCHAR(100) NOT NULL,
+                    entity_id UUID,
+                    operation VARCHAR(50) NOT NULL,
+                    timestamp TIMESTAMP NOT NULL,
+                    related_entity_id UUID,
+                    related_entity_type VARCHAR(50),
+                    space_id UUID
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE audit_daily_rollup (
+                    scope_type VARCHAR(8) NOT NULL,
+                    scope_id UUID NOT NULL,
+                    activity_date DATE NOT NULL,
+                    operation VARCHAR(50) NOT NULL,
+                    activity_count BIGINT NOT NULL,
+                    PRIMARY KEY (scope_type, scope_id, activity_date, operation)
+                )
+                """);
+        // The service only needs the custom methods, which run for real against H2
+        AuditDailyRollupRepositoryImpl rollupImpl = new AuditDailyRollupRepositoryImpl(jdbcTemplate);
+        when(rollupRepository.rebuildDay(any())).thenAnswer(call -> rollupImpl.rebuildDay(call.getArgument(0)));
+        when(rollupRepository.findFirstActivityDate()).thenAnswer(call -> rollupImpl.findFirstActivityDate());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void rebuildsOneDayFromTheRawLogs() {
+        log(ALICE, "PRODUCT", PRODUCT, "STOCK_ADD", DAY.atTime(0, 0), SPACE, SPACE);
+        log(ALICE, "PRODUCT", PRODUCT, "STOCK_ADD", DAY.atTime(23, 59, 59), SPACE, SPACE);
+        // Written before space_id existed: the space comes from the related entity
+        log(BOB, "PRODUCT", PRODUCT, "STOCK_ADD", DAY.atTime(12, 0), SPACE, null);
+        log(BOB, "SPACE", SPACE, "UPDATE", DAY.atTime(12, 0), null, null);
+        log(BOB, "USER", BOB, "UPDATE", DAY.atTime(13, 0), null, null);
+        // Neighbouring days do not count towards DAY
+        log(ALICE, "PRODUCT", PRODUCT, "STOCK_ADD", DAY.minusDays(1).atTime(23, 59, 59), SPACE, SPACE);
+        log(ALICE, "PRODUCT", PRODUCT, "STOCK_ADD", DAY.plusDays(1).atStartOfDay(), SPACE, SPACE);
+        // Stale counters: a wrong count and an operation with no logs left
+        rollup("USER", ALICE, DAY, "STOCK_ADD", 7);
+        rollup("USER", ALICE, DAY, "DELETE", 1);
+        rollup("USER", ALICE, DAY.minusDays(1), "STOCK_ADD", 5);
+
+        RebuildResult result = rollupService.rebuild(DAY, DAY);
+
+        assertEquals(new RebuildResult(DAY, DAY, 1, 5), result);
+        assertEquals(Map.of(
+                "USER " + ALICE + " STOCK_ADD", 2L,
+                "USER " + BOB + " STOCK_ADD", 1L,
+                "USER " + BOB + " UPDATE", 2L,
+                "SPACE " + SPACE + " STOCK_ADD", 3L,
+                "SPACE " + SPACE + " UPDATE", 1L), counters(DAY));
+        // Other days keep their counters
+        assertEquals(Map.of("USER " + ALICE + " STOCK_ADD", 5L), counters(DAY.minusDays(1)));
+    }
+
+    @Test
+    void rebuildingTwiceGivesTheSameCounters() {
+        log(ALICE, "PRODUCT", PRODUCT, "STOCK_ADD", DAY.atTime(9, 0), SPACE, SPACE);
+        log(BOB, "SPACE", SPACE, "UPDATE", DAY.atTime(10, 0), null, SPACE);
+
+        rollupService.rebuild(DAY, DAY);
+        Map<String, Long> first = counters(DAY);
+        rollupService.rebuild(DAY, DAY);
+
+        assertEquals(first, counters(DAY));
+        assertEquals(4, first.size());
+    }
+
+    @Test
+    void startsAtTheOldestRemainingLog() {
+        log(ALICE, "PRODUCT", PRODUCT, "STOCK_ADD", DAY.atTime(9, 0), SPACE, SPACE);
+        // Archived day: its logs are gone and the rollup is all that is left
+        rollup("USER", ALICE, DAY.minusDays(3), "STOCK_ADD", 4);
+
+        RebuildResult result = rollupService.rebuild(DAY.minusDays(5), DAY.plusDays(1));
+
+        assertEquals(new RebuildResult(DAY, DAY.plusDays(1), 2, 2), result);
+        assertEquals(Map.of("USER " + ALICE + " STOCK_ADD", 4L), counters(DAY.minusDays(3)));
+    }
+
+    @Test
+    void nothingToRebuildWithoutLogs() {
+        assertEquals(new RebuildResult(DAY, DAY, 0, 0), rollupService.rebuild(DAY, DAY));
+    }
+
+    @Test
+    void rejectsStartAfterEnd() {
+        assertThrows(IllegalArgumentException.class, () -> rollupService.rebuild(DAY, DAY.minusDays(1)));
+    }
+
+    private void log(UUID userId, String entityType, UUID entityId, String operation, LocalDateTime timestamp,
+            UUID relatedSpaceId, UUID spaceId) {
+        jdbcTemplate.update("""
+                INSERT INTO audit_logs (id, user_id, entity_type, entity_id, operation, timestamp,
+                    related_entity_id, related_entity_type, space_id)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, UUID.randomUUID(), userId, entityType, entityId, operation, timestamp, relatedSpaceId,
+                relatedSpaceId != null ? "SPACE" : null, spaceId);
+    }
+
+    private void rollup(String scopeType, UUID scopeId, LocalDate day, String operation, long count) {
+        jdbcTemplate.update("INSERT INTO audit_daily_rollup VALUES (?, ?, ?, ?, ?)", scopeType, scopeId, day,
+                operation, count);
+    }
+
+    // "<scope type> <scope id> <operation>" -> count of one day
+    private Map<String, Long> counters(LocalDate day) {
+        Map<String, Long> counters = new TreeMap<>();
+        jdbcTemplate.query("SELECT * FROM audit_daily_rollup WHERE activity_date = ?", rs -> {
+            counters.put(rs.getString("scope_type") + " " + rs.getObject("scope_id", UUID.class) + " "
+                    + rs.getString("operation"), rs.getLong("activity_count"));
+        }, day);
+        return counters;
+    }
+}
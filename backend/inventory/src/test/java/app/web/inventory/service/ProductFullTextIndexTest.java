@@ -0,0 +1,92 @@
+package app.web.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import app.web.inventory.model.Products;
+import app.web.inventory.model.Spaces;
+import app.web.inventory.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProductFullTextIndexTest {
+
+    private static final UUID SPACE = new UUID(0, 1);
+
+    @TempDir
+    Path indexPath;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private ProductFullTextIndex index;
+
+    @AfterEach
+    void stop() throws Exception {
+        if (index != null) {
+            index.stop();
+        }
+    }
+
+    @Test
+    void failedReindexKeepsThePreviousIndex() throws Exception {
+        Products first = product(1, "Blue widget");
+        Products second = product(2, "Red widget");
+        Products third = product(3, "Green widget");
+        when(productRepository.findNextBatchAfter(isNull(), any())).thenReturn(List.of(first, second));
+        when(productRepository.findNextBatchAfter(eq(second.getId()), any()))
+                .thenReturn(List.of(third));
+        // An empty index is rebuilt by the indexing thread
+        index = start();
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (hits(index) < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(3, hits(index));
+
+        // The second batch fails after the first one was written
+        when(productRepository.findNextBatchAfter(eq(second.getId()), any()))
+                .thenThrow(new IllegalStateException("database went away"));
+        assertThrows(IllegalStateException.class, index::reindexAll);
+
+        assertEquals(3, hits(index));
+        index.stop();
+
+        // Nothing of the failed rebuild was committed to disk either
+        index = start();
+        assertEquals(3, hits(index));
+    }
+
+    private ProductFullTextIndex start() throws Exception {
+        ProductFullTextIndex started = new ProductFullTextIndex(productRepository, new SimpleMeterRegistry(), true,
+                indexPath.toString(), 2, 60_000, 100);
+        started.start();
+        return started;
+    }
+
+    private static long hits(ProductFullTextIndex index) {
+        return index.search(SPACE, null, null, null, null, null, 0, 10).totalHits();
+    }
+
+    private static Products product(long id, String name) {
+        Spaces space = new Spaces();
+        space.setId(SPACE);
+        Products product = new Products();
+        product.setId(new UUID(1, id));
+        product.setSpace(space);
+        product.setName(name);
+        product.setPrice(10.0);
+        product.setCurrentStock(5);
+        return product;
+    }
+}
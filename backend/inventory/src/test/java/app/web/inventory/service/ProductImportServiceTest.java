@@ -0,0 +1,163 @@
+package app.web.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.web.inventory.dto.product.ImportJobDto;
+import app.web.inventory.dto.product.ImportJobDto.RowError;
+import app.web.inventory.model.Products;
+import app.web.inventory.model.enums.SpaceRole;
+import app.web.inventory.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProductImportServiceTest {
+
+    private static final UUID USER = new UUID(0, 1);
+    private static final UUID SPACE = new UUID(0, 2);
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final SpaceService spaceService = mock(SpaceService.class);
+    private final ProductFullTextIndex fullTextIndex = mock(ProductFullTextIndex.class);
+    private final ProductImportService importService = new ProductImportService(productRepository, spaceService,
+            mock(AuditLogService.class), mock(SpaceInventoryStatsService.class), mock(ProductSearchIndex.class),
+            mock(ProductSuggestIndex.class), fullTextIndex, new ObjectMapper(),
+            mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 3, 1, 1, 60);
+
+    // Names of the products that reached the database, in insert order
+    private final List<String> stored = new ArrayList<>();
+    private final List<UUID> indexed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(spaceService.getUserRoleInSpace(SPACE, USER)).thenReturn(SpaceRole.MEMBER);
+        when(spaceService.hasAccessToSpace(SPACE, USER)).thenReturn(true);
+        when(productRepository.batchInsert(eq(SPACE), anyList())).thenAnswer(call -> {
+            List<Products> products = call.getArgument(1);
+            if (products.stream().anyMatch(product -> "DUP".equals(product.getSku()))) {
+                throw new DuplicateKeyException("Duplicate entry 'DUP'");
+            }
+            products.forEach(product -> stored.add(product.getName()));
+            return new int[products.size()];
+        });
+        doAnswer(call -> {
+            call.<Iterable<UUID>>getArgument(0).forEach(indexed::add);
+            return null;
+        }).when(fullTextIndex).onChanges(anyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.stop();
+    }
+
+    @Test
+    void parsesCsvAndReportsInvalidRows() throws Exception {
+        ImportJobDto job = runImport("products.csv", """
+                \uFEFFName,Price,CurrentStock,SKU
+                Bolt,1.5,10,B-1
+                Nut,cheap,5,N-1
+
+                "Washer, steel",0.2,100,W-1
+                Screw,0.3,-1,S-1
+                Spring,2,3
+                """);
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(5, job.getProcessedRows());
+        assertEquals(3, job.getImportedRows());
+        assertEquals(2, job.getFailedRows());
+        assertEquals(List.of(
+                new RowError(2, "Price must be a number"),
+                new RowError(4, "Current stock must be non-negative")), job.getErrors());
+        assertEquals(List.of("Bolt", "Washer, steel", "Spring"), stored);
+    }
+
+    @Test
+    void rejectsCsvWithoutNameColumn() throws Exception {
+        ImportJobDto job = runImport("products.csv", """
+                title,price,currentStock
+                Bolt,1.5,10
+                """);
+
+        assertEquals("FAILED", job.getStatus());
+        assertEquals("CSV header must contain a name column", job.getMessage());
+        assertEquals(List.of(), stored);
+    }
+
+    @Test
+    void parsesNdjsonAndReportsInvalidRows() throws Exception {
+        ImportJobDto job = runImport("products.ndjson", """
+                {"name":"Bolt","price":1.5,"currentStock":10}
+                {"name":"Nut",
+                [1,2,3]
+
+                {"NAME":"Washer","PRICE":"0.2","currentstock":100,"sku":null}
+                {"name":"Screw","price":0.3,"currentStock":1,"minimumQuantity":5,"maximumQuantity":2}
+                """);
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(5, job.getProcessedRows());
+        assertEquals(2, job.getImportedRows());
+        assertEquals(3, job.getFailedRows());
+        assertEquals(List.of(2L, 3L, 5L), job.getErrors().stream().map(RowError::getRow).toList());
+        assertEquals("Invalid JSON: Row must be a JSON object", job.getErrors().get(1).getMessage());
+        assertEquals("Maximum quantity must be greater than or equal to minimum quantity",
+                job.getErrors().get(2).getMessage());
+        assertEquals(List.of("Bolt", "Washer"), stored);
+    }
+
+    @Test
+    void retriesFailedBatchRowByRow() throws Exception {
+        ImportJobDto job = runImport("products.csv", """
+                name,price,currentStock,sku
+                Bolt,1.5,10,B-1
+                Nut,0.1,5,DUP
+                Washer,0.2,100,W-1
+                Screw,0.3,1,S-1
+                """);
+
+        assertEquals("COMPLETED", job.getStatus());
+        assertEquals(4, job.getProcessedRows());
+        assertEquals(3, job.getImportedRows());
+        assertEquals(1, job.getFailedRows());
+        assertEquals(List.of(new RowError(2, "A product with this SKU already exists in this space")),
+                job.getErrors());
+        // The first batch went in one row at a time, the second as a batch
+        assertEquals(List.of("Bolt", "Washer", "Screw"), stored);
+        assertEquals(3, indexed.size());
+    }
+
+    private ImportJobDto runImport(String fileName, String content) throws InterruptedException {
+        MockMultipartFile file = new MockMultipartFile("file", fileName, "text/plain",
+                content.getBytes(StandardCharsets.UTF_8));
+        UUID jobId = importService.submit(USER, SPACE, file, null).getJobId();
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        ImportJobDto job = importService.getJob(USER, SPACE, jobId);
+        while (job.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = importService.getJob(USER, SPACE, jobId);
+        }
+        assertNotNull(job.getFinishedAt(), "import did not finish");
+        return job;
+    }
+}
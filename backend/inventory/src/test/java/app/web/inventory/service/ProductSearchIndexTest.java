@@ -0,0 +1,41 @@
+package app.web.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import app.web.inventory.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProductSearchIndexTest {
+
+    private static final UUID SPACE = new UUID(0, 1);
+    private static final UUID CAFE = new UUID(1, 1);
+    private static final UUID STRASSE = new UUID(1, 2);
+    private static final UUID TEA = new UUID(1, 3);
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductSearchIndex index = new ProductSearchIndex(productRepository,
+            mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 1000, 1000);
+
+    @Test
+    void matchesIgnoringCaseAndAccents() {
+        when(productRepository.findIdAndNameBySpaceId(SPACE)).thenReturn(List.of(
+                new Object[] { CAFE, "Café Crème" },
+                new Object[] { STRASSE, "Straße Map" },
+                new Object[] { TEA, "Green TEA" }));
+
+        assertEquals(Set.of(CAFE), index.search(SPACE, "cafe"));
+        assertEquals(Set.of(CAFE), index.search(SPACE, "CAFÉ CREME"));
+        assertEquals(Set.of(STRASSE), index.search(SPACE, "strasse"));
+        assertEquals(Set.of(TEA), index.search(SPACE, "tea"));
+        assertEquals(Set.of(), index.search(SPACE, "coffee"));
+    }
+}
@@ -0,0 +1,90 @@
+package app.web.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import app.web.inventory.dto.stock.BatchStockRequest.StockDelta;
+import app.web.inventory.dto.stock.BatchStockResultDto;
+import app.web.inventory.dto.stock.BatchStockResultDto.LineResult;
+import app.web.inventory.model.AuditLog;
+import app.web.inventory.model.Products;
+import app.web.inventory.model.Spaces;
+import app.web.inventory.model.enums.SpaceRole;
+import app.web.inventory.repository.ProductRepository;
+
+class ProductServiceStockBatchTest {
+
+    private static final UUID USER = new UUID(0, 1);
+    private static final UUID SPACE = new UUID(0, 2);
+    private static final UUID FIRST = new UUID(1, 1);
+    private static final UUID SECOND = new UUID(1, 2);
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final SpaceService spaceService = mock(SpaceService.class);
+    private final AuditLogService auditLogService = mock(AuditLogService.class);
+    private final ProductService productService = new ProductService(productRepository, spaceService,
+            auditLogService, mock(SpaceInventoryStatsService.class), mock(ProductSearchIndex.class),
+            mock(ProductSuggestIndex.class), mock(ProductFullTextIndex.class));
+
+    @Test
+    void appliesLinesInProductOrderAndReportsThemInRequestOrder() {
+        Spaces space = new Spaces();
+        space.setId(SPACE);
+        space.setName("Warehouse");
+        when(spaceService.getUserRoleInSpace(SPACE, USER)).thenReturn(SpaceRole.MEMBER);
+        when(spaceService.getSpaceById(SPACE)).thenReturn(space);
+        when(auditLogService.createAuditLog(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenAnswer(call -> new AuditLog());
+        // Both products started at 10; the removal of 20 from SECOND failed its guard
+        when(productRepository.batchApplyStockDeltas(SPACE, List.of(FIRST, FIRST, SECOND, SECOND),
+                List.of(3, -1, 5, -20))).thenReturn(new int[] { 1, 1, 1, 0 });
+        when(productRepository.findBySpaceIdAndIdIn(eq(SPACE), any()))
+                .thenReturn(List.of(product(FIRST, 12), product(SECOND, 15)));
+
+        BatchStockResultDto result = productService.applyStockBatch(USER, SPACE, List.of(
+                new StockDelta(SECOND, 5),
+                new StockDelta(FIRST, 3),
+                new StockDelta(SECOND, -20),
+                new StockDelta(FIRST, -1)));
+
+        verify(productRepository).batchApplyStockDeltas(eq(SPACE), anyList(), anyList());
+        assertEquals(3, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertLine(result.getResults().get(0), 0, SECOND, true, 10, 15);
+        assertLine(result.getResults().get(1), 1, FIRST, true, 10, 13);
+        assertLine(result.getResults().get(2), 2, SECOND, false, 15, 15);
+        assertLine(result.getResults().get(3), 3, FIRST, true, 13, 12);
+        assertEquals("Insufficient stock. Current: 15, Requested: 20", result.getResults().get(2).getMessage());
+    }
+
+    private static void assertLine(LineResult line, int index, UUID productId, boolean success,
+            int oldStock, int newStock) {
+        assertEquals(index, line.getIndex());
+        assertEquals(productId, line.getProductId());
+        assertEquals(success, line.isSuccess());
+        assertEquals(oldStock, line.getOldStock());
+        assertEquals(newStock, line.getNewStock());
+    }
+
+    private static Products product(UUID id, int stock) {
+        Spaces space = new Spaces();
+        space.setId(SPACE);
+        Products product = new Products();
+        product.setId(id);
+        product.setSpace(space);
+        product.setName("Product " + id);
+        product.setPrice(1.0);
+        product.setCurrentStock(stock);
+        return product;
+    }
+}
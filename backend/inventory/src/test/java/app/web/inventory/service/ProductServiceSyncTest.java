@@ -0,0 +1,139 @@
+package app.web.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import app.web.inventory.dto.product.ProductSyncRequest.SyncItem;
+import app.web.inventory.dto.product.ProductSyncResultDto;
+import app.web.inventory.model.AuditLog;
+import app.web.inventory.model.Products;
+import app.web.inventory.model.Spaces;
+import app.web.inventory.model.enums.SpaceRole;
+import app.web.inventory.repository.ProductRepository;
+
+class ProductServiceSyncTest {
+
+    private static final UUID USER = new UUID(0, 1);
+    private static final UUID SPACE = new UUID(0, 2);
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final SpaceService spaceService = mock(SpaceService.class);
+    private final AuditLogService auditLogService = mock(AuditLogService.class);
+    private final SpaceInventoryStatsService statsService = mock(SpaceInventoryStatsService.class);
+    private final ProductService productService = new ProductService(productRepository, spaceService,
+            auditLogService, statsService, mock(ProductSearchIndex.class), mock(ProductSuggestIndex.class),
+            mock(ProductFullTextIndex.class));
+
+    // Audit entries passed to each logActions call
+    private final List<List<AuditLog>> audited = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Spaces space = new Spaces();
+        space.setId(SPACE);
+        space.setName("Warehouse");
+        when(spaceService.getUserRoleInSpace(SPACE, USER)).thenReturn(SpaceRole.OWNER);
+        when(spaceService.getSpaceById(SPACE)).thenReturn(space);
+        when(auditLogService.createAuditLog(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenAnswer(call -> new AuditLog());
+        doAnswer(call -> audited.add(List.copyOf(call.<List<AuditLog>>getArgument(0))))
+                .when(auditLogService).logActions(anyList());
+        when(productRepository.findBySpaceIdAndSkuIn(eq(SPACE), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void rerunningTheSameCatalogWritesNothing() {
+        List<SyncItem> catalog = List.of(
+                new SyncItem("SKU-1", "Blue widget", "Widgets", null, 9.5, 10, 2, 50),
+                new SyncItem("SKU-2", "Red widget", null, null, 4.0, null, null, null));
+
+        ProductSyncResultDto first = productService.syncProducts(USER, SPACE, catalog);
+        assertEquals(2, first.getCreated());
+        assertEquals(2, audited.get(0).size());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Products>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(productRepository).batchInsert(eq(SPACE), inserted.capture());
+        when(productRepository.findBySpaceIdAndSkuIn(eq(SPACE), any())).thenReturn(inserted.getValue());
+
+        ProductSyncResultDto second = productService.syncProducts(USER, SPACE, catalog);
+
+        assertEquals(0, second.getCreated());
+        assertEquals(0, second.getUpdated());
+        assertEquals(2, second.getUnchanged());
+        assertEquals(List.of(), second.getResults());
+        verify(productRepository, times(1)).batchInsert(any(), any());
+        verify(productRepository, never()).save(any());
+        assertEquals(0, audited.get(1).size());
+    }
+
+    @Test
+    void changedFieldIsTheOnlyWriteAndAuditEntry() {
+        Products existing = product("SKU-1", "Blue widget", 9.5);
+        when(productRepository.findBySpaceIdAndSkuIn(eq(SPACE), any())).thenReturn(List.of(existing));
+
+        ProductSyncResultDto result = productService.syncProducts(USER, SPACE, List.of(
+                new SyncItem("SKU-1", "Blue widget", null, null, 11.0, null, null, null)));
+
+        assertEquals(1, result.getUpdated());
+        assertEquals(11.0, existing.getPrice());
+        assertEquals(1, audited.get(0).size());
+        verify(productRepository, never()).batchInsert(any(), any());
+    }
+
+    @Test
+    void matchesExistingSkuIgnoringCaseAndAccents() {
+        Products existing = product("Café-1", "Coffee", 3.0);
+        when(productRepository.findBySpaceIdAndSkuIn(eq(SPACE), any())).thenReturn(List.of(existing));
+
+        ProductSyncResultDto result = productService.syncProducts(USER, SPACE, List.of(
+                new SyncItem("CAFE-1", "Coffee", null, null, 3.0, null, null, null)));
+
+        assertEquals(0, result.getCreated());
+        assertEquals(1, result.getUnchanged());
+        verify(productRepository, never()).batchInsert(any(), any());
+    }
+
+    @Test
+    void skusEqualUnderTheCollationAreReportedPerRow() {
+        ProductSyncResultDto result = productService.syncProducts(USER, SPACE, List.of(
+                new SyncItem("Café-1", "Coffee", null, null, 3.0, null, null, null),
+                new SyncItem("CAFE-1", "Coffee again", null, null, 3.0, null, null, null)));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getFailed());
+        ProductSyncResultDto.LineResult failure = result.getResults().get(1);
+        assertEquals(1, failure.getIndex());
+        assertEquals("FAILED", failure.getOutcome());
+        assertEquals("Duplicate SKU in this sync", failure.getMessage());
+    }
+
+    private static Products product(String sku, String name, double price) {
+        Spaces space = new Spaces();
+        space.setId(SPACE);
+        Products product = new Products();
+        product.setId(UUID.randomUUID());
+        product.setSpace(space);
+        product.setSku(sku);
+        product.setName(name);
+        product.setPrice(price);
+        product.setCurrentStock(5);
+        return product;
+    }
+}
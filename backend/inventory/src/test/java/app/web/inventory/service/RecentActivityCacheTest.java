@@ -0,0 +1,98 @@
+package app.web.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import app.web.inventory.dto.audit.AuditLogDto;
+import app.web.inventory.model.AuditLog;
+import app.web.inventory.repository.AuditLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RecentActivityCacheTest {
+
+    private static final UUID SPACE = new UUID(1, 1);
+    private static final LocalDateTime SINCE = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private final AuditLogRepository auditLogRepository = mock(AuditLogRepository.class);
+    private final RecentActivityCache cache = new RecentActivityCache(auditLogRepository, new SimpleMeterRegistry(),
+            true, 50, 100, 60, 600);
+
+    private final AuditLog first = entry(1, SINCE.plusHours(1));
+    private final AuditLog second = entry(2, SINCE.plusHours(2));
+    private final AuditLog third = entry(3, SINCE.plusHours(3));
+
+    @Test
+    void entriesCommittedWhileSeedingAreMergedOnce() {
+        when(auditLogRepository.findLatestBySpaceId(eq(SPACE), any())).thenAnswer(call -> {
+            // Committed during the load: second made it into the query, third did not
+            cache.onCommitted(List.of(second, third));
+            return List.of(second, first);
+        });
+
+        List<AuditLogDto> feed = cache.recentForSpace(SPACE, SINCE);
+
+        assertEquals(List.of(3, 2, 1), ids(feed));
+        assertEquals(List.of(3, 2, 1), ids(cache.recentForSpace(SPACE, SINCE)));
+        verify(auditLogRepository, times(1)).findLatestBySpaceId(eq(SPACE), any());
+    }
+
+    @Test
+    void entriesCommittedAfterSeedingAreAppended() {
+        when(auditLogRepository.findLatestBySpaceId(eq(SPACE), any())).thenReturn(List.of(second, first));
+        cache.recentForSpace(SPACE, SINCE);
+
+        cache.onCommitted(List.of(third));
+
+        assertEquals(List.of(3, 2, 1), ids(cache.recentForSpace(SPACE, SINCE)));
+        assertEquals(List.of(3), ids(cache.recentForSpace(SPACE, third.getTimestamp())));
+        verify(auditLogRepository, times(1)).findLatestBySpaceId(eq(SPACE), any());
+    }
+
+    @Test
+    void requestDuringSeedingReadsTheDatabase() {
+        List<List<AuditLogDto>> concurrent = new ArrayList<>();
+        AtomicBoolean loading = new AtomicBoolean();
+        when(auditLogRepository.findLatestBySpaceId(eq(SPACE), any())).thenAnswer(call -> {
+            if (loading.compareAndSet(false, true)) {
+                // A second request arrives while the first one is still loading
+                concurrent.add(cache.recentForSpace(SPACE, SINCE));
+            }
+            return List.of(second, first);
+        });
+
+        List<AuditLogDto> feed = cache.recentForSpace(SPACE, SINCE);
+
+        assertEquals(List.of(2, 1), ids(feed));
+        assertEquals(List.of(2, 1), ids(concurrent.get(0)));
+        verify(auditLogRepository, times(2)).findLatestBySpaceId(eq(SPACE), any());
+    }
+
+    private static AuditLog entry(int id, LocalDateTime timestamp) {
+        AuditLog entry = new AuditLog();
+        entry.setId(new UUID(9, id));
+        entry.setUserId(new UUID(0, 1));
+        entry.setEntityType("PRODUCT");
+        entry.setEntityId(new UUID(2, id));
+        entry.setOperation("STOCK_ADD");
+        entry.setTimestamp(timestamp);
+        entry.setSpaceId(SPACE);
+        return entry;
+    }
+
+    private static List<Integer> ids(List<AuditLogDto> entries) {
+        return entries.stream().map(entry -> (int) entry.getId().getLeastSignificantBits()).toList();
+    }
+}
@@ -0,0 +1,78 @@
+package app.web.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import app.web.inventory.model.enums.SpaceRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SpaceRoleCacheTest {
+
+    private static final UUID SPACE = new UUID(0, 1);
+    private static final UUID OTHER_SPACE = new UUID(0, 2);
+    private static final UUID USER = new UUID(1, 1);
+
+    private final SpaceRoleCache cache = new SpaceRoleCache(new SimpleMeterRegistry(), 100, 60);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void cachesRoleReadWithoutConcurrentChange() {
+        long version = cache.version(SPACE);
+        cache.put(SPACE, USER, SpaceRole.MEMBER, version);
+
+        assertEquals(SpaceRole.MEMBER, cache.get(SPACE, USER));
+    }
+
+    @Test
+    void lookupReadingBeforeRemovalCommitsDoesNotRecacheOldRole() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidate(SPACE, USER); // removeMember, not yet committed
+
+        // A concurrent lookup still sees the membership
+        long version = cache.version(SPACE);
+        SpaceRole readBeforeCommit = SpaceRole.MEMBER;
+
+        // removeMember commits
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        cache.put(SPACE, USER, readBeforeCommit, version);
+
+        assertNull(cache.get(SPACE, USER));
+    }
+
+    @Test
+    void lookupInSnapshotOlderThanRemovalDoesNotRecacheOldRole() {
+        cache.invalidate(SPACE, USER); // removeMember has committed
+
+        // A lookup whose transaction snapshot predates the commit still reads the membership
+        long version = cache.version(SPACE);
+        cache.put(SPACE, USER, SpaceRole.MEMBER, version);
+
+        assertNull(cache.get(SPACE, USER));
+    }
+
+    @Test
+    void removalInOneSpaceKeepsCachingOthers() {
+        cache.invalidate(SPACE, USER);
+
+        long version = cache.version(OTHER_SPACE);
+        cache.put(OTHER_SPACE, USER, SpaceRole.ADMIN, version);
+
+        assertEquals(SpaceRole.ADMIN, cache.get(OTHER_SPACE, USER));
+    }
+}
@@ -0,0 +1,163 @@
+package app.web.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import app.web.inventory.model.SpaceMember;
+import app.web.inventory.model.Spaces;
+import app.web.inventory.model.Users;
+import app.web.inventory.model.enums.SpaceRole;
+import app.web.inventory.repository.ProductRepository;
+import app.web.inventory.repository.SpaceMemberRepository;
+import app.web.inventory.repository.SpaceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Removing a member through SpaceService takes away access on this node at
+ * once, even when the member's role was cached just before.
+ */
+class SpaceServiceMemberRemovalTest {
+
+    private static final UUID SPACE = new UUID(0, 1);
+    private static final UUID OWNER = new UUID(1, 1);
+    private static final UUID MEMBER = new UUID(1, 2);
+
+    private final SpaceRepository spaceRepository = mock(SpaceRepository.class);
+    private final SpaceMemberRepository spaceMemberRepository = mock(SpaceMemberRepository.class);
+
+    // Committed memberships, as other transactions see them
+    private final Map<UUID, SpaceMember> committed = new HashMap<>();
+    // Deleted by the running transaction, applied on commit
+    private final Set<UUID> pendingDeletes = new HashSet<>();
+    // Runs once after the next membership read has taken its result
+    private Runnable afterNextRead;
+
+    private SpaceService spaceService;
+
+    @BeforeEach
+    void setUp() {
+        Users owner = user(OWNER, "owner@example.com");
+        Spaces space = new Spaces();
+        space.setId(SPACE);
+        space.setName("Warehouse");
+        space.setOwner(owner);
+        when(spaceRepository.findById(SPACE)).thenReturn(Optional.of(space));
+
+        SpaceMember member = new SpaceMember();
+        member.setSpace(space);
+        member.setUser(user(MEMBER, "member@example.com"));
+        member.setRole(SpaceRole.MEMBER);
+        committed.put(MEMBER, member);
+
+        when(spaceMemberRepository.findBySpaceIdAndUserId(any(), any()))
+                .thenAnswer(call -> {
+                    Optional<SpaceMember> result = Optional.ofNullable(committed.get(call.<UUID>getArgument(1)));
+                    Runnable hook = afterNextRead;
+                    afterNextRead = null;
+                    if (hook != null) {
+                        hook.run();
+                    }
+                    return result;
+                });
+        doAnswer(call -> pendingDeletes.add(call.<SpaceMember>getArgument(0).getUser().getId()))
+                .when(spaceMemberRepository).delete(any());
+
+        spaceService = new SpaceService(spaceRepository, mock(UserService.class), mock(AuditLogService.class),
+                spaceMemberRepository, mock(ProductRepository.class), mock(EmailService.class),
+                mock(SpaceInventoryStatsService.class), new SpaceRoleCache(new SimpleMeterRegistry(), 100, 60),
+                mock(ProductSearchIndex.class), mock(ProductSuggestIndex.class), mock(ProductFullTextIndex.class));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void cachedMemberLosesAccessOnceRemoved() {
+        assertTrue(spaceService.hasAccessToSpace(SPACE, MEMBER));
+        assertEquals(SpaceRole.MEMBER, spaceService.getUserRoleInSpace(SPACE, MEMBER));
+        // The second lookup was served from the cache
+        verify(spaceMemberRepository, times(1)).findBySpaceIdAndUserId(SPACE, MEMBER);
+
+        TransactionSynchronizationManager.initSynchronization();
+        spaceService.removeMember(SPACE, OWNER, MEMBER);
+        commit();
+
+        assertFalse(spaceService.hasAccessToSpace(SPACE, MEMBER));
+        assertThrows(SecurityException.class, () -> spaceService.getUserRoleInSpace(SPACE, MEMBER));
+    }
+
+    @Test
+    void lookupReadingBeforeCommitDoesNotKeepAccess() {
+        TransactionSynchronizationManager.initSynchronization();
+        spaceService.removeMember(SPACE, OWNER, MEMBER);
+        var removal = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Another request on this node reads the membership, then the removal
+        // commits before that request caches what it read
+        afterNextRead = () -> {
+            pendingDeletes.forEach(committed::remove);
+            pendingDeletes.clear();
+            removal.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        };
+        assertTrue(spaceService.hasAccessToSpace(SPACE, MEMBER));
+
+        assertFalse(spaceService.hasAccessToSpace(SPACE, MEMBER));
+    }
+
+    @Test
+    void rolledBackRemovalKeepsAccess() {
+        assertTrue(spaceService.hasAccessToSpace(SPACE, MEMBER));
+
+        TransactionSynchronizationManager.initSynchronization();
+        spaceService.removeMember(SPACE, OWNER, MEMBER);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertTrue(spaceService.hasAccessToSpace(SPACE, MEMBER));
+    }
+
+    private void commit() {
+        pendingDeletes.forEach(committed::remove);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private void complete(int status) {
+        pendingDeletes.clear();
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(sync -> sync.afterCompletion(status));
+    }
+
+    private static Users user(UUID id, String email) {
+        Users user = new Users();
+        user.setId(id);
+        user.setEmail(email);
+        user.setName(email);
+        return user;
+    }
+}
@@ -0,0 +1,63 @@
+package app.web.inventory.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void returnsStoredValue() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, 60_000);
+        cache.put("a", 1);
+
+        assertEquals(1, cache.get("a"));
+    }
+
+    @Test
+    void dropsExpiredEntries() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, 60_000);
+        cache.putUntil("a", 1, System.nanoTime() - 1);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void staysWithinMaxSizeAndKeepsNewestEntry() {
+        BoundedTtlCache<Integer, Integer> cache = new BoundedTtlCache<>(100, 60_000);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+
+        assertTrue(cache.size() <= 100);
+        assertEquals(999, cache.get(999));
+    }
+
+    @Test
+    void staysBoundedWithSingleEntry() {
+        BoundedTtlCache<Integer, Integer> cache = new BoundedTtlCache<>(1, 60_000);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i);
+        }
+
+        assertEquals(1, cache.size());
+        assertEquals(9, cache.get(9));
+    }
+
+    @Test
+    void invalidatesMatchingKeys() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, 60_000);
+        cache.put("space-1:a", 1);
+        cache.put("space-1:b", 2);
+        cache.put("space-2:a", 3);
+
+        cache.invalidateIf(key -> key.startsWith("space-1:"));
+
+        assertNull(cache.get("space-1:a"));
+        assertNull(cache.get("space-1:b"));
+        assertEquals(3, cache.get("space-2:a"));
+    }
+}
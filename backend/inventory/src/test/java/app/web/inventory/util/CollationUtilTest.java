@@ -0,0 +1,26 @@
+package app.web.inventory.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class CollationUtilTest {
+
+    @Test
+    void ignoresCaseAndAccents() {
+        assertEquals("creme brulee", CollationUtil.fold("Crème Brûlée"));
+        assertEquals(CollationUtil.fold("cafe-1"), CollationUtil.fold("CAFÉ-1"));
+    }
+
+    @Test
+    void spellsOutCompatibilityForms() {
+        assertEquals("office", CollationUtil.fold("Oﬃce"));
+        assertEquals("strasse", CollationUtil.fold("Straße"));
+    }
+
+    @Test
+    void lowerCasesPlainAscii() {
+        assertEquals("sku-42", CollationUtil.fold("SKU-42"));
+        assertEquals("", CollationUtil.fold(null));
+    }
+}
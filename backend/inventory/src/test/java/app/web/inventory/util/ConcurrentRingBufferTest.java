@@ -0,0 +1,100 @@
+package app.web.inventory.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+class ConcurrentRingBufferTest {
+
+    @Test
+    void returnsItemsNewestFirst() {
+        ConcurrentRingBuffer<Integer> ring = new ConcurrentRingBuffer<>(3);
+        ring.append(1);
+        ring.append(2);
+
+        assertEquals(List.of(2, 1), ring.snapshot());
+    }
+
+    @Test
+    void keepsOnlyTheLastCapacityItems() {
+        ConcurrentRingBuffer<Integer> ring = new ConcurrentRingBuffer<>(3);
+        for (int i = 1; i <= 7; i++) {
+            ring.append(i);
+        }
+
+        assertEquals(List.of(7, 6, 5), ring.snapshot());
+    }
+
+    @Test
+    void emptyRingHasEmptySnapshot() {
+        assertEquals(List.of(), new ConcurrentRingBuffer<Integer>(3).snapshot());
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentRingBuffer<Integer>(0));
+    }
+
+    @Test
+    void snapshotsStayConsistentWhileWritersOverwrite() throws Exception {
+        int capacity = 8;
+        int writers = 4;
+        int appendsPerWriter = 200_000;
+        ConcurrentRingBuffer<long[]> ring = new ConcurrentRingBuffer<>(capacity);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            long writer = w;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long n = 0; n < appendsPerWriter; n++) {
+                    ring.append(new long[] { writer, n });
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        int snapshots = 0;
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            List<long[]> snapshot = ring.snapshot();
+            snapshots++;
+            assertTrue(snapshot.size() <= capacity, "snapshot larger than the ring");
+            // Every item once, and each writer's items newest first
+            Map<Long, Long> lastByWriter = new HashMap<>();
+            Set<long[]> seen = new HashSet<>();
+            for (long[] item : snapshot) {
+                if (!seen.add(item)) {
+                    fail("item returned twice");
+                }
+                Long previous = lastByWriter.put(item[0], item[1]);
+                if (previous != null && previous <= item[1]) {
+                    fail("writer " + item[0] + " out of order: " + previous + " before " + item[1]);
+                }
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(snapshots > 0);
+        assertEquals(capacity, ring.snapshot().size());
+    }
+}
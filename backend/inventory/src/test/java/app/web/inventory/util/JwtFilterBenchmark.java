@@ -0,0 +1,136 @@
+package app.web.inventory.util;
+
+import java.io.IOException;
+import java.security.Key;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import app.web.inventory.security.JwtFilter;
+import app.web.inventory.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Per-request cost of JwtFilter against the filter it replaced, which built a
+ * new parser and verified the HMAC on every request. Each filter runs once
+ * with the same token on every request, as a dashboard load does, and once
+ * with a token it has not seen, so the current filter also pays for the
+ * digest, the cache miss and the insert. Not part of the test suite; run with
+ * {@code java -cp target/classes:target/test-classes:<test classpath> app.web.inventory.util.JwtFilterBenchmark}.
+ */
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+    private static final int CACHE_SIZE = 10_000;
+    private static final int OPS = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expirationMs", 3_600_000L);
+        jwtUtil.init();
+
+        // Twice the cache size, visited in order, so every lookup of the current filter misses
+        String[] coldTokens = new String[2 * CACHE_SIZE];
+        for (int i = 0; i < coldTokens.length; i++) {
+            coldTokens[i] = "Bearer " + jwtUtil.generateToken(new UUID(0, i).toString(), "user" + i + "@example.com");
+        }
+        String[] repeatedToken = { coldTokens[0] };
+
+        OncePerRequestFilter previous = new PreviousJwtFilter(Keys.hmacShaKeyFor(SECRET.getBytes()));
+        OncePerRequestFilter current = new JwtFilter(jwtUtil, CACHE_SIZE, 300);
+
+        MicroBenchmark.run("previous filter, repeated token", OPS, request(previous, repeatedToken));
+        MicroBenchmark.run("JwtFilter, repeated token", OPS, request(current, repeatedToken));
+        MicroBenchmark.run("previous filter, cold token", OPS, request(previous, coldTokens));
+        MicroBenchmark.run("JwtFilter, cold token", OPS, request(current, coldTokens));
+    }
+
+    private static IntConsumer request(OncePerRequestFilter filter, String[] tokens) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dashboard/overview");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                throw new IllegalStateException("request was not authenticated");
+            }
+            SecurityContextHolder.clearContext();
+        };
+        return i -> {
+            request.removeHeader("Authorization");
+            request.addHeader("Authorization", tokens[i % tokens.length]);
+            try {
+                filter.doFilter(request, response, chain);
+            } catch (IOException | ServletException e) {
+                throw new IllegalStateException(e);
+            }
+            if (response.getStatus() != HttpServletResponse.SC_OK) {
+                throw new IllegalStateException("request was rejected");
+            }
+        };
+    }
+
+    // JwtFilter before the change, with JwtUtil.parseToken's parser construction inlined
+    private static final class PreviousJwtFilter extends OncePerRequestFilter {
+        private final Key key;
+
+        PreviousJwtFilter(Key key) {
+            this.key = key;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            String path = request.getRequestURI();
+            if (path.startsWith("/api/auth/")
+                    || path.equals("/api/health")
+                    || path.startsWith("/swagger-ui")
+                    || path.startsWith("/v3/api-docs")
+                    || path.startsWith("/oauth2/")
+                    || path.startsWith("/login/oauth2/")) {
+                chain.doFilter(request, response);
+                return;
+            }
+
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                return;
+            }
+
+            String token = authHeader.substring(7);
+            try {
+                Jws<Claims> claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+                String userId = claims.getBody().getSubject();
+                String email = (String) claims.getBody().get("email");
+
+                Map<String, Object> principal = Map.of(
+                        "userId", UUID.fromString(userId),
+                        "email", email);
+
+                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                        principal, null, Collections.emptyList());
+                SecurityContextHolder.getContext().setAuthentication(auth);
+            } catch (Exception ex) {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                return;
+            }
+
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package app.web.inventory.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Minimal single-threaded timing loop shared by the benchmark main classes in
+ * this package: warms the operation up, then reports mean latency and bytes
+ * allocated by the calling thread per operation. Each result is the median of
+ * a few rounds, which is enough to compare two code paths side by side.
+ */
+final class MicroBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private MicroBenchmark() {
+    }
+
+    static void run(String name, int ops, IntConsumer op) {
+        for (int i = 0; i < ops; i++) {
+            op.accept(i);
+        }
+        double[] nanos = new double[ROUNDS];
+        double[] bytes = new double[ROUNDS];
+        long threadId = Thread.currentThread().getId();
+        for (int round = 0; round < ROUNDS; round++) {
+            long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int i = 0; i < ops; i++) {
+                op.accept(i);
+            }
+            nanos[round] = (System.nanoTime() - start) / (double) ops;
+            bytes[round] = (THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore) / (double) ops;
+        }
+        Arrays.sort(nanos);
+        Arrays.sort(bytes);
+        System.out.printf("%-44s %,12.0f ns/op %,12.0f B/op%n", name, nanos[ROUNDS / 2], bytes[ROUNDS / 2]);
+    }
+}
@@ -0,0 +1,121 @@
+package app.web.inventory.util;
+
+import java.util.UUID;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import app.web.inventory.InventoryApplication;
+import app.web.inventory.dto.product.ProductDto;
+import app.web.inventory.model.Products;
+import app.web.inventory.model.Spaces;
+import app.web.inventory.model.Users;
+import app.web.inventory.repository.ProductRepository;
+import app.web.inventory.repository.SpaceRepository;
+import app.web.inventory.repository.UserRepository;
+
+/**
+ * Cost of reading a 1000-row product page the way getProductsBySpace did
+ * before the DTO projections (managed entities in a read-write transaction,
+ * copied by convertToDto) and the way it does now (a constructor projection
+ * in a read-only transaction). Runs the application context against an
+ * in-memory H2 database in MySQL mode, so absolute numbers leave out the
+ * network and only the relative cost is meaningful. Not part of the test
+ * suite; run with
+ * {@code java -cp target/classes:target/test-classes:<test classpath> app.web.inventory.util.ProductPageBenchmark}.
+ */
+public class ProductPageBenchmark {
+
+    private static final int PAGE_SIZE = 1000;
+    private static final int OPS = 200;
+
+    public static void main(String[] args) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InventoryApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                        "--spring.datasource.username=sa",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--logging.level.root=WARN",
+                        "--app.jwt.secret=YmVuY2htYXJrLXNlY3JldC1iZW5jaG1hcmstc2VjcmV0LWJlbmNo",
+                        "--app.jwt.expiration-ms=3600000",
+                        "--app.audit.archive.enabled=false",
+                        "--spring.mail.host=localhost",
+                        "--app.oauth2.frontend-redirect-uri=http://localhost",
+                        "--spring.security.oauth2.client.registration.google.client-id=benchmark",
+                        "--spring.security.oauth2.client.registration.google.client-secret=benchmark")) {
+
+            ProductRepository productRepository = context.getBean(ProductRepository.class);
+            PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+            TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+
+            Spaces space = seed(context);
+            UUID spaceId = space.getId();
+            UUID ownerId = space.getOwner().getId();
+            Pageable pageable = PageRequest.of(0, PAGE_SIZE);
+
+            MicroBenchmark.run("entities + convertToDto, read-write", OPS, i -> check(readWrite.execute(status ->
+                    productRepository.findBySpaceIdAndUserHasAccessAndSearch(spaceId, ownerId, null, pageable)
+                            .map(ProductPageBenchmark::convertToDto))));
+            MicroBenchmark.run("constructor projection, read-only", OPS, i -> check(readOnly.execute(status ->
+                    productRepository.findDtosBySpaceIdAndSearch(spaceId, null, pageable))));
+        }
+    }
+
+    private static Spaces seed(ConfigurableApplicationContext context) {
+        Users owner = new Users();
+        owner.setEmail("benchmark@example.com");
+        owner.setName("Benchmark");
+        owner.setAuthProvider("local");
+        owner = context.getBean(UserRepository.class).save(owner);
+
+        Spaces space = new Spaces();
+        space.setName("Benchmark");
+        space.setOwner(owner);
+        space = context.getBean(SpaceRepository.class).save(space);
+
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Products product = new Products();
+            product.setSpace(space);
+            product.setName("Product " + i);
+            product.setSku("SKU-" + i);
+            product.setCategory("Category " + (i % 20));
+            product.setImageUrl("https://example.com/images/" + i + ".png");
+            product.setPrice(1.0 + i);
+            product.setCurrentStock(i % 50);
+            product.setMinimumQuantity(10);
+            product.setMaximumQuantity(100);
+            productRepository.save(product);
+        }
+        return space;
+    }
+
+    private static void check(Page<ProductDto> page) {
+        if (page.getNumberOfElements() != PAGE_SIZE) {
+            throw new IllegalStateException("expected a full page, got " + page.getNumberOfElements());
+        }
+    }
+
+    // ProductService.convertToDto before the projections
+    private static ProductDto convertToDto(Products product) {
+        return new ProductDto(
+                product.getId(),
+                product.getSpace().getId(),
+                product.getName(),
+                product.getSku(),
+                product.getCategory(),
+                product.getImageUrl(),
+                product.getPrice(),
+                product.getCurrentStock(),
+                product.getMinimumQuantity(),
+                product.getMaximumQuantity());
+    }
+}
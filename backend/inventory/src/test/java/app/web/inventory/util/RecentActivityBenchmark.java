@@ -0,0 +1,144 @@
+package app.web.inventory.util;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.web.inventory.dto.audit.AuditLogDto;
+import app.web.inventory.dto.dashboard.RecentActivityDto;
+import app.web.inventory.dto.dashboard.RecentActivityDto.ActivityItem;
+import app.web.inventory.service.AuditLogService;
+import app.web.inventory.service.DashboardService;
+import app.web.inventory.service.ProductService;
+import app.web.inventory.service.SpaceInventoryStatsService;
+import app.web.inventory.service.SpaceService;
+
+/**
+ * Allocation of one dashboard recent-activity feed (50 stock entries) built
+ * the previous way, with a new ObjectMapper and a details parse per row, and
+ * by DashboardService.getRecentActivity from the stored description and typed
+ * columns. Both paths read the rows from the same stubbed AuditLogService.
+ * Not part of the test suite; run with
+ * {@code java -cp target/classes:target/test-classes:<test classpath> app.web.inventory.util.RecentActivityBenchmark}.
+ */
+public class RecentActivityBenchmark {
+
+    private static final int ROWS = 50;
+    private static final int OPS = 2_000;
+
+    public static void main(String[] args) throws JsonProcessingException {
+        UUID userId = new UUID(0, 1);
+        AuditLogService auditLogService = mock(AuditLogService.class);
+        when(auditLogService.getRecentActivity(any(), anyInt())).thenReturn(rows());
+        DashboardService dashboardService = new DashboardService(mock(ProductService.class),
+                mock(SpaceService.class), auditLogService, mock(SpaceInventoryStatsService.class));
+
+        MicroBenchmark.run("ObjectMapper + details parse per row", OPS,
+                i -> check(previousRecentActivity(auditLogService, userId)));
+        MicroBenchmark.run("stored description and typed columns", OPS,
+                i -> check(dashboardService.getRecentActivity(userId)));
+    }
+
+    private static List<AuditLogDto> rows() throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<AuditLogDto> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("productName", "Product " + i);
+            details.put("spaceName", "Warehouse");
+            details.put("quantityAdded", 5);
+            details.put("oldStock", 10 + i);
+            details.put("newStock", 15 + i);
+            AuditLogDto row = new AuditLogDto();
+            row.setId(new UUID(1, i));
+            row.setEntityType("PRODUCT");
+            row.setEntityId(new UUID(2, i));
+            row.setOperation("STOCK_ADD");
+            row.setDetails(mapper.writeValueAsString(details));
+            row.setTimestamp(LocalDateTime.now().minusMinutes(i));
+            row.setIpAddress("10.0.0.1");
+            row.setProductName("Product " + i);
+            row.setSpaceName("Warehouse");
+            row.setQuantityDelta(5);
+            row.setOldStock(10 + i);
+            row.setNewStock(15 + i);
+            row.setDescription("Added 5 units to 'Product " + i + "'");
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static void check(RecentActivityDto feed) {
+        if (feed.getActivities().size() != ROWS
+                || !feed.getActivities().get(0).getDescription().equals("Added 5 units to 'Product 0'")) {
+            throw new IllegalStateException("unexpected feed");
+        }
+    }
+
+    // DashboardService.getRecentActivity before the typed columns
+    @SuppressWarnings("unchecked")
+    private static RecentActivityDto previousRecentActivity(AuditLogService auditLogService, UUID userId) {
+        List<AuditLogDto> recentLogs = auditLogService.getRecentActivity(userId, 168);
+
+        List<ActivityItem> activities = recentLogs.stream()
+                .map((AuditLogDto log) -> {
+                    Map<String, Object> details = new HashMap<>();
+                    String description;
+
+                    if (log.getDetails() != null) {
+                        try {
+                            ObjectMapper mapper = new ObjectMapper();
+                            details = mapper.readValue(log.getDetails(), Map.class);
+                            description = generateActivityDescription(log.getOperation(), log.getEntityType(),
+                                    details);
+                        } catch (JsonProcessingException e) {
+                            description = log.getOperation() + " " + log.getEntityType();
+                        }
+                    } else {
+                        description = log.getOperation() + " " + log.getEntityType();
+                    }
+
+                    return new ActivityItem(
+                            log.getId(),
+                            log.getOperation().toLowerCase(),
+                            log.getEntityType().toLowerCase(),
+                            log.getEntityId(),
+                            log.getTimestamp(),
+                            log.getIpAddress(),
+                            details,
+                            description);
+                })
+                .collect(Collectors.toList());
+
+        return new RecentActivityDto(
+                activities,
+                activities.size(),
+                !activities.isEmpty(),
+                "Recent activities from audit logs");
+    }
+
+    // Matched on the operation so both paths build the same description
+    private static String generateActivityDescription(String operation, String entityType,
+            Map<String, Object> details) {
+        return switch (operation) {
+            case "STOCK_ADD" ->
+                "Added " + details.get("quantityAdded") + " units to '" + details.get("productName") + "'";
+            case "STOCK_REMOVE" ->
+                "Removed " + details.get("quantityRemoved") + " units from '" + details.get("productName") + "'";
+            default -> operation + " " + entityType;
+        };
+    }
+}